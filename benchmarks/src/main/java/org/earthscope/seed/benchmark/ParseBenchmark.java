@@ -0,0 +1,118 @@
+package org.earthscope.seed.benchmark;
+
+import org.earthscope.seed.BTime;
+import org.earthscope.seed.data.B1000;
+import org.earthscope.seed.data.B1001;
+import org.earthscope.seed.data.DataBlockette;
+import org.earthscope.seed.data.DataBlocketteFactory;
+import org.earthscope.seed.data.DataRecord;
+import org.earthscope.seed.data.SeedDataHeader;
+import org.earthscope.seed.data.SeedDataHeaderView;
+import org.earthscope.seed.io.RecordParser;
+import org.earthscope.seed.util.SeedByteBuffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per record costs of the header, time and blockette parsers on the first record of the bundled file. Run with
+ * {@code -prof gc} for the allocation per operation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ParseBenchmark {
+
+    private byte[] record;
+    private ByteOrder byteOrder;
+    private int b1000Offset;
+    private int b1001Offset;
+    private final SeedDataHeaderView view = new SeedDataHeaderView();
+    private final RecordParser parser = new RecordParser();
+    private long epochNanos;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        byte[] bytes = Files.readAllBytes(SeedFiles.bundled());
+        SeedDataHeader header = DataBlocketteFactory.createHeader(bytes);
+        record = Arrays.copyOf(bytes, view.wrap(bytes).getRecordLength());
+        byteOrder = header.getByteOrder();
+        epochNanos = header.getStart().toEpochNanos();
+        b1000Offset = -1;
+        b1001Offset = -1;
+        int offset = header.getFirstDataBlockette();
+        while (offset > 0) {
+            DataBlockette blockette = DataBlocketteFactory.create(record, offset, byteOrder);
+            if (blockette.getType() == 1000) {
+                b1000Offset = offset;
+            } else if (blockette.getType() == 1001) {
+                b1001Offset = offset;
+            }
+            offset = blockette.getNextBlocketteByteNumber();
+        }
+        if (b1000Offset < 0 || b1001Offset < 0) {
+            throw new IllegalStateException("Expected a record with B1000 and B1001");
+        }
+    }
+
+    @Benchmark
+    public SeedDataHeader createHeader() throws Exception {
+        return DataBlocketteFactory.createHeader(record);
+    }
+
+    @Benchmark
+    public long headerView() throws Exception {
+        return view.wrap(record).getStartEpochNanos();
+    }
+
+    @Benchmark
+    public DataRecord parseRecord() throws Exception {
+        return parser.parse(record);
+    }
+
+    @Benchmark
+    public BTime btimeFromBytes() throws Exception {
+        return SeedByteBuffer.wrap(record, 20, 10, byteOrder).getTime();
+    }
+
+    @Benchmark
+    public BTime btimeFromFields() {
+        return BTime.valueOf(2020, 213, 18, 24, 42, 1234);
+    }
+
+    @Benchmark
+    public BTime btimeFromEpochNanos() {
+        return BTime.ofEpochNanos(epochNanos);
+    }
+
+    @Benchmark
+    public B1000 createB1000() throws Exception {
+        return DataBlocketteFactory.createB1000(record, b1000Offset, byteOrder);
+    }
+
+    @Benchmark
+    public B1001 createB1001() throws Exception {
+        return DataBlocketteFactory.createB1001(record, b1001Offset, byteOrder);
+    }
+
+    @Benchmark
+    public DataBlockette createByType() throws Exception {
+        return DataBlocketteFactory.create(record, b1001Offset, byteOrder);
+    }
+}
@@ -0,0 +1,82 @@
+package org.earthscope.seed.benchmark;
+
+import org.earthscope.seed.data.DataRecord;
+import org.earthscope.seed.io.RecordReader;
+import org.earthscope.seed.io.SeedInputStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.BufferedInputStream;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One pass over a whole file per operation, with records/s and bytes/s reported through {@link Throughput}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReadBenchmark {
+
+    @Benchmark
+    public void seedInputStreamRead(SeedFiles files, Throughput throughput, Blackhole blackhole) throws Exception {
+        try (SeedInputStream sis = new SeedInputStream(open(files))) {
+            byte[] bytes;
+            while ((bytes = sis.read()) != null) {
+                blackhole.consume(bytes);
+                throughput.records++;
+                throughput.bytes += bytes.length;
+            }
+        }
+    }
+
+    @Benchmark
+    public void seedInputStreamReadRing(SeedFiles files, Throughput throughput, Blackhole blackhole)
+            throws Exception {
+        try (SeedInputStream sis = new SeedInputStream(open(files)).ring(1)) {
+            byte[] bytes;
+            while ((bytes = sis.read()) != null) {
+                blackhole.consume(bytes);
+                throughput.records++;
+                throughput.bytes += bytes.length;
+            }
+        }
+    }
+
+    @Benchmark
+    public void recordReaderRead(SeedFiles files, Throughput throughput, Blackhole blackhole) throws Exception {
+        try (RecordReader reader = new RecordReader(open(files))) {
+            DataRecord record;
+            while ((record = reader.read()) != null) {
+                blackhole.consume(record);
+                throughput.records++;
+            }
+        }
+        throughput.bytes += files.size;
+    }
+
+    @Benchmark
+    public void recordReaderReadB1001(SeedFiles files, Throughput throughput, Blackhole blackhole) throws Exception {
+        try (RecordReader reader = new RecordReader(open(files)).blockettes(1001)) {
+            DataRecord record;
+            while ((record = reader.read()) != null) {
+                blackhole.consume(record);
+                throughput.records++;
+            }
+        }
+        throughput.bytes += files.size;
+    }
+
+    private static InputStream open(SeedFiles files) throws Exception {
+        return new BufferedInputStream(Files.newInputStream(files.path), 1 << 16);
+    }
+}
@@ -0,0 +1,72 @@
+package org.earthscope.seed.benchmark;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * The file read by a benchmark: the bundled fdsnws-dataselect file, or a synthetic file of about syntheticMegabytes
+ * made of copies of it. The bundled file is looked up relative to the benchmarks directory, set
+ * {@code -Dseed.benchmark.file=...} to use another one.
+ */
+@State(Scope.Benchmark)
+public class SeedFiles {
+
+    static final String BUNDLED_FILE = "../src/test/resources/fdsnws-dataselect_2020-07-31t18_24_42z.mseed";
+
+    @Param({"bundled", "synthetic"})
+    public String source;
+
+    @Param({"256"})
+    public int syntheticMegabytes;
+
+    Path path;
+    long size;
+    private Path synthetic;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        Path bundled = bundled();
+        if ("bundled".equals(source)) {
+            path = bundled;
+        } else if ("synthetic".equals(source)) {
+            synthetic = Files.createTempFile("seed-benchmark", ".mseed");
+            byte[] bytes = Files.readAllBytes(bundled);
+            long target = (long) syntheticMegabytes << 20;
+            try (OutputStream out = Files.newOutputStream(synthetic)) {
+                for (long written = 0; written < target; written += bytes.length) {
+                    out.write(bytes);
+                }
+            }
+            path = synthetic;
+        } else {
+            throw new IllegalArgumentException("Unknown source " + source);
+        }
+        size = Files.size(path);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        if (synthetic != null) {
+            Files.deleteIfExists(synthetic);
+        }
+    }
+
+    static Path bundled() {
+        Path file = Paths.get(System.getProperty("seed.benchmark.file", BUNDLED_FILE));
+        if (!Files.isRegularFile(file)) {
+            throw new IllegalStateException("Seed file " + file.toAbsolutePath() + " not found, run from the "
+                    + "benchmarks directory or set -Dseed.benchmark.file");
+        }
+        return file;
+    }
+}
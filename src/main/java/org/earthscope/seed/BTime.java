@@ -6,6 +6,7 @@ import javax.xml.datatype.DatatypeConfigurationException;
 import javax.xml.datatype.DatatypeConstants;
 import javax.xml.datatype.DatatypeFactory;
 import javax.xml.datatype.XMLGregorianCalendar;
+import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.charset.StandardCharsets;
 import java.time.*;
@@ -15,69 +16,131 @@ import java.time.temporal.ChronoField;
 import java.util.*;
 
 
+/**
+ * A point in time as carried by SEED headers, held as UTC epoch seconds plus nanoseconds. Field access, comparisons
+ * and arithmetic work on the two primitives without creating java.time objects, those are only built on demand by
+ * {@link #toZonedDateTime()}, {@link #toInstant()} and the formatting methods. Hot loops can skip the object entirely
+ * with {@link #toEpochNanos(int, int, int, int, int, int)}.
+ */
 public class BTime implements Comparable<BTime> {
 
+	private static final ZoneId UTC = ZoneId.of("UTC");
+	private static final long NANOS_PER_SECOND = 1_000_000_000L;
+	private static final int SECONDS_PER_DAY = 86400;
+	private static final long DAYS_0001_TO_1970 = 719162L;
 
-	private ZonedDateTime zdt;
+	private final long epochSecond;
+	private final int nano;
 
-	private BTime(int year, int month, int dayOfMonth, int hour, int minute, int second, int nanoOfSecond,
-                  ZoneId zone) {
-		this(ZonedDateTime.of(year, month, dayOfMonth, hour, minute, second, nanoOfSecond, zone));
+	private BTime(long epochSecond, int nano) {
+		this.epochSecond = epochSecond;
+		this.nano = nano;
 	}
 
 	private BTime(int year, int dayOfYear, int hour, int minute, int second, int tenthMilliSecond) {
-		if(tenthMilliSecond>=10000){
-			throw new IllegalArgumentException("Expected a value between 0 and 100000 but received "+tenthMilliSecond);
+		this(toEpochSecond(year, dayOfYear, hour, minute, second), tenthMilliSecond * 100000);
+	}
+
+	/**
+	 * @return seconds since 1970-01-01T00:00:00Z for a SEED time, no objects are created
+	 */
+	public static long toEpochSecond(int year, int dayOfYear, int hour, int minute, int second) {
+		if (dayOfYear < 1 || dayOfYear > (isLeapYear(year) ? 366 : 365)) {
+			throw new DateTimeException("Invalid day of year " + dayOfYear + " for year " + year);
+		}
+		if (hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 60) {
+			throw new DateTimeException("Invalid time " + hour + ":" + minute + ":" + second);
+		}
+		long days = daysUntilYear(year) + dayOfYear - 1;
+		return days * SECONDS_PER_DAY + hour * 3600 + minute * 60 + second;
+	}
+
+	/**
+	 * @return nanoseconds since 1970-01-01T00:00:00Z for a SEED time, no objects are created
+	 */
+	public static long toEpochNanos(int year, int dayOfYear, int hour, int minute, int second,
+			int tenthMilliSecond) {
+		checkTenthMilliSecond(tenthMilliSecond);
+		return toEpochSecond(year, dayOfYear, hour, minute, second) * NANOS_PER_SECOND + tenthMilliSecond * 100000L;
+	}
+
+	private static void checkTenthMilliSecond(int tenthMilliSecond) {
+		if (tenthMilliSecond < 0 || tenthMilliSecond >= 10000) {
+			throw new IllegalArgumentException("Expected a value between 0 and 10000 but received " + tenthMilliSecond);
 		}
+	}
 
-		ZonedDateTime dateTime = ZonedDateTime.of(year, 1, 1, hour,
-				minute, second, tenthMilliSecond * 100000, ZoneId.of("UTC"));
-		this.zdt = dateTime.withDayOfYear(dayOfYear);
+	private static boolean isLeapYear(int year) {
+		return (year & 3) == 0 && (year % 100 != 0 || year % 400 == 0);
 	}
 
-	private BTime(ZonedDateTime time) {
-		Objects.requireNonNull(time);
-		this.zdt = time.withZoneSameInstant(ZoneId.of("UTC"));
+	private static long daysUntilYear(int year) {
+		long y = year - 1L;
+		return 365 * y + Math.floorDiv(y, 4) - Math.floorDiv(y, 100) + Math.floorDiv(y, 400) - DAYS_0001_TO_1970;
+	}
+
+	private long epochDay() {
+		return Math.floorDiv(epochSecond, SECONDS_PER_DAY);
+	}
+
+	private int secondOfDay() {
+		return Math.floorMod(epochSecond, SECONDS_PER_DAY);
+	}
+
+	/*
+	 * civil from days, see http://howardhinnant.github.io/date_algorithms.html
+	 */
+	private long civil() {
+		long z = epochDay() + 719468;
+		long era = Math.floorDiv(z, 146097);
+		long doe = z - era * 146097;
+		long yoe = (doe - doe / 1460 + doe / 36524 - doe / 146096) / 365;
+		long doy = doe - (365 * yoe + yoe / 4 - yoe / 100);
+		long mp = (5 * doy + 2) / 153;
+		long day = doy - (153 * mp + 2) / 5 + 1;
+		long month = mp < 10 ? mp + 3 : mp - 9;
+		long year = yoe + era * 400 + (month <= 2 ? 1 : 0);
+		return (year << 9) | (month << 5) | day;
 	}
 
 	public boolean isBefore(BTime other){
-		return zdt.isBefore(other.zdt);
+		return compareTo(other) < 0;
 	}
 
 	public boolean isAfter(BTime other){
-		return this.zdt.isAfter(other.zdt);
+		return compareTo(other) > 0;
 	}
 
 	public int getYear() {
-		return this.zdt.getYear();
+		return (int) (civil() >> 9);
 	}
 
 	public int getMonthOfYear() {
-		return zdt.getMonthValue();
+		return (int) (civil() >> 5) & 0x0f;
 	}
 
 	public int getDayOfYear() {
-		return this.zdt.getDayOfYear();
+		return (int) (epochDay() - daysUntilYear(getYear())) + 1;
 	}
 
 	public int getDayOfMonth() {
-		return this.zdt.getDayOfMonth();
+		return (int) civil() & 0x1f;
 	}
 
 	public ZoneId getZone() {
-		return this.zdt.getZone();
+		return UTC;
 	}
 
 	public int getHour() {
-		return this.zdt.getHour();
+		return secondOfDay() / 3600;
 	}
 
 	public int getMinute() {
-		return this.zdt.getMinute();
+		return secondOfDay() / 60 % 60;
 	}
 
 	public int getSecond() {
-		return this.zdt.getSecond();
+		return secondOfDay() % 60;
 	}
 
 	public int getTenthMilliSecond() {
@@ -85,47 +148,63 @@ public class BTime implements Comparable<BTime> {
 	}
 
 	public int getNano() {
-		return this.zdt.getNano();
+		return nano;
 	}
 
 	public BTime plusYears(int years) {
-		return BTime.valueOf(this.zdt.plusYears(years));
+		return BTime.valueOf(toZonedDateTime().plusYears(years));
 	}
 
 	public BTime plusDays(int days) {
-		return BTime.valueOf(this.zdt.plusDays(days));
+		return plusSeconds((long) days * SECONDS_PER_DAY);
 	}
 
 
 	public BTime plusHours(int hours) {
-		return BTime.valueOf(this.zdt.plusHours(hours));
+		return plusSeconds(hours * 3600L);
 	}
 
 	public BTime plusMinutes(int minutes) {
-		return BTime.valueOf(this.zdt.plusMinutes(minutes));
+		return plusSeconds(minutes * 60L);
 	}
 
 	public BTime plusSeconds(int seconds) {
-		return BTime.valueOf(this.zdt.plusSeconds(seconds));
+		return plusSeconds((long) seconds);
+	}
+
+	private BTime plusSeconds(long seconds) {
+		return new BTime(epochSecond + seconds, nano);
 	}
 
 	public BTime plusMicroSecond(int microSecond) {
-		return plusNanoSeconds(microSecond * 1000);
+		return plusNanoSeconds(microSecond * 1000L);
 	}
 
 	public BTime plusTenthMilliSeconds(int tenthMilliSecond) {
-		return plusNanoSeconds(tenthMilliSecond * 10000);
+		return plusNanoSeconds(tenthMilliSecond * 100000L);
 	}
 
 	public BTime plusNanoSeconds(long nanoSeconds) {
-		return BTime.valueOf(this.zdt.plusNanos(nanoSeconds));
+		if (nanoSeconds == 0) {
+			return this;
+		}
+		long n = nano + nanoSeconds % NANOS_PER_SECOND;
+		long seconds = epochSecond + nanoSeconds / NANOS_PER_SECOND + Math.floorDiv(n, NANOS_PER_SECOND);
+		return new BTime(seconds, (int) Math.floorMod(n, NANOS_PER_SECOND));
 	}
 
 	public LocalTime toLocalTime(){
-		return this.zdt.toLocalTime();
+		return LocalTime.ofNanoOfDay(secondOfDay() * NANOS_PER_SECOND + nano);
 	}
 	public long toEpochSecond() {
-		return zdt.toEpochSecond();
+		return epochSecond;
+	}
+
+	/**
+	 * @return nanoseconds since 1970-01-01T00:00:00Z, covers the years 1677 to 2262
+	 */
+	public long toEpochNanos() {
+		return epochSecond * NANOS_PER_SECOND + nano;
 	}
 
 	public int getMonthOfYear(int year, int dayOfYear) {
@@ -163,6 +242,7 @@ public class BTime implements Comparable<BTime> {
 	}
 
 	public static BTime valueOf(int year, int dayOfYear, int hour, int minute, int second, int tenthMilliSecond) {
+		checkTenthMilliSecond(tenthMilliSecond);
 		return new BTime(year,dayOfYear,hour,minute,second,tenthMilliSecond);
 	}
 
@@ -170,7 +250,18 @@ public class BTime implements Comparable<BTime> {
 		if (date == null) {
 			return null;
 		}
-		return new BTime(date);
+		return new BTime(date.toEpochSecond(), date.getNano());
+	}
+
+	public static BTime valueOf(Instant instant) {
+		if (instant == null) {
+			return null;
+		}
+		return new BTime(instant.getEpochSecond(), instant.getNano());
+	}
+
+	public static BTime ofEpochNanos(long epochNanos) {
+		return new BTime(Math.floorDiv(epochNanos, NANOS_PER_SECOND), (int) Math.floorMod(epochNanos, NANOS_PER_SECOND));
 	}
 
 	public static BTime valueOf(Date date) {
@@ -178,11 +269,8 @@ public class BTime implements Comparable<BTime> {
 			return null;
 		}
 		Instant instant = date.toInstant();
-
-		int tenthMilliSecond = instant.getNano() / 10000;
-		return BTime.valueOf(instant.get(ChronoField.YEAR), instant.get(ChronoField.DAY_OF_YEAR),
-				instant.get(ChronoField.HOUR_OF_DAY), instant.get(ChronoField.MINUTE_OF_HOUR),
-				instant.get(ChronoField.SECOND_OF_MINUTE), tenthMilliSecond);
+		int nano = instant.getNano() / 100000 * 100000;
+		return new BTime(instant.getEpochSecond(), nano);
 	}
 
 	public static BTime valueOf(String source) throws SeedException {
@@ -252,16 +340,16 @@ public class BTime implements Comparable<BTime> {
 	}
 
 	public String toSeedString() {
-		return this.zdt.getYear() +
-				"," + String.format("%03d", this.zdt.getDayOfYear()) +
-				"," + String.format("%02d", this.zdt.getHour()) +
-				":" + String.format("%02d", this.zdt.getMinute()) +
-				":" + String.format("%02d", this.zdt.getSecond()) +
-				"." + String.format("%04d", this.zdt.getNano()/100000);
+		return getYear() +
+				"," + String.format("%03d", getDayOfYear()) +
+				"," + String.format("%02d", getHour()) +
+				":" + String.format("%02d", getMinute()) +
+				":" + String.format("%02d", getSecond()) +
+				"." + String.format("%04d", getTenthMilliSecond());
 	}
 
 	public String format(){
-		return DateTimeUtil.format(zdt, "yyyy-MM-dd'T'HH:mm:ss.SSSSSS'Z'");
+		return DateTimeUtil.format(toZonedDateTime(), "yyyy-MM-dd'T'HH:mm:ss.SSSSSS'Z'");
 	}
 	public static XMLGregorianCalendar toCalendar(BTime bTime) throws DatatypeConfigurationException {
 		GregorianCalendar c = new GregorianCalendar();
@@ -272,7 +360,7 @@ public class BTime implements Comparable<BTime> {
 		c.set(Calendar.HOUR_OF_DAY, bTime.getHour());
 		c.set(Calendar.MINUTE, bTime.getMinute());
 		c.set(Calendar.SECOND, bTime.getSecond());
-		c.set(Calendar.MILLISECOND, bTime.getTenthMilliSecond());
+		c.set(Calendar.MILLISECOND, bTime.getNano() / 1000000);
 		return DatatypeFactory.newInstance().newXMLGregorianCalendar(c);
 	}
 
@@ -290,15 +378,15 @@ public class BTime implements Comparable<BTime> {
 		ZonedDateTime converted = zdt.withZoneSameInstant(ZoneId.of("GMT"));
 
 		return BTime.valueOf(converted.getYear(), converted.getDayOfYear(), converted.getHour(), converted.getMinute(),
-				converted.getSecond(), converted.get(ChronoField.MILLI_OF_SECOND));
+				converted.getSecond(), converted.get(ChronoField.MILLI_OF_SECOND) * 10);
 	}
 
 	public ZonedDateTime toZonedDateTime() {
-		return zdt;
+		return ZonedDateTime.ofInstant(toInstant(), UTC);
 	}
 
 	public Instant toInstant() {
-		return toZonedDateTime().toInstant();
+		return Instant.ofEpochSecond(epochSecond, nano);
 	}
 
 	public String toString(String pattern) {
@@ -311,7 +399,7 @@ public class BTime implements Comparable<BTime> {
 			return null;
 		}
 
-		DateTimeFormatter format = DateTimeFormatter.ofPattern(pattern).withZone(ZoneId.of("UTC"));
+		DateTimeFormatter format = DateTimeFormatter.ofPattern(pattern).withZone(UTC);
 		return format.format(dateTime);
 
 	}
@@ -321,13 +409,12 @@ public class BTime implements Comparable<BTime> {
 		if (this == o) return true;
 		if (o == null || getClass() != o.getClass()) return false;
 		BTime bTime = (BTime) o;
-		System.out.println(zdt+"    <<>>      "+bTime.zdt);
-		return Objects.equals(zdt, bTime.zdt);
+		return epochSecond == bTime.epochSecond && nano == bTime.nano;
 	}
 
 	@Override
 	public int hashCode() {
-		return Objects.hash(zdt);
+		return 31 * Long.hashCode(epochSecond) + nano;
 	}
 
 	@Override
@@ -335,7 +422,26 @@ public class BTime implements Comparable<BTime> {
 		if (o == null) {
 			return -1;
 		}
-		return this.compareTo(o);
+		int cmp = Long.compare(epochSecond, o.epochSecond);
+		return cmp != 0 ? cmp : Integer.compare(nano, o.nano);
+	}
+
+	public static ByteOrder determineByteOrder(ByteBuffer buffer, int offset) throws SeedException {
+		Objects.requireNonNull(buffer);
+		if(offset<0||buffer.limit()-offset<10){
+			throw new SeedException("Expected 10 bytes but received {}", buffer.limit()-offset);
+		}
+		int b0 = buffer.get(offset) & 255;
+		int b1 = buffer.get(offset + 1) & 255;
+		int year = b0 | b1 << 8;//le
+		if (year >= 1900 && year <= 2050) {
+			return ByteOrder.LITTLE_ENDIAN;
+		}
+		year = b0 << 8 | b1;//be
+		if (year >= 1900 && year <= 2050) {
+			return ByteOrder.BIG_ENDIAN;
+		}
+		throw new SeedException("Couldn't determine byte-order! {}", year);
 	}
 
 	public static ByteOrder determineByteOrder(byte[]bytes, int offset) throws SeedException {
@@ -0,0 +1,44 @@
+package org.earthscope.seed.codec;
+
+import org.earthscope.seed.SeedException;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Copies text, one byte per sample, as stored by {@link org.earthscope.seed.data.DataRecord#getAsciiSamples()}.
+ */
+public class AsciiEncoder extends Encoder {
+
+    private int encodedLength;
+
+    public AsciiEncoder() {
+        super(EncodingFormat.ASCII);
+    }
+
+    @Override
+    public int encode(int[] samples, int offset, int count, byte[] dst, int dstOffset, int length)
+            throws SeedException {
+        throw new SeedException("{} cannot encode int samples", getEncodingFormat());
+    }
+
+    /**
+     * Writes as many characters as fit, the rest of the data section is zeroed.
+     */
+    @Override
+    public int encode(byte[] samples, int offset, int count, byte[] dst, int dstOffset, int length)
+            throws SeedException {
+        Objects.requireNonNull(samples, "samples cannot be null");
+        checkBounds(samples.length, offset, count, dst, dstOffset, length);
+        int n = Math.min(count, length);
+        System.arraycopy(samples, offset, dst, dstOffset, n);
+        encodedLength = n;
+        Arrays.fill(dst, dstOffset + encodedLength, dstOffset + length, (byte) 0);
+        return n;
+    }
+
+    @Override
+    public int getEncodedLength() {
+        return encodedLength;
+    }
+}
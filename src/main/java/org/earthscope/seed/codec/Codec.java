@@ -0,0 +1,97 @@
+package org.earthscope.seed.codec;
+
+import org.earthscope.seed.SeedException;
+
+public final class Codec {
+
+    private Codec() {
+    }
+
+    public static boolean canDecode(EncodingFormat encodingFormat) {
+        if (encodingFormat == null) {
+            return false;
+        }
+        switch (encodingFormat) {
+            case SHORT:
+            case INT24:
+            case INTEGER:
+            case FLOAT:
+            case DOUBLE:
+            case STEIM1:
+            case STEIM2:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    public static Decoder decoder(EncodingFormat encodingFormat) throws SeedException {
+        if (encodingFormat == null) {
+            throw new SeedException("Encoding format cannot be null");
+        }
+        switch (encodingFormat) {
+            case SHORT:
+                return new Int16Decoder();
+            case INT24:
+                return new Int24Decoder();
+            case INTEGER:
+                return new Int32Decoder();
+            case FLOAT:
+                return new FloatDecoder();
+            case DOUBLE:
+                return new DoubleDecoder();
+            case STEIM1:
+                return new Steim1Decoder();
+            case STEIM2:
+                return new Steim2Decoder();
+            default:
+                throw new SeedException("Unsupported encoding format {}", encodingFormat);
+        }
+    }
+
+    /**
+     * @return true if integer samples can be encoded in encodingFormat, {@link #encoder(EncodingFormat)} also
+     * supports FLOAT and DOUBLE for float and double samples and ASCII for text
+     */
+    public static boolean canEncode(EncodingFormat encodingFormat) {
+        if (encodingFormat == null) {
+            return false;
+        }
+        switch (encodingFormat) {
+            case SHORT:
+            case INT24:
+            case INTEGER:
+            case STEIM1:
+            case STEIM2:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    public static Encoder encoder(EncodingFormat encodingFormat) throws SeedException {
+        if (encodingFormat == null) {
+            throw new SeedException("Encoding format cannot be null");
+        }
+        switch (encodingFormat) {
+            case ASCII:
+                return new AsciiEncoder();
+            case SHORT:
+                return new Int16Encoder();
+            case INT24:
+                return new Int24Encoder();
+            case INTEGER:
+                return new Int32Encoder();
+            case STEIM1:
+                return new Steim1Encoder();
+            case STEIM2:
+                return new Steim2Encoder();
+            case FLOAT:
+                return new FloatEncoder();
+            case DOUBLE:
+                return new DoubleEncoder();
+            default:
+                throw new SeedException("Unsupported encoding format {}", encodingFormat);
+        }
+    }
+}
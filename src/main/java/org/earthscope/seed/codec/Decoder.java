@@ -0,0 +1,144 @@
+package org.earthscope.seed.codec;
+
+import org.earthscope.seed.SeedException;
+
+import java.nio.ByteOrder;
+import java.util.Objects;
+
+/**
+ * Decodes the data section of a record into samples. Instances are obtained from {@link Codec#decoder(EncodingFormat)}
+ * and configured per record:
+ * <pre>
+ * int[] samples = Codec.decoder(b1000.getEncodingFormat()).byteOrder(b1000.getByteOrder())
+ *         .lastSampleFromPreviousRecord(last).expectedNumberOfSamples(header.getNumberOfSamples())
+ *         .decode(bytes, header.getBeginningOfData());
+ * </pre>
+ */
+public abstract class Decoder {
+
+    private final EncodingFormat encodingFormat;
+    protected ByteOrder byteOrder = ByteOrder.BIG_ENDIAN;
+    protected int expectedNumberOfSamples = -1;
+    protected int lastSampleFromPreviousRecord;
+    protected boolean hasLastSampleFromPreviousRecord;
+
+    protected Decoder(EncodingFormat encodingFormat) {
+        this.encodingFormat = encodingFormat;
+    }
+
+    public EncodingFormat getEncodingFormat() {
+        return encodingFormat;
+    }
+
+    public Decoder byteOrder(ByteOrder byteOrder) {
+        this.byteOrder = Objects.requireNonNull(byteOrder);
+        return this;
+    }
+
+    public Decoder expectedNumberOfSamples(int expectedNumberOfSamples) {
+        this.expectedNumberOfSamples = expectedNumberOfSamples;
+        return this;
+    }
+
+    public Decoder lastSampleFromPreviousRecord(int lastSampleFromPreviousRecord) {
+        this.lastSampleFromPreviousRecord = lastSampleFromPreviousRecord;
+        this.hasLastSampleFromPreviousRecord = true;
+        return this;
+    }
+
+    public int[] decode(byte[] bytes, int offset) throws SeedException {
+        Objects.requireNonNull(bytes, "bytes cannot be null");
+        return decode(bytes, offset, bytes.length - offset);
+    }
+
+    public int[] decode(byte[] bytes, int offset, int length) throws SeedException {
+        if (expectedNumberOfSamples < 0) {
+            throw new SeedException("Expected number of samples is not set for {}", encodingFormat);
+        }
+        int[] samples = new int[expectedNumberOfSamples];
+        decode(bytes, offset, length, samples, 0);
+        return samples;
+    }
+
+    public float[] decodeFloats(byte[] bytes, int offset) throws SeedException {
+        Objects.requireNonNull(bytes, "bytes cannot be null");
+        return decodeFloats(bytes, offset, bytes.length - offset);
+    }
+
+    public float[] decodeFloats(byte[] bytes, int offset, int length) throws SeedException {
+        if (expectedNumberOfSamples < 0) {
+            throw new SeedException("Expected number of samples is not set for {}", encodingFormat);
+        }
+        float[] samples = new float[expectedNumberOfSamples];
+        decode(bytes, offset, length, samples, 0);
+        return samples;
+    }
+
+    public double[] decodeDoubles(byte[] bytes, int offset) throws SeedException {
+        Objects.requireNonNull(bytes, "bytes cannot be null");
+        return decodeDoubles(bytes, offset, bytes.length - offset);
+    }
+
+    public double[] decodeDoubles(byte[] bytes, int offset, int length) throws SeedException {
+        if (expectedNumberOfSamples < 0) {
+            throw new SeedException("Expected number of samples is not set for {}", encodingFormat);
+        }
+        double[] samples = new double[expectedNumberOfSamples];
+        decode(bytes, offset, length, samples, 0);
+        return samples;
+    }
+
+    /**
+     * Decodes {@code expectedNumberOfSamples} samples from {@code bytes[offset, offset+length)} into
+     * {@code samples} starting at {@code samplesOffset}.
+     *
+     * @return the number of samples written
+     */
+    public abstract int decode(byte[] bytes, int offset, int length, int[] samples, int samplesOffset)
+            throws SeedException;
+
+    public int decode(byte[] bytes, int offset, int length, float[] samples, int samplesOffset)
+            throws SeedException {
+        throw new SeedException("{} samples cannot be decoded as float", encodingFormat);
+    }
+
+    public int decode(byte[] bytes, int offset, int length, double[] samples, int samplesOffset)
+            throws SeedException {
+        throw new SeedException("{} samples cannot be decoded as double", encodingFormat);
+    }
+
+    protected void checkBounds(byte[] bytes, int offset, int length, int capacity, int samplesOffset)
+            throws SeedException {
+        Objects.requireNonNull(bytes, "bytes cannot be null");
+        if (expectedNumberOfSamples < 0) {
+            throw new SeedException("Expected number of samples is not set for {}", encodingFormat);
+        }
+        if (offset < 0 || length < 0 || offset + length > bytes.length) {
+            throw new SeedException("Invalid data section offset {} and length {} for {} bytes", offset, length,
+                    bytes.length);
+        }
+        if (samplesOffset < 0 || capacity - samplesOffset < expectedNumberOfSamples) {
+            throw new SeedException("Sample array too small, expected room for {} samples at {} but length is {}",
+                    expectedNumberOfSamples, samplesOffset, capacity);
+        }
+    }
+
+    /**
+     * Uncompressed encodings store a fixed number of bytes per sample, makes sure the data section holds all of them.
+     */
+    protected void checkLength(int length, int bytesPerSample) throws SeedException {
+        if ((long) expectedNumberOfSamples * bytesPerSample > length) {
+            throw new SeedException("{}: expected {} samples but data section is only {} bytes", encodingFormat,
+                    expectedNumberOfSamples, length);
+        }
+    }
+
+    protected final int getInt(byte[] bytes, int index) {
+        if (byteOrder == ByteOrder.BIG_ENDIAN) {
+            return (bytes[index] << 24) | ((bytes[index + 1] & 0xff) << 16) | ((bytes[index + 2] & 0xff) << 8)
+                    | (bytes[index + 3] & 0xff);
+        }
+        return (bytes[index + 3] << 24) | ((bytes[index + 2] & 0xff) << 16) | ((bytes[index + 1] & 0xff) << 8)
+                | (bytes[index] & 0xff);
+    }
+}
@@ -0,0 +1,26 @@
+package org.earthscope.seed.codec;
+
+import org.earthscope.seed.SeedException;
+
+import java.nio.ByteBuffer;
+
+public class DoubleDecoder extends Decoder {
+
+    public DoubleDecoder() {
+        super(EncodingFormat.DOUBLE);
+    }
+
+    @Override
+    public int decode(byte[] bytes, int offset, int length, int[] samples, int samplesOffset) throws SeedException {
+        throw new SeedException("{} samples cannot be decoded as int", getEncodingFormat());
+    }
+
+    @Override
+    public int decode(byte[] bytes, int offset, int length, double[] samples, int samplesOffset) throws SeedException {
+        checkBounds(bytes, offset, length, samples.length, samplesOffset);
+        checkLength(length, 8);
+        int n = expectedNumberOfSamples;
+        ByteBuffer.wrap(bytes, offset, n * 8).order(byteOrder).asDoubleBuffer().get(samples, samplesOffset, n);
+        return n;
+    }
+}
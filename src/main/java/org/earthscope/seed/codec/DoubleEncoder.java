@@ -0,0 +1,52 @@
+package org.earthscope.seed.codec;
+
+import org.earthscope.seed.SeedException;
+
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.Objects;
+
+public class DoubleEncoder extends Encoder {
+
+    private int encodedLength;
+
+    public DoubleEncoder() {
+        super(EncodingFormat.DOUBLE);
+    }
+
+    @Override
+    public int encode(int[] samples, int offset, int count, byte[] dst, int dstOffset, int length)
+            throws SeedException {
+        throw new SeedException("{} cannot encode int samples", getEncodingFormat());
+    }
+
+    /**
+     * Writes as many samples as fit, the rest of the data section is zeroed.
+     */
+    @Override
+    public int encode(double[] samples, int offset, int count, byte[] dst, int dstOffset, int length)
+            throws SeedException {
+        Objects.requireNonNull(samples, "samples cannot be null");
+        checkBounds(samples.length, offset, count, dst, dstOffset, length);
+        int n = Math.min(count, length / 8);
+        for (int i = 0; i < n; i++) {
+            long bits = Double.doubleToRawLongBits(samples[offset + i]);
+            int index = dstOffset + 8 * i;
+            if (byteOrder == ByteOrder.BIG_ENDIAN) {
+                putInt(dst, index, (int) (bits >>> 32));
+                putInt(dst, index + 4, (int) bits);
+            } else {
+                putInt(dst, index, (int) bits);
+                putInt(dst, index + 4, (int) (bits >>> 32));
+            }
+        }
+        encodedLength = n * 8;
+        Arrays.fill(dst, dstOffset + encodedLength, dstOffset + length, (byte) 0);
+        return n;
+    }
+
+    @Override
+    public int getEncodedLength() {
+        return encodedLength;
+    }
+}
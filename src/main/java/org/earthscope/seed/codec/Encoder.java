@@ -0,0 +1,103 @@
+package org.earthscope.seed.codec;
+
+import org.earthscope.seed.SeedException;
+
+import java.nio.ByteOrder;
+import java.util.Objects;
+
+/**
+ * Encodes samples into the data section of a record. Instances are obtained from {@link Codec#encoder(EncodingFormat)}
+ * and keep no state between calls other than their configuration, so one instance can pack a whole stream.
+ */
+public abstract class Encoder {
+
+    private final EncodingFormat encodingFormat;
+    protected ByteOrder byteOrder = ByteOrder.BIG_ENDIAN;
+    protected int lastSampleFromPreviousRecord;
+    protected boolean hasLastSampleFromPreviousRecord;
+
+    protected Encoder(EncodingFormat encodingFormat) {
+        this.encodingFormat = encodingFormat;
+    }
+
+    public EncodingFormat getEncodingFormat() {
+        return encodingFormat;
+    }
+
+    public Encoder byteOrder(ByteOrder byteOrder) {
+        this.byteOrder = Objects.requireNonNull(byteOrder);
+        return this;
+    }
+
+    public Encoder lastSampleFromPreviousRecord(int lastSampleFromPreviousRecord) {
+        this.lastSampleFromPreviousRecord = lastSampleFromPreviousRecord;
+        this.hasLastSampleFromPreviousRecord = true;
+        return this;
+    }
+
+    public Encoder resetLastSample() {
+        this.hasLastSampleFromPreviousRecord = false;
+        return this;
+    }
+
+    /**
+     * Encodes as many of {@code samples[offset, offset+count)} as fit into {@code dst[dstOffset, dstOffset+length)}.
+     *
+     * @return the number of samples encoded
+     */
+    public abstract int encode(int[] samples, int offset, int count, byte[] dst, int dstOffset, int length)
+            throws SeedException;
+
+    public int encode(float[] samples, int offset, int count, byte[] dst, int dstOffset, int length)
+            throws SeedException {
+        throw new SeedException("{} cannot encode float samples", encodingFormat);
+    }
+
+    public int encode(double[] samples, int offset, int count, byte[] dst, int dstOffset, int length)
+            throws SeedException {
+        throw new SeedException("{} cannot encode double samples", encodingFormat);
+    }
+
+    public int encode(byte[] samples, int offset, int count, byte[] dst, int dstOffset, int length)
+            throws SeedException {
+        throw new SeedException("{} cannot encode text", encodingFormat);
+    }
+
+    /**
+     * @return the number of bytes written by the last call to encode
+     */
+    public abstract int getEncodedLength();
+
+    protected void checkBounds(int[] samples, int offset, int count, byte[] dst, int dstOffset, int length)
+            throws SeedException {
+        Objects.requireNonNull(samples, "samples cannot be null");
+        checkBounds(samples.length, offset, count, dst, dstOffset, length);
+    }
+
+    protected void checkBounds(int numberOfSamples, int offset, int count, byte[] dst, int dstOffset, int length)
+            throws SeedException {
+        Objects.requireNonNull(dst, "dst cannot be null");
+        if (offset < 0 || count < 0 || offset + count > numberOfSamples) {
+            throw new SeedException("Invalid sample range offset {} and count {} for {} samples", offset, count,
+                    numberOfSamples);
+        }
+        if (dstOffset < 0 || length < 0 || dstOffset + length > dst.length) {
+            throw new SeedException("Invalid data section offset {} and length {} for {} bytes", dstOffset, length,
+                    dst.length);
+        }
+    }
+
+    protected final void putInt(byte[] bytes, int index, int value) {
+        if (byteOrder == ByteOrder.BIG_ENDIAN) {
+            bytes[index] = (byte) (value >>> 24);
+            bytes[index + 1] = (byte) (value >>> 16);
+            bytes[index + 2] = (byte) (value >>> 8);
+            bytes[index + 3] = (byte) value;
+        } else {
+            bytes[index + 3] = (byte) (value >>> 24);
+            bytes[index + 2] = (byte) (value >>> 16);
+            bytes[index + 1] = (byte) (value >>> 8);
+            bytes[index] = (byte) value;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package org.earthscope.seed.codec;
+
+import org.earthscope.seed.SeedException;
+
+import java.nio.ByteBuffer;
+
+public class FloatDecoder extends Decoder {
+
+    public FloatDecoder() {
+        super(EncodingFormat.FLOAT);
+    }
+
+    @Override
+    public int decode(byte[] bytes, int offset, int length, int[] samples, int samplesOffset) throws SeedException {
+        throw new SeedException("{} samples cannot be decoded as int", getEncodingFormat());
+    }
+
+    @Override
+    public int decode(byte[] bytes, int offset, int length, float[] samples, int samplesOffset) throws SeedException {
+        checkBounds(bytes, offset, length, samples.length, samplesOffset);
+        checkLength(length, 4);
+        int n = expectedNumberOfSamples;
+        ByteBuffer.wrap(bytes, offset, n * 4).order(byteOrder).asFloatBuffer().get(samples, samplesOffset, n);
+        return n;
+    }
+}
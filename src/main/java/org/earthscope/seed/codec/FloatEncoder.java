@@ -0,0 +1,43 @@
+package org.earthscope.seed.codec;
+
+import org.earthscope.seed.SeedException;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+public class FloatEncoder extends Encoder {
+
+    private int encodedLength;
+
+    public FloatEncoder() {
+        super(EncodingFormat.FLOAT);
+    }
+
+    @Override
+    public int encode(int[] samples, int offset, int count, byte[] dst, int dstOffset, int length)
+            throws SeedException {
+        throw new SeedException("{} cannot encode int samples", getEncodingFormat());
+    }
+
+    /**
+     * Writes as many samples as fit, the rest of the data section is zeroed.
+     */
+    @Override
+    public int encode(float[] samples, int offset, int count, byte[] dst, int dstOffset, int length)
+            throws SeedException {
+        Objects.requireNonNull(samples, "samples cannot be null");
+        checkBounds(samples.length, offset, count, dst, dstOffset, length);
+        int n = Math.min(count, length / 4);
+        for (int i = 0; i < n; i++) {
+            putInt(dst, dstOffset + 4 * i, Float.floatToRawIntBits(samples[offset + i]));
+        }
+        encodedLength = n * 4;
+        Arrays.fill(dst, dstOffset + encodedLength, dstOffset + length, (byte) 0);
+        return n;
+    }
+
+    @Override
+    public int getEncodedLength() {
+        return encodedLength;
+    }
+}
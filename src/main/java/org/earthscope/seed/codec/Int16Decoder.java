@@ -0,0 +1,29 @@
+package org.earthscope.seed.codec;
+
+import org.earthscope.seed.SeedException;
+
+import java.nio.ByteOrder;
+
+public class Int16Decoder extends Decoder {
+
+    public Int16Decoder() {
+        super(EncodingFormat.SHORT);
+    }
+
+    @Override
+    public int decode(byte[] bytes, int offset, int length, int[] samples, int samplesOffset) throws SeedException {
+        checkBounds(bytes, offset, length, samples.length, samplesOffset);
+        checkLength(length, 2);
+        int n = expectedNumberOfSamples;
+        if (byteOrder == ByteOrder.BIG_ENDIAN) {
+            for (int i = 0, p = offset; i < n; i++, p += 2) {
+                samples[samplesOffset + i] = (short) ((bytes[p] << 8) | (bytes[p + 1] & 0xff));
+            }
+        } else {
+            for (int i = 0, p = offset; i < n; i++, p += 2) {
+                samples[samplesOffset + i] = (short) ((bytes[p + 1] << 8) | (bytes[p] & 0xff));
+            }
+        }
+        return n;
+    }
+}
@@ -0,0 +1,29 @@
+package org.earthscope.seed.codec;
+
+import org.earthscope.seed.SeedException;
+
+import java.nio.ByteOrder;
+
+public class Int24Decoder extends Decoder {
+
+    public Int24Decoder() {
+        super(EncodingFormat.INT24);
+    }
+
+    @Override
+    public int decode(byte[] bytes, int offset, int length, int[] samples, int samplesOffset) throws SeedException {
+        checkBounds(bytes, offset, length, samples.length, samplesOffset);
+        checkLength(length, 3);
+        int n = expectedNumberOfSamples;
+        if (byteOrder == ByteOrder.BIG_ENDIAN) {
+            for (int i = 0, p = offset; i < n; i++, p += 3) {
+                samples[samplesOffset + i] = (bytes[p] << 16) | ((bytes[p + 1] & 0xff) << 8) | (bytes[p + 2] & 0xff);
+            }
+        } else {
+            for (int i = 0, p = offset; i < n; i++, p += 3) {
+                samples[samplesOffset + i] = (bytes[p + 2] << 16) | ((bytes[p + 1] & 0xff) << 8) | (bytes[p] & 0xff);
+            }
+        }
+        return n;
+    }
+}
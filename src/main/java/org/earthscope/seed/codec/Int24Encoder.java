@@ -0,0 +1,50 @@
+package org.earthscope.seed.codec;
+
+import org.earthscope.seed.SeedException;
+
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.Objects;
+
+public class Int24Encoder extends Encoder {
+
+    private int encodedLength;
+
+    public Int24Encoder() {
+        super(EncodingFormat.INT24);
+    }
+
+    /**
+     * Writes as many samples as fit, the rest of the data section is zeroed.
+     */
+    @Override
+    public int encode(int[] samples, int offset, int count, byte[] dst, int dstOffset, int length)
+            throws SeedException {
+        Objects.requireNonNull(samples, "samples cannot be null");
+        checkBounds(samples.length, offset, count, dst, dstOffset, length);
+        int n = Math.min(count, length / 3);
+        for (int i = 0, p = dstOffset; i < n; i++, p += 3) {
+            int sample = samples[offset + i];
+            if (sample != sample << 8 >> 8) {
+                throw new SeedException("{} sample {} does not fit in 24 bits", getEncodingFormat(), sample);
+            }
+            if (byteOrder == ByteOrder.BIG_ENDIAN) {
+                dst[p] = (byte) (sample >> 16);
+                dst[p + 1] = (byte) (sample >> 8);
+                dst[p + 2] = (byte) sample;
+            } else {
+                dst[p] = (byte) sample;
+                dst[p + 1] = (byte) (sample >> 8);
+                dst[p + 2] = (byte) (sample >> 16);
+            }
+        }
+        encodedLength = n * 3;
+        Arrays.fill(dst, dstOffset + encodedLength, dstOffset + length, (byte) 0);
+        return n;
+    }
+
+    @Override
+    public int getEncodedLength() {
+        return encodedLength;
+    }
+}
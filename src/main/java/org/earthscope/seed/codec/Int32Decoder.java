@@ -0,0 +1,21 @@
+package org.earthscope.seed.codec;
+
+import org.earthscope.seed.SeedException;
+
+import java.nio.ByteBuffer;
+
+public class Int32Decoder extends Decoder {
+
+    public Int32Decoder() {
+        super(EncodingFormat.INTEGER);
+    }
+
+    @Override
+    public int decode(byte[] bytes, int offset, int length, int[] samples, int samplesOffset) throws SeedException {
+        checkBounds(bytes, offset, length, samples.length, samplesOffset);
+        checkLength(length, 4);
+        int n = expectedNumberOfSamples;
+        ByteBuffer.wrap(bytes, offset, n * 4).order(byteOrder).asIntBuffer().get(samples, samplesOffset, n);
+        return n;
+    }
+}
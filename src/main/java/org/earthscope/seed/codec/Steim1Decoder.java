@@ -0,0 +1,29 @@
+package org.earthscope.seed.codec;
+
+/*-
+ *  nibble  differences
+ *  01      four 8-bit
+ *  10      two 16-bit
+ *  11      one 32-bit
+ */
+public class Steim1Decoder extends SteimDecoder {
+
+    public Steim1Decoder() {
+        super(EncodingFormat.STEIM1);
+    }
+
+    @Override
+    int unpack(int nibble, int word, int[] diffs) {
+        switch (nibble) {
+            case 1:
+                return extractBytes(word, diffs);
+            case 2:
+                diffs[0] = (short) (word >>> 16);
+                diffs[1] = (short) word;
+                return 2;
+            default:
+                diffs[0] = word;
+                return 1;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package org.earthscope.seed.codec;
+
+public class Steim1Encoder extends SteimEncoder {
+
+    public Steim1Encoder() {
+        super(EncodingFormat.STEIM1);
+    }
+
+    @Override
+    int pack(int[] diffs, int available) {
+        if (available >= 4 && fits(diffs, 4, 8)) {
+            nibble = 1;
+            word = combine(diffs, 4, 8);
+            return 4;
+        }
+        if (available >= 2 && fits(diffs, 2, 16)) {
+            nibble = 2;
+            word = combine(diffs, 2, 16);
+            return 2;
+        }
+        nibble = 3;
+        word = diffs[0];
+        return 1;
+    }
+}
@@ -0,0 +1,47 @@
+package org.earthscope.seed.codec;
+
+import org.earthscope.seed.SeedException;
+
+/*-
+ *  nibble  dnib  differences
+ *  01            four 8-bit
+ *  10      01    one 30-bit
+ *  10      10    two 15-bit
+ *  10      11    three 10-bit
+ *  11      00    five 6-bit
+ *  11      01    six 5-bit
+ *  11      10    seven 4-bit
+ */
+public class Steim2Decoder extends SteimDecoder {
+
+    public Steim2Decoder() {
+        super(EncodingFormat.STEIM2);
+    }
+
+    @Override
+    int unpack(int nibble, int word, int[] diffs) throws SeedException {
+        int dnib = word >>> 30;
+        if (nibble == 1) {
+            return extractBytes(word, diffs);
+        } else if (nibble == 2) {
+            switch (dnib) {
+                case 1:
+                    return extract(word, 1, 30, diffs);
+                case 2:
+                    return extract(word, 2, 15, diffs);
+                case 3:
+                    return extract(word, 3, 10, diffs);
+            }
+        } else {
+            switch (dnib) {
+                case 0:
+                    return extract(word, 5, 6, diffs);
+                case 1:
+                    return extract(word, 6, 5, diffs);
+                case 2:
+                    return extract(word, 7, 4, diffs);
+            }
+        }
+        throw new SeedException("STEIM2: invalid dnib {} for nibble {}", dnib, nibble);
+    }
+}
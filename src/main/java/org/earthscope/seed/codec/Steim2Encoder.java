@@ -0,0 +1,44 @@
+package org.earthscope.seed.codec;
+
+import org.earthscope.seed.SeedException;
+
+public class Steim2Encoder extends SteimEncoder {
+
+    public Steim2Encoder() {
+        super(EncodingFormat.STEIM2);
+    }
+
+    @Override
+    int pack(int[] diffs, int available) throws SeedException {
+        if (available >= 7 && fits(diffs, 7, 4)) {
+            return pack(3, 2, diffs, 7, 4);
+        }
+        if (available >= 6 && fits(diffs, 6, 5)) {
+            return pack(3, 1, diffs, 6, 5);
+        }
+        if (available >= 5 && fits(diffs, 5, 6)) {
+            return pack(3, 0, diffs, 5, 6);
+        }
+        if (available >= 4 && fits(diffs, 4, 8)) {
+            nibble = 1;
+            word = combine(diffs, 4, 8);
+            return 4;
+        }
+        if (available >= 3 && fits(diffs, 3, 10)) {
+            return pack(2, 3, diffs, 3, 10);
+        }
+        if (available >= 2 && fits(diffs, 2, 15)) {
+            return pack(2, 2, diffs, 2, 15);
+        }
+        if (fits(diffs, 1, 30)) {
+            return pack(2, 1, diffs, 1, 30);
+        }
+        throw new SeedException("STEIM2: difference {} does not fit in 30 bits", diffs[0]);
+    }
+
+    private int pack(int nibble, int dnib, int[] diffs, int n, int bits) {
+        this.nibble = nibble;
+        this.word = (dnib << 30) | combine(diffs, n, bits);
+        return n;
+    }
+}
@@ -0,0 +1,100 @@
+package org.earthscope.seed.codec;
+
+import lombok.extern.slf4j.Slf4j;
+import org.earthscope.seed.SeedException;
+
+/**
+ * Common frame walking for Steim1 and Steim2. Each 64 byte frame holds a word of 2-bit nibbles followed by 15 data
+ * words, in the first frame words 1 and 2 hold the forward (X0) and reverse (Xn) integration constants. Differences
+ * are integrated straight into the output array.
+ */
+@Slf4j
+abstract class SteimDecoder extends Decoder {
+
+    static final int FRAME_LENGTH = 64;
+
+    private final int[] diffs = new int[8];
+
+    SteimDecoder(EncodingFormat encodingFormat) {
+        super(encodingFormat);
+    }
+
+    /**
+     * Unpacks the differences stored in one data word.
+     *
+     * @return the number of differences written to diffs
+     */
+    abstract int unpack(int nibble, int word, int[] diffs) throws SeedException;
+
+    @Override
+    public int decode(byte[] bytes, int offset, int length, int[] samples, int samplesOffset) throws SeedException {
+        checkBounds(bytes, offset, length, samples.length, samplesOffset);
+        int numberOfSamples = expectedNumberOfSamples;
+        if (numberOfSamples == 0) {
+            return 0;
+        }
+        int numberOfFrames = length / FRAME_LENGTH;
+        if (numberOfFrames == 0) {
+            throw new SeedException("Expected at least one {} frame but data section is {} bytes", getEncodingFormat(),
+                    length);
+        }
+        int x0 = getInt(bytes, offset + 4);
+        int xn = getInt(bytes, offset + 8);
+        int count = 0;
+        int d0 = 0;
+        int index = samplesOffset;
+
+        frames:
+        for (int frame = 0; frame < numberOfFrames; frame++) {
+            int frameOffset = offset + frame * FRAME_LENGTH;
+            int nibbles = getInt(bytes, frameOffset);
+            for (int w = frame == 0 ? 3 : 1; w < 16; w++) {
+                int nibble = (nibbles >>> (30 - 2 * w)) & 0x03;
+                if (nibble == 0) {
+                    continue;
+                }
+                int n = unpack(nibble, getInt(bytes, frameOffset + 4 * w), diffs);
+                for (int k = 0; k < n; k++) {
+                    if (count == 0) {
+                        d0 = diffs[k];
+                        samples[index] = x0;
+                    } else {
+                        samples[index] = samples[index - 1] + diffs[k];
+                    }
+                    index++;
+                    if (++count == numberOfSamples) {
+                        break frames;
+                    }
+                }
+            }
+        }
+        if (count < numberOfSamples) {
+            throw new SeedException("{}: expected {} samples but decoded {}", getEncodingFormat(), numberOfSamples,
+                    count);
+        }
+        if (samples[index - 1] != xn) {
+            throw new SeedException("{}: reverse integration constant mismatch, last sample {} but Xn is {}",
+                    getEncodingFormat(), samples[index - 1], xn);
+        }
+        if (hasLastSampleFromPreviousRecord && x0 - d0 != lastSampleFromPreviousRecord) {
+            log.debug("{}: first difference does not continue previous record, X0={} d0={} previous={}",
+                    getEncodingFormat(), x0, d0, lastSampleFromPreviousRecord);
+        }
+        return count;
+    }
+
+    static int extract(int word, int n, int bits, int[] diffs) {
+        for (int i = 0; i < n; i++) {
+            diffs[i] = (word << (32 - (n - i) * bits)) >> (32 - bits);
+        }
+        return n;
+    }
+
+    static int extractBytes(int word, int[] diffs) {
+        diffs[0] = (byte) (word >>> 24);
+        diffs[1] = (byte) (word >>> 16);
+        diffs[2] = (byte) (word >>> 8);
+        diffs[3] = (byte) word;
+        return 4;
+    }
+}
@@ -0,0 +1,101 @@
+package org.earthscope.seed.codec;
+
+import org.earthscope.seed.SeedException;
+
+import java.util.Arrays;
+
+/**
+ * Common frame filling for Steim1 and Steim2, the inverse of {@link SteimDecoder}. Differences are computed on the
+ * fly from the samples and handed to {@link #pack(int[], int)} a word at a time. Frames that are not needed are left
+ * zeroed.
+ */
+abstract class SteimEncoder extends Encoder {
+
+    static final int FRAME_LENGTH = SteimDecoder.FRAME_LENGTH;
+
+    private final int[] diffs = new int[8];
+    private int numberOfFrames;
+    int word;
+    int nibble;
+
+    SteimEncoder(EncodingFormat encodingFormat) {
+        super(encodingFormat);
+    }
+
+    /**
+     * Packs the leading differences into {@link #word} and {@link #nibble}.
+     *
+     * @param available number of valid entries in diffs, at least one
+     * @return the number of differences consumed
+     */
+    abstract int pack(int[] diffs, int available) throws SeedException;
+
+    /**
+     * @return the number of frames used by the last call to encode
+     */
+    public int getNumberOfFrames() {
+        return numberOfFrames;
+    }
+
+    @Override
+    public int getEncodedLength() {
+        return numberOfFrames * FRAME_LENGTH;
+    }
+
+    @Override
+    public int encode(int[] samples, int offset, int count, byte[] dst, int dstOffset, int length)
+            throws SeedException {
+        checkBounds(samples, offset, count, dst, dstOffset, length);
+        int maxFrames = length / FRAME_LENGTH;
+        if (maxFrames == 0) {
+            throw new SeedException("Expected room for at least one {} frame but data section is {} bytes",
+                    getEncodingFormat(), length);
+        }
+        Arrays.fill(dst, dstOffset, dstOffset + maxFrames * FRAME_LENGTH, (byte) 0);
+        numberOfFrames = 0;
+        if (count == 0) {
+            return 0;
+        }
+        int end = offset + count;
+        int previous = hasLastSampleFromPreviousRecord ? lastSampleFromPreviousRecord : samples[offset];
+        int i = offset;
+        for (int frame = 0; frame < maxFrames && i < end; frame++) {
+            int frameOffset = dstOffset + frame * FRAME_LENGTH;
+            int nibbles = 0;
+            for (int w = frame == 0 ? 3 : 1; w < 16 && i < end; w++) {
+                int available = Math.min(7, end - i);
+                for (int k = 0; k < available; k++) {
+                    diffs[k] = samples[i + k] - (i + k == offset ? previous : samples[i + k - 1]);
+                }
+                i += pack(diffs, available);
+                nibbles |= nibble << (30 - 2 * w);
+                putInt(dst, frameOffset + 4 * w, word);
+            }
+            putInt(dst, frameOffset, nibbles);
+            numberOfFrames++;
+        }
+        putInt(dst, dstOffset + 4, samples[offset]);
+        putInt(dst, dstOffset + 8, samples[i - 1]);
+        return i - offset;
+    }
+
+    static boolean fits(int[] diffs, int n, int bits) {
+        int min = -(1 << (bits - 1));
+        int max = (1 << (bits - 1)) - 1;
+        for (int k = 0; k < n; k++) {
+            if (diffs[k] < min || diffs[k] > max) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static int combine(int[] diffs, int n, int bits) {
+        int mask = (1 << bits) - 1;
+        int w = 0;
+        for (int k = 0; k < n; k++) {
+            w |= (diffs[k] & mask) << ((n - 1 - k) * bits);
+        }
+        return w;
+    }
+}
@@ -48,7 +48,7 @@ public class B500 extends DataBlockette {
 		array.putTime(timeOfException);
 		array.putByte((byte) clockTime);
 		array.putByte((byte) receptionQuality);
-		array.putFloat(exceptionCount);
+		array.putInt(exceptionCount);
 		array.put(exceptionType, StandardCharsets.US_ASCII, 16);
 		array.put(clockModel, StandardCharsets.US_ASCII, 32);
 		array.put(clockStatus, StandardCharsets.US_ASCII, 128);
@@ -0,0 +1,17 @@
+package org.earthscope.seed.data;
+
+import org.earthscope.seed.SeedException;
+import org.earthscope.seed.util.SeedByteBuffer;
+
+/**
+ * Parses one data blockette type, see {@link DataBlocketteFactory#register(int, int, BlocketteParser)}.
+ */
+@FunctionalInterface
+public interface BlocketteParser {
+
+    /**
+     * @param buffer positioned at the blockette type, limited to the registered length or, for blockettes of variable
+     *               length, to the end of the record
+     */
+    DataBlockette parse(SeedByteBuffer buffer) throws SeedException;
+}
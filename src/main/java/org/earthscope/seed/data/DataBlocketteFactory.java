@@ -1,21 +1,97 @@
 package org.earthscope.seed.data;
 
 import lombok.extern.slf4j.Slf4j;
+import org.earthscope.seed.BTime;
 import org.earthscope.seed.SeedException;
 import org.earthscope.seed.SeedRecordType;
 import org.earthscope.seed.codec.EncodingFormat;
 import org.earthscope.seed.util.SeedByteBuffer;
 
+import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.util.Arrays;
 import java.util.BitSet;
 import java.util.Objects;
 
 @Slf4j
 public class DataBlocketteFactory {
 
+	/**
+	 * Length to register for blockettes that extend to the end of the record.
+	 */
+	public static final int VARIABLE_LENGTH = -1;
+
+	private static final Object LOCK = new Object();
+	// parsers indexed by blockette type, the array is replaced as a whole when a parser is registered
+	private static volatile Registration[] registry = new Registration[2001];
+
+	static {
+		register(100, 12, DataBlocketteFactory::createB100);
+		register(200, 52, DataBlocketteFactory::createB200);
+		register(201, 60, DataBlocketteFactory::createB201);
+		register(202, VARIABLE_LENGTH, DataBlocketteFactory::createB202);
+		register(300, 60, DataBlocketteFactory::createB300);
+		register(310, 60, DataBlocketteFactory::createB310);
+		register(320, 64, DataBlocketteFactory::createB320);
+		register(390, 28, DataBlocketteFactory::createB390);
+		register(395, 16, DataBlocketteFactory::createB395);
+		register(400, 16, DataBlocketteFactory::createB400);
+		register(405, 6, DataBlocketteFactory::createB405);
+		register(500, 200, DataBlocketteFactory::createB500);
+		register(1000, 8, DataBlocketteFactory::createB1000);
+		register(1001, 8, DataBlocketteFactory::createB1001);
+		register(2000, VARIABLE_LENGTH, DataBlocketteFactory::createB2000);
+	}
+
 	private DataBlocketteFactory() {
 	}
 
+	/**
+	 * Registers the parser of a blockette type, e.g. a vendor blockette, replacing the parser registered before.
+	 *
+	 * @param length fixed length of the blockette in bytes or {@link #VARIABLE_LENGTH}
+	 */
+	public static void register(int type, int length, BlocketteParser parser) {
+		Objects.requireNonNull(parser, "parser cannot be null");
+		if (type < 0 || type > 0xFFFF) {
+			throw new IllegalArgumentException("Invalid blockette type " + type);
+		}
+		if (length != VARIABLE_LENGTH && length < 4) {
+			throw new IllegalArgumentException("Invalid blockette length " + length);
+		}
+		synchronized (LOCK) {
+			Registration[] table = Arrays.copyOf(registry, Math.max(registry.length, type + 1));
+			table[type] = new Registration(length, parser);
+			registry = table;
+		}
+	}
+
+	/**
+	 * Removes the parser of a blockette type, blockettes of that type are then unknown to the parser.
+	 *
+	 * @return true if a parser was registered
+	 */
+	public static boolean unregister(int type) {
+		synchronized (LOCK) {
+			if (lookup(type) == null) {
+				return false;
+			}
+			Registration[] table = registry.clone();
+			table[type] = null;
+			registry = table;
+			return true;
+		}
+	}
+
+	public static boolean isRegistered(int type) {
+		return lookup(type) != null;
+	}
+
+	private static Registration lookup(int type) {
+		Registration[] table = registry;
+		return type >= 0 && type < table.length ? table[type] : null;
+	}
+
 	public static DataBlockette create(byte[] bytes) throws SeedException {
 		return create(bytes, 0);
 	}
@@ -30,47 +106,122 @@ public class DataBlocketteFactory {
 
 	public static DataBlockette create(byte[] bytes, int offset, ByteOrder byteOrder) throws SeedException {
 		Objects.requireNonNull(bytes, "bytes cannot be null");
-		if (offset + 2 >= bytes.length) {
-			throw new SeedException("Expected at least 2 bytes but was {}, index={}", bytes.length, offset);
+		return create(SeedByteBuffer.wrap(bytes, 0, bytes.length, byteOrder), offset);
+	}
+
+	/**
+	 * Creates the blockette at the absolute offset of buffer without copying it into an array, the position and limit
+	 * of buffer are not changed.
+	 */
+	public static DataBlockette create(ByteBuffer buffer, int offset, ByteOrder byteOrder) throws SeedException {
+		Objects.requireNonNull(buffer, "buffer cannot be null");
+		return create(SeedByteBuffer.wrap(buffer, 0, buffer.limit(), byteOrder), offset);
+	}
+
+	/**
+	 * Creates the blockette at offset of record, a buffer wrapping a whole record. The buffer is moved to the
+	 * blockette, so one instance can be reused for all blockettes of the record.
+	 */
+	public static DataBlockette create(SeedByteBuffer record, int offset) throws SeedException {
+		Objects.requireNonNull(record, "record cannot be null");
+		checkBlocketteOffset(record, offset);
+		return create(record, record.window(offset, 2).getUnsignedShort(), offset);
+	}
+
+	public static DataBlockette create(byte[] bytes, int type, int index, ByteOrder byteOrder) throws SeedException {
+		log.debug("DataBlockette create({}, {}, {})",type, index, byteOrder);
+		Objects.requireNonNull(bytes, "bytes cannot be null");
+		SeedByteBuffer record = SeedByteBuffer.wrap(bytes, 0, bytes.length, byteOrder);
+		checkBlocketteOffset(record, index);
+		return create(record, type, index);
+	}
+
+	private static DataBlockette create(SeedByteBuffer record, int type, int offset) throws SeedException {
+		Registration registration = lookup(type);
+		if (registration == null) {
+			throw new SeedException("Unkown blockette type {}", type);
 		}
-		int type = 0;
-		try {
-			type = SeedByteBuffer.wrap(bytes, offset, 2, byteOrder).getUnsignedShort();
-			return create(bytes, type, offset, byteOrder);
-		} catch (NumberFormatException e) {
-			e.printStackTrace();
-			throw new SeedException("Error parsing bytes {} at offset {}", type, offset, e);
+		int available = record.available(offset);
+		int length = registration.length == VARIABLE_LENGTH ? available : Math.min(registration.length, available);
+		return registration.parser.parse(record.window(offset, length));
+	}
+
+	/**
+	 * @return the type of the blockette at offset of record
+	 */
+	public static int blocketteType(SeedByteBuffer record, int offset) throws SeedException {
+		checkBlocketteOffset(record, offset);
+		return record.window(offset, 2).getUnsignedShort();
+	}
+
+	/**
+	 * @return the offset of the blockette following the one at offset of record, 0 if there is none. Used to step
+	 * over blockettes without parsing them.
+	 */
+	public static int nextBlocketteOffset(SeedByteBuffer record, int offset) throws SeedException {
+		checkBlocketteOffset(record, offset);
+		return record.window(offset + 2, 2).getUnsignedShort();
+	}
+
+	private static void checkBlocketteOffset(SeedByteBuffer record, int offset) throws SeedException {
+		if (offset < 0 || record.available(offset) < 4) {
+			throw new SeedException("Expected at least 4 bytes at blockette offset {} but record has {}", offset,
+					record.available(0));
 		}
 	}
 
 	public static SeedDataHeader createHeader(byte[] bytes) throws SeedException {
+		return createHeader(bytes, 0);
+	}
+
+	public static SeedDataHeader createHeader(byte[] bytes, int offset) throws SeedException {
 		if (bytes == null) {
 			throw new SeedException("No data to read from buffer, NULL ");
 		}
 
-		if (bytes.length < 48) {
+		if (offset < 0 || bytes.length - offset < 48) {
 			throw new SeedException("Invalid bytes size, must be 48 ");
 		}
-		SeedByteBuffer byteBufferReader = SeedByteBuffer.wrap(bytes);
+		ByteOrder byteOrder = BTime.determineByteOrder(bytes, offset + 20);
+		return createHeader(SeedByteBuffer.wrap(bytes, offset, 48, byteOrder), byteOrder);
+	}
+
+	/**
+	 * Parses the fixed header at {@code offset} straight from buffer, e.g. a mapped file, without copying it.
+	 */
+	public static SeedDataHeader createHeader(ByteBuffer buffer, int offset) throws SeedException {
+		if (buffer == null) {
+			throw new SeedException("No data to read from buffer, NULL ");
+		}
+		if (offset < 0 || buffer.limit() - offset < 48) {
+			throw new SeedException("Invalid buffer size, expected 48 bytes at {} but limit is {}", offset,
+					buffer.limit());
+		}
+		ByteOrder byteOrder = BTime.determineByteOrder(buffer, offset + 20);
+		return createHeader(SeedByteBuffer.wrap(buffer, offset, 48, byteOrder), byteOrder);
+	}
+
+	private static SeedDataHeader createHeader(SeedByteBuffer byteBufferReader, ByteOrder byteOrder)
+			throws SeedException {
 		SeedDataHeader header = new SeedDataHeader(byteBufferReader.getSequence(), SeedRecordType.from((char) byteBufferReader.getByte()),
 				(char) byteBufferReader.getByte());
 
-		header.setStation(clean(byteBufferReader.getStationCode()));
-		header.setLocation(byteBufferReader.getLocationCode());
-		header.setChannel(clean(byteBufferReader.getChannelCode()));
-		header.setNetwork(clean(byteBufferReader.getNetworkCode()));
+		// station, location, channel and network resolve to an interned identifier, no strings per record
+		long high = 0;
+		for (int i = 0; i < 8; i++) {
+			high = high << 8 | byteBufferReader.getUnsignedByte();
+		}
+		int low = 0;
+		for (int i = 0; i < 4; i++) {
+			low = low << 8 | byteBufferReader.getUnsignedByte();
+		}
+		header.setNslc(Nslc.of(high, low));
 
 		header.setStart(byteBufferReader.getTime());
-		int year = header.getStart().getYear();
-		if (year < 1900 || year > 2050) {
-			byteBufferReader.rewind(10);
-			byteBufferReader.order(ByteOrder.LITTLE_ENDIAN);
-			header.setStart(byteBufferReader.getTime());
-			header.setByteOrder(ByteOrder.LITTLE_ENDIAN);
-		}
+		header.setByteOrder(byteOrder);
 		header.setNumberOfSamples(byteBufferReader.getUnsignedShort());
 		header.setSampleRateFactor(byteBufferReader.getShort());
-		header.setSampleRateMultiplier(byteBufferReader.getUnsignedShort());
+		header.setSampleRateMultiplier(byteBufferReader.getShort());
 		header.setActivityFlags(ActivityFlags.valueOf(byteBufferReader.getUnsignedByte()));
 		header.setIoClockFlag(byteBufferReader.getUnsignedByte());
 		header.setQualityIndicator(QualityFlags.valueOf(byteBufferReader.getUnsignedByte()));
@@ -86,44 +237,6 @@ public class DataBlocketteFactory {
 		return src.trim();
 	}
 
-	public static DataBlockette create(byte[] bytes, int type, int index, ByteOrder byteOrder) throws SeedException {
-		log.debug("DataBlockette create({}, {}, {})",type, index, byteOrder);
-		switch (type) {
-		case 100:
-			return createB100(bytes, index, byteOrder);
-		case 200:
-			return createB200(bytes, index, byteOrder);
-		case 201:
-			return createB201(bytes, index, byteOrder);
-		case 202:
-			return createB202(bytes, index, byteOrder);
-		case 300:
-			return createB300(bytes, index, byteOrder);
-		case 310:
-			return createB310(bytes, index, byteOrder);
-		case 320:
-			return createB320(bytes, index, byteOrder);
-		case 390:
-			return createB390(bytes, index, byteOrder);
-		case 395:
-			return createB395(bytes, index, byteOrder);
-		case 400:
-			return createB400(bytes, index, byteOrder);
-		case 405:
-			return createB405(bytes, index, byteOrder);
-		case 500:
-			return createB500(bytes, index, byteOrder);
-		case 1000:
-			return createB1000(bytes, index, byteOrder);
-		case 1001:
-			return createB1001(bytes, index, byteOrder);
-		case 2000:
-			return createB2000(bytes, index, byteOrder);
-		default:
-			throw new SeedException("Unkown blockette type {}", type);
-		}
-	}
-
 	public static B100 createB100(byte[] bytes) throws SeedException {
 		return createB100(bytes, 0, ByteOrder.BIG_ENDIAN);
 	}
@@ -653,4 +766,14 @@ public class DataBlocketteFactory {
 			throw new SeedException("Invalid blockette type expected {} but was {}", expectedType, type);
 		}
 	}
+
+	private static final class Registration {
+		private final int length;
+		private final BlocketteParser parser;
+
+		private Registration(int length, BlocketteParser parser) {
+			this.length = length;
+			this.parser = parser;
+		}
+	}
 }
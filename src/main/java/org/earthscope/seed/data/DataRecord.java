@@ -5,18 +5,26 @@ import org.earthscope.seed.SeedException;
 import org.earthscope.seed.SeedRecord;
 import org.earthscope.seed.SeedRecordType;
 import org.earthscope.seed.codec.EncodingFormat;
+import org.earthscope.seed.util.DateTimeUtil;
 
-import java.time.Duration;
 import java.time.Instant;
-import java.time.temporal.ChronoUnit;
 import java.util.*;
-import java.util.concurrent.TimeUnit;
 
 public class DataRecord implements SeedRecord {
 
-    private Map<Integer, DataBlockette> map = new TreeMap<>();
+    private static final DataBlockette[] NO_BLOCKETTES = new DataBlockette[0];
+
+    // blockettes in the order added, the first 100, 1000 and 1001 are also kept in their own slots
+    private DataBlockette[] blockettes = NO_BLOCKETTES;
+    private int numberOfBlockettes;
+    private B100 b100;
+    private B1000 b1000;
+    private B1001 b1001;
     private SeedDataHeader dataHeader;
     private int[] samples;
+    private float[] floatSamples;
+    private double[] doubleSamples;
+    private byte[] asciiSamples;
 
     public DataRecord(SeedDataHeader dataHeader) {
         this.dataHeader = dataHeader;
@@ -27,11 +35,32 @@ public class DataRecord implements SeedRecord {
         if (dataBlockette == null) {
             return null;
         }
-        int type = dataBlockette.getType();
-        map.putIfAbsent(type, dataBlockette);
+        switch (dataBlockette.getType()) {
+            case 100:
+                if (b100 == null) {
+                    b100 = (B100) dataBlockette;
+                }
+                break;
+            case 1000:
+                if (b1000 == null) {
+                    b1000 = (B1000) dataBlockette;
+                }
+                break;
+            case 1001:
+                if (b1001 == null) {
+                    b1001 = (B1001) dataBlockette;
+                }
+                break;
+            default:
+                break;
+        }
+        if (numberOfBlockettes == blockettes.length) {
+            blockettes = Arrays.copyOf(blockettes, Math.max(2, numberOfBlockettes * 2));
+        }
+        blockettes[numberOfBlockettes++] = dataBlockette;
 
         SeedDataHeader header = (SeedDataHeader) this.getHeader();
-        header.setNumberOfFollowingBlockettes(map.size());
+        header.setNumberOfFollowingBlockettes(numberOfBlockettes);
 
         return dataBlockette;
     }
@@ -61,35 +90,88 @@ public class DataRecord implements SeedRecord {
         this.samples = samples;
     }
 
+    public float[] getFloatSamples() {
+        return floatSamples;
+    }
+
+    public void setFloatSamples(float[] floatSamples) {
+        this.floatSamples = floatSamples;
+    }
+
+    public double[] getDoubleSamples() {
+        return doubleSamples;
+    }
+
+    public void setDoubleSamples(double[] doubleSamples) {
+        this.doubleSamples = doubleSamples;
+    }
+
+    /**
+     * @return the text of an ASCII record, one byte per sample
+     */
+    public byte[] getAsciiSamples() {
+        return asciiSamples;
+    }
+
+    public void setAsciiSamples(byte[] asciiSamples) {
+        this.asciiSamples = asciiSamples;
+    }
+
+    /**
+     * @return the first blockette of type, null if there is none
+     */
     public DataBlockette get(int type){
-        return map.get(type);
+        switch (type) {
+            case 100:
+                return b100;
+            case 1000:
+                return b1000;
+            case 1001:
+                return b1001;
+            default:
+                for (int i = 0; i < numberOfBlockettes; i++) {
+                    if (blockettes[i].getType() == type) {
+                        return blockettes[i];
+                    }
+                }
+                return null;
+        }
+    }
+
+    /**
+     * @return every blockette of type in the order they were added, repeated types such as B2000 included
+     */
+    public List<DataBlockette> getAll(int type) {
+        List<DataBlockette> list = new ArrayList<>();
+        for (int i = 0; i < numberOfBlockettes; i++) {
+            if (blockettes[i].getType() == type) {
+                list.add(blockettes[i]);
+            }
+        }
+        return list;
     }
 
+    /**
+     * @return all blockettes in the order they were added
+     */
     public List<DataBlockette>getAll(){
-        return new ArrayList<>(map.values());
+        return new ArrayList<>(Arrays.asList(blockettes).subList(0, numberOfBlockettes));
+    }
+
+    public int getNumberOfBlockettes() {
+        return numberOfBlockettes;
     }
+
     public B100 getB100() {
-        DataBlockette blockette = map.get(100);
-        if (blockette == null) {
-            return null;
-        }
-        return (B100) blockette;
+        return b100;
     }
 
     public B1000 getB1000() {
-        DataBlockette blockette = map.get(1000);
-        if (blockette == null) {
-            return null;
-        }
-        return (B1000) blockette;
+        return b1000;
     }
 
     public B1001 getB1001() {
-        DataBlockette blockette = map.get(1001);
-        if (blockette == null) {
-            return null;
-        }
-        return (B1001) blockette;
+        return b1001;
     }
 
     public int getNumberOfSamples() {
@@ -99,11 +181,18 @@ public class DataRecord implements SeedRecord {
         return dataHeader.getNumberOfSamples();
     }
 
+    /**
+     * @return the actual sample rate from B100 if present, otherwise the nominal rate of the header
+     */
     public double getSampleRate() {
+        B100 b100 = getB100();
+        if (b100 != null) {
+            return b100.getActualSampleRate();
+        }
         if (dataHeader == null) {
             return 0;
         }
-        return dataHeader.getSampleRateFactor();
+        return dataHeader.getSampleRate();
     }
 
     public Instant getStartTime() {
@@ -117,6 +206,13 @@ public class DataRecord implements SeedRecord {
         return btime.toInstant();
     }
 
+    /**
+     * @return the header start time in nanoseconds since the epoch, the record must have a header and start time
+     */
+    public long getStartTimeNanos() {
+        return dataHeader.getStart().toEpochNanos();
+    }
+
     @Override
     public SeedDataHeader getHeader() {
         return this.dataHeader;
@@ -137,65 +233,46 @@ public class DataRecord implements SeedRecord {
     }
 
     public Instant getCorrectedStartTime() {
-        Instant instant = getStartTime();
-        if (instant == null) {
-            return null;
-        }
-        SeedDataHeader dataHeader = this.getHeader();
-        if (dataHeader == null) {
+        if (dataHeader == null || dataHeader.getStart() == null) {
             return null;
         }
-        B1001 b1001 = this.getB1001();
-        if (b1001 != null) {
-            instant = instant.plus(b1001.getMicroSeconds(), ChronoUnit.MICROS);
-        }
-        if (!dataHeader.getActivityFlags().isTimeCorrectionApplied()) {
-            instant = instant.plusMillis(dataHeader.getTimeCorrection() * 10L);
-        }
-        return instant;
+        return DateTimeUtil.toInstant(getCorrectedStartTimeNanos());
+    }
+
+    /**
+     * Start time in nanoseconds since the epoch, adjusted by the B1001 microseconds and, unless already applied, the
+     * header time correction.
+     */
+    public long getCorrectedStartTimeNanos() {
+        return DateTimeUtil.getCorrectedStartTimeNanos(dataHeader, getB1001());
     }
 
     public Instant computeEndTime() {
-        Instant startTime = getCorrectedStartTime();
-        if (startTime == null) {
-            return null;
-        }
-        SeedDataHeader dataHeader = this.getHeader();
-        if (dataHeader == null) {
+        if (dataHeader == null || dataHeader.getStart() == null) {
             return null;
         }
+        return DateTimeUtil.toInstant(computeEndTimeNanos());
+    }
 
-        float sampleRate = dataHeader.getSampleRateFactor();
-        DataBlockette blockette = map.get(100);
-        if (blockette != null) {
-            B100 b100 = (B100) blockette;
-            sampleRate = b100.getActualSampleRate();
-        }
-        Duration duration = Duration.ofNanos(Math
-                .round(((dataHeader.getNumberOfSamples() - 1) / (double) sampleRate) * TimeUnit.SECONDS.toNanos(1)));
-        return startTime.plus(duration);
+    /**
+     * @return the time of the last sample in nanoseconds since the epoch
+     */
+    public long computeEndTimeNanos() {
+        return getCorrectedStartTimeNanos() + DateTimeUtil.toNanos(getNumberOfSamples() - 1, getSampleRate());
     }
 
     public Instant computeExpectedNextSampleTime() {
-        Instant instant = getCorrectedStartTime();
-        if (instant == null) {
+        if (dataHeader == null || dataHeader.getStart() == null) {
             return null;
         }
-        // BTime expectedTime = startTime.toBuilder().build();
-        SeedDataHeader dataHeader = this.getHeader();
-        if (dataHeader == null) {
-            return null;
-        }
-        float sampleRate = dataHeader.getSampleRateFactor();
-
-        DataBlockette blockette = map.get(100);
-        if (blockette != null) {
-            B100 b100 = (B100) blockette;
-            sampleRate = b100.getActualSampleRate();
-        }
+        return DateTimeUtil.toInstant(computeExpectedNextSampleTimeNanos());
+    }
 
-        Duration duration = Duration.ofSeconds(Math.round(dataHeader.getNumberOfSamples() / (double) sampleRate));
-        return instant.plus(duration);
+    /**
+     * @return the time the first sample of a contiguous next record is expected, in nanoseconds since the epoch
+     */
+    public long computeExpectedNextSampleTimeNanos() {
+        return getCorrectedStartTimeNanos() + DateTimeUtil.toNanos(getNumberOfSamples(), getSampleRate());
     }
 
     public QualityFlags getQualityIndicator() {
@@ -221,6 +298,9 @@ public class DataRecord implements SeedRecord {
     public static class DataRecordBuilder {
         private SeedDataHeader dataHeader;
         private int[]samples;
+        private float[] floatSamples;
+        private double[] doubleSamples;
+        private byte[] asciiSamples;
         private List<DataBlockette>blockettes = new ArrayList<>();
 
         private DataRecordBuilder(SeedDataHeader dataHeader) {
@@ -231,6 +311,21 @@ public class DataRecord implements SeedRecord {
             this.samples=samples;
             return this;
         }
+        public DataRecordBuilder add(float[] samples) {
+            this.floatSamples = samples;
+            return this;
+        }
+
+        public DataRecordBuilder add(double[] samples) {
+            this.doubleSamples = samples;
+            return this;
+        }
+
+        public DataRecordBuilder add(byte[] text) {
+            this.asciiSamples = text;
+            return this;
+        }
+
         public DataRecordBuilder add(DataBlockette blockette){
             Objects.requireNonNull(blockette);
             this.blockettes.add(blockette);
@@ -243,6 +338,9 @@ public class DataRecord implements SeedRecord {
             }
             DataRecord dr = new DataRecord(this.dataHeader);
             dr.setSamples(this.samples);
+            dr.setFloatSamples(this.floatSamples);
+            dr.setDoubleSamples(this.doubleSamples);
+            dr.setAsciiSamples(this.asciiSamples);
             for(DataBlockette db:blockettes) {
                 dr.add(db);
             }
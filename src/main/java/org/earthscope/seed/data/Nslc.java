@@ -0,0 +1,285 @@
+package org.earthscope.seed.data;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Interned network, station, location and channel identifier.
+ * <p>
+ * Instances are interned: lookups of the same channel return the same instance and the hash code is precomputed. The
+ * intern table is keyed on the 12 raw code bytes of the fixed header (station 5, location 2, channel 3, network 2),
+ * resolving a record header to its channel creates no objects once the channel has been seen. Codes with unusual
+ * padding resolve to the same instance as their space padded, left justified form.
+ * </p>
+ * <p>
+ * The table is static and entries are never removed, and headers are resolved before a record is known to be valid,
+ * e.g. while resyncing on garbage. It therefore holds at most {@value #MAX_ENTRIES} entries; once full, channels not
+ * yet seen get a new instance per lookup. Equality compares the codes, so such instances still equal each other.
+ * </p>
+ */
+public final class Nslc implements Comparable<Nslc> {
+
+    /** number of raw code bytes, header offsets 8 to 19 */
+    public static final int LENGTH = 12;
+    /** maximum number of interned code combinations */
+    public static final int MAX_ENTRIES = 1 << 16;
+
+    private static final Object LOCK = new Object();
+    private static volatile Entry[] table = new Entry[64];
+    private static int count;
+
+    private final long high;
+    private final int low;
+    private final int hash;
+    private final String network;
+    private final String station;
+    private final String location;
+    private final String locationCode;
+    private final String channel;
+
+    private Nslc(long high, int low, String network, String station, String location, String channel) {
+        this.high = high;
+        this.low = low;
+        this.hash = hash(high, low);
+        this.network = network;
+        this.station = station;
+        this.location = location.trim();
+        this.locationCode = location;
+        this.channel = channel;
+    }
+
+    public static Nslc of(String network, String station, String location, String channel) {
+        byte[] codes = new byte[LENGTH];
+        pad(station, codes, 0, 5);
+        pad(location, codes, 5, 2);
+        pad(channel, codes, 7, 3);
+        pad(network, codes, 10, 2);
+        return of(codes, 0);
+    }
+
+    /**
+     * @param codes  raw code bytes as laid out in the fixed header
+     * @param offset offset of the station code, 8 for a header starting at 0
+     */
+    public static Nslc of(byte[] codes, int offset) {
+        Objects.requireNonNull(codes, "codes cannot be null");
+        if (offset < 0 || codes.length - offset < LENGTH) {
+            throw new IndexOutOfBoundsException("Expected " + LENGTH + " bytes at " + offset);
+        }
+        long high = 0;
+        for (int i = offset; i < offset + 8; i++) {
+            high = high << 8 | (codes[i] & 0xFF);
+        }
+        int low = 0;
+        for (int i = offset + 8; i < offset + LENGTH; i++) {
+            low = low << 8 | (codes[i] & 0xFF);
+        }
+        return of(high, low);
+    }
+
+    /**
+     * Looks up the channel for the raw code bytes packed as by {@link SeedDataHeaderView#getCodesHigh()} and
+     * {@link SeedDataHeaderView#getCodesLow()}.
+     */
+    public static Nslc of(long high, int low) {
+        Nslc nslc = lookup(high, low);
+        if (nslc != null) {
+            return nslc;
+        }
+        synchronized (LOCK) {
+            nslc = lookup(high, low);
+            if (nslc == null) {
+                nslc = create(high, low);
+                if (count < MAX_ENTRIES) {
+                    insert(high, low, nslc);
+                }
+            }
+            return nslc;
+        }
+    }
+
+    private static Nslc create(long high, int low) {
+        byte[] codes = new byte[LENGTH];
+        for (int i = 7; i >= 0; i--) {
+            codes[i] = (byte) (high >>> (8 * (7 - i)));
+        }
+        for (int i = 0; i < 4; i++) {
+            codes[8 + i] = (byte) (low >>> (8 * (3 - i)));
+        }
+        String station = new String(codes, 0, 5, StandardCharsets.US_ASCII).trim();
+        String location = new String(codes, 5, 2, StandardCharsets.US_ASCII).trim();
+        String channel = new String(codes, 7, 3, StandardCharsets.US_ASCII).trim();
+        String network = new String(codes, 10, 2, StandardCharsets.US_ASCII).trim();
+        byte[] normalized = new byte[LENGTH];
+        pad(station, normalized, 0, 5);
+        pad(location, normalized, 5, 2);
+        pad(channel, normalized, 7, 3);
+        pad(network, normalized, 10, 2);
+        if (!Arrays.equals(codes, normalized)) {
+            // an alias of the canonical padding, share its instance
+            long normalizedHigh = 0;
+            for (int i = 0; i < 8; i++) {
+                normalizedHigh = normalizedHigh << 8 | (normalized[i] & 0xFF);
+            }
+            int normalizedLow = 0;
+            for (int i = 8; i < LENGTH; i++) {
+                normalizedLow = normalizedLow << 8 | (normalized[i] & 0xFF);
+            }
+            Nslc canonical = lookup(normalizedHigh, normalizedLow);
+            if (canonical == null) {
+                canonical = new Nslc(normalizedHigh, normalizedLow, network, station,
+                        new String(normalized, 5, 2, StandardCharsets.US_ASCII), channel);
+                if (count < MAX_ENTRIES) {
+                    insert(normalizedHigh, normalizedLow, canonical);
+                }
+            }
+            return canonical;
+        }
+        return new Nslc(high, low, network, station, new String(codes, 5, 2, StandardCharsets.US_ASCII), channel);
+    }
+
+    private static void pad(String code, byte[] dst, int offset, int length) {
+        String value = code == null ? "" : code.trim();
+        for (int i = 0; i < length; i++) {
+            dst[offset + i] = i < value.length() ? (byte) value.charAt(i) : (byte) ' ';
+        }
+    }
+
+    private static int hash(long high, int low) {
+        long h = high * 0x9E3779B97F4A7C15L + low;
+        return (int) (h ^ h >>> 32);
+    }
+
+    public String getNetwork() {
+        return network;
+    }
+
+    public String getStation() {
+        return station;
+    }
+
+    /**
+     * @return the location code trimmed
+     */
+    public String getLocation() {
+        return location;
+    }
+
+    /**
+     * @return the location code padded to two characters as in the fixed header
+     */
+    public String getLocationCode() {
+        return locationCode;
+    }
+
+    public String getChannel() {
+        return channel;
+    }
+
+    /**
+     * Writes the 12 raw code bytes to dst at offset.
+     */
+    public void getBytes(byte[] dst, int offset) {
+        for (int i = 0; i < 8; i++) {
+            dst[offset + i] = (byte) (high >>> (8 * (7 - i)));
+        }
+        for (int i = 0; i < 4; i++) {
+            dst[offset + 8 + i] = (byte) (low >>> (8 * (3 - i)));
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Nslc)) {
+            return false;
+        }
+        Nslc other = (Nslc) o;
+        return high == other.high && low == other.low;
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public int compareTo(Nslc o) {
+        int c = network.compareTo(o.network);
+        if (c == 0) {
+            c = station.compareTo(o.station);
+        }
+        if (c == 0) {
+            c = location.compareTo(o.location);
+        }
+        if (c == 0) {
+            c = channel.compareTo(o.channel);
+        }
+        return c;
+    }
+
+    /**
+     * @return NET.STA.LOC.CHAN
+     */
+    @Override
+    public String toString() {
+        return network + "." + station + "." + location + "." + channel;
+    }
+
+    private static Nslc lookup(long high, int low) {
+        Entry[] entries = table;
+        int mask = entries.length - 1;
+        for (int slot = hash(high, low) & mask; entries[slot] != null; slot = (slot + 1) & mask) {
+            Entry entry = entries[slot];
+            if (entry.high == high && entry.low == low) {
+                return entry.value;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Adds an entry, only called while holding LOCK. Entries are immutable, so a lookup racing with an insert either
+     * sees a complete entry or none and then retries under the lock.
+     */
+    private static void insert(long high, int low, Nslc value) {
+        Entry[] entries = table;
+        if ((count + 1) * 2 > entries.length) {
+            Entry[] larger = new Entry[entries.length * 2];
+            for (Entry entry : entries) {
+                if (entry != null) {
+                    put(larger, entry);
+                }
+            }
+            put(larger, new Entry(high, low, value));
+            table = larger;
+        } else {
+            put(entries, new Entry(high, low, value));
+        }
+        count++;
+    }
+
+    private static void put(Entry[] entries, Entry entry) {
+        int mask = entries.length - 1;
+        int slot = hash(entry.high, entry.low) & mask;
+        while (entries[slot] != null) {
+            slot = (slot + 1) & mask;
+        }
+        entries[slot] = entry;
+    }
+
+    private static final class Entry {
+        private final long high;
+        private final int low;
+        private final Nslc value;
+
+        Entry(long high, int low, Nslc value) {
+            this.high = high;
+            this.low = low;
+            this.value = value;
+        }
+    }
+}
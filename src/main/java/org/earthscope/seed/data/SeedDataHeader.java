@@ -26,6 +26,9 @@ public class SeedDataHeader implements SeedHeader {
     private String station;
     private String location;
     private String channel;
+    @Getter(lombok.AccessLevel.NONE)
+    @Setter(lombok.AccessLevel.NONE)
+    private Nslc nslc;
     private ByteOrder byteOrder = ByteOrder.BIG_ENDIAN;
     private BTime start;
     private int numberOfSamples;
@@ -50,6 +53,48 @@ public class SeedDataHeader implements SeedHeader {
         this.reserved = reserved;
     }
 
+    /**
+     * @return the interned channel identifier of this header, headers of the same channel share the instance
+     */
+    public Nslc getNslc() {
+        if (nslc == null) {
+            nslc = Nslc.of(network, station, location, channel);
+        }
+        return nslc;
+    }
+
+    /**
+     * Sets network, station, location and channel from nslc, the location keeps its two character padding.
+     */
+    public void setNslc(Nslc nslc) {
+        Objects.requireNonNull(nslc, "nslc cannot be null");
+        this.nslc = nslc;
+        this.network = nslc.getNetwork();
+        this.station = nslc.getStation();
+        this.location = nslc.getLocationCode();
+        this.channel = nslc.getChannel();
+    }
+
+    public void setNetwork(String network) {
+        this.network = network;
+        this.nslc = null;
+    }
+
+    public void setStation(String station) {
+        this.station = station;
+        this.nslc = null;
+    }
+
+    public void setLocation(String location) {
+        this.location = location;
+        this.nslc = null;
+    }
+
+    public void setChannel(String channel) {
+        this.channel = channel;
+        this.nslc = null;
+    }
+
     @Override
     public String toString() {
         return "DataHeader [description=" + description + ", sequence=" + sequence + ", recordType=" + recordType
@@ -62,6 +107,22 @@ public class SeedDataHeader implements SeedHeader {
                 + beginningOfData + ", firstDataBlockette=" + firstDataBlockette + "]";
     }
 
+    /**
+     * Nominal sample rate in samples per second, derived from the sample rate factor and multiplier as described in
+     * the SEED manual for fields 10 and 11.
+     */
+    public double getSampleRate() {
+        double factor = sampleRateFactor;
+        double multiplier = sampleRateMultiplier;
+        if (factor == 0 || multiplier == 0) {
+            return 0;
+        }
+        if (factor > 0) {
+            return multiplier > 0 ? factor * multiplier : -factor / multiplier;
+        }
+        return multiplier > 0 ? -multiplier / factor : 1 / (factor * multiplier);
+    }
+
     public byte[] toSeedBytes(ByteOrder byteOrder) throws SeedException {
         SeedByteBuffer dataByteArray = SeedByteBuffer.allocate(48).order(byteOrder).putSequence(this.sequence)
                 .putOneByteChar(this.recordType.valueAsChar()).putOneByteChar(this.reserved).putStationCode(station)
@@ -69,7 +130,7 @@ public class SeedDataHeader implements SeedHeader {
                 .putShort(this.numberOfSamples).putShort(this.sampleRateFactor)
                 .putShort(this.sampleRateMultiplier).putByte((byte) this.activityFlags.toByte())
                 .putByte((byte) this.ioClockFlag).putByte((byte) this.qualityIndicator.toByte())
-                .putByte((byte) this.numberOfFollowingBlockettes).putFloat(this.timeCorrection)
+                .putByte((byte) this.numberOfFollowingBlockettes).putInt(this.timeCorrection)
                 .putShort(this.beginningOfData).putShort(this.firstDataBlockette);
 
         return dataByteArray.array();
@@ -107,6 +168,15 @@ public class SeedDataHeader implements SeedHeader {
                 timeCorrection(dba.getInt()).beginingOfData(dba.getShort()).
                 firstDataBlockette(dba.getShort()).build();
     }
+    public SeedDataHeaderBuilder toBuilder() {
+        return builder(sequence, recordType, reserved).network(network).station(station).location(location)
+                .channel(channel).byteOrder(byteOrder).start(start).numberOfSamples(numberOfSamples)
+                .sampleRateFactor(sampleRateFactor).sampleRateMultiplier(sampleRateMultiplier)
+                .activityFlags(activityFlags).ioClockFlag(ioClockFlag).dataQualityFlag(qualityIndicator)
+                .numberOfFollowingBlockettes(numberOfFollowingBlockettes).timeCorrection(timeCorrection)
+                .beginingOfData(beginningOfData).firstDataBlockette(firstDataBlockette);
+    }
+
     public static SeedDataHeaderBuilder builder(SeedRecordType type) {
         SeedDataHeaderBuilder dhb = new SeedDataHeaderBuilder();
         dhb.type = type;
@@ -173,6 +243,11 @@ public class SeedDataHeader implements SeedHeader {
             return this;
         }
 
+        public SeedDataHeaderBuilder byteOrder(ByteOrder byteOrder) {
+            this.byteOrder = byteOrder;
+            return this;
+        }
+
         public SeedDataHeaderBuilder start(BTime start) {
             this.start = start;
             return this;
@@ -238,6 +313,7 @@ public class SeedDataHeader implements SeedHeader {
             header.station = station;
             header.location = location;
             header.channel = channel;
+            header.byteOrder = byteOrder;
             header.start = start;
             header.numberOfSamples = numberOfSamples;
             header.sampleRateMultiplier = sampleRateMultiplier;
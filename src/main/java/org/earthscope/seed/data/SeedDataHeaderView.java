@@ -0,0 +1,334 @@
+package org.earthscope.seed.data;
+
+import org.earthscope.seed.BTime;
+import org.earthscope.seed.SeedException;
+import org.earthscope.seed.SeedRecordType;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+/**
+ * A reusable, allocation free view of the fixed section of data header. Unlike {@link SeedDataHeader} nothing is
+ * parsed up front, each getter decodes its field from the underlying bytes on access. The view can be pointed at the
+ * next record with one of the wrap methods:
+ * <pre>
+ * SeedDataHeaderView view = new SeedDataHeaderView();
+ * while ((bytes = seedInputStream.read()) != null) {
+ *     total += view.wrap(bytes).getNumberOfSamples();
+ * }
+ * </pre>
+ * Numeric getters and flag bytes never allocate, the code and time getters create their String/BTime on demand.
+ * Flags are returned as their raw byte value, use {@link #toHeader()} for the full object model.
+ */
+public class SeedDataHeaderView {
+
+    public static final int LENGTH = 48;
+
+    private byte[] array;
+    private ByteBuffer buffer;
+    private int offset;
+    private int limit;
+    private ByteOrder byteOrder = ByteOrder.BIG_ENDIAN;
+    private boolean bigEndian = true;
+
+    public SeedDataHeaderView wrap(byte[] bytes) throws SeedException {
+        return wrap(bytes, 0);
+    }
+
+    /**
+     * Points the view at the header starting at offset, the byte order is determined from the start time year.
+     */
+    public SeedDataHeaderView wrap(byte[] bytes, int offset) throws SeedException {
+        Objects.requireNonNull(bytes, "bytes cannot be null");
+        checkRange(offset, bytes.length);
+        return wrap(bytes, offset, BTime.determineByteOrder(bytes, offset + 20));
+    }
+
+    public SeedDataHeaderView wrap(byte[] bytes, int offset, ByteOrder byteOrder) throws SeedException {
+        Objects.requireNonNull(bytes, "bytes cannot be null");
+        checkRange(offset, bytes.length);
+        this.array = bytes;
+        this.buffer = null;
+        this.limit = bytes.length;
+        return point(offset, byteOrder);
+    }
+
+    public SeedDataHeaderView wrap(ByteBuffer buffer, int offset) throws SeedException {
+        Objects.requireNonNull(buffer, "buffer cannot be null");
+        checkRange(offset, buffer.limit());
+        return wrap(buffer, offset, BTime.determineByteOrder(buffer, offset + 20));
+    }
+
+    /**
+     * Points the view at a header in buffer using absolute reads, the position, limit and order of buffer are not
+     * changed.
+     */
+    public SeedDataHeaderView wrap(ByteBuffer buffer, int offset, ByteOrder byteOrder) throws SeedException {
+        Objects.requireNonNull(buffer, "buffer cannot be null");
+        checkRange(offset, buffer.limit());
+        this.array = null;
+        this.buffer = buffer;
+        this.limit = buffer.limit();
+        return point(offset, byteOrder);
+    }
+
+    private SeedDataHeaderView point(int offset, ByteOrder byteOrder) {
+        this.offset = offset;
+        this.byteOrder = Objects.requireNonNull(byteOrder);
+        this.bigEndian = byteOrder == ByteOrder.BIG_ENDIAN;
+        return this;
+    }
+
+    private static void checkRange(int offset, int limit) throws SeedException {
+        if (offset < 0 || limit - offset < LENGTH) {
+            throw new SeedException("Expected {} header bytes at {} but limit is {}", LENGTH, offset, limit);
+        }
+    }
+
+    public ByteOrder getByteOrder() {
+        return byteOrder;
+    }
+
+    /**
+     * @return the sequence number or -1 if the field holds anything but digits and spaces
+     */
+    public int getSequence() {
+        int sequence = 0;
+        for (int i = 0; i < 6; i++) {
+            int c = u8(i);
+            if (c >= '0' && c <= '9') {
+                sequence = sequence * 10 + (c - '0');
+            } else if (c != ' ') {
+                return -1;
+            }
+        }
+        return sequence;
+    }
+
+    public char getRecordTypeCode() {
+        return (char) u8(6);
+    }
+
+    public SeedRecordType getRecordType() throws SeedException {
+        return SeedRecordType.from(getRecordTypeCode());
+    }
+
+    public char getReserved() {
+        return (char) u8(7);
+    }
+
+    public String getStation() {
+        return code(8, 5).trim();
+    }
+
+    /**
+     * @return the location code untrimmed, as {@link DataBlocketteFactory#createHeader(byte[])} does
+     */
+    public String getLocation() {
+        return code(13, 2);
+    }
+
+    public String getChannel() {
+        return code(15, 3).trim();
+    }
+
+    public String getNetwork() {
+        return code(18, 2).trim();
+    }
+
+    /**
+     * Raw station, location, channel and network codes (header bytes 8 to 19) without creating strings: bytes 8 to 15
+     * packed into a long, see {@link #getCodesLow()} for the rest.
+     */
+    public long getCodesHigh() {
+        long value = 0;
+        for (int i = 8; i < 16; i++) {
+            value = value << 8 | u8(i);
+        }
+        return value;
+    }
+
+    /**
+     * @return header bytes 16 to 19 packed into an int, see {@link #getCodesHigh()}
+     */
+    public int getCodesLow() {
+        return u8(16) << 24 | u8(17) << 16 | u8(18) << 8 | u8(19);
+    }
+
+    /**
+     * @return the interned channel identifier, nothing is allocated once the channel has been seen
+     */
+    public Nslc getNslc() {
+        return Nslc.of(getCodesHigh(), getCodesLow());
+    }
+
+    public int getYear() {
+        return u16(20);
+    }
+
+    public int getDayOfYear() {
+        return u16(22);
+    }
+
+    public int getHour() {
+        return u8(24);
+    }
+
+    public int getMinute() {
+        return u8(25);
+    }
+
+    public int getSecond() {
+        return u8(26);
+    }
+
+    public int getTenthMilliSecond() {
+        return u16(28);
+    }
+
+    public BTime getStart() {
+        return BTime.valueOf(getYear(), getDayOfYear(), getHour(), getMinute(), getSecond(), getTenthMilliSecond());
+    }
+
+    /**
+     * @return the uncorrected start time in nanoseconds since the epoch, no objects are created
+     */
+    public long getStartEpochNanos() {
+        return BTime.toEpochNanos(getYear(), getDayOfYear(), getHour(), getMinute(), getSecond(),
+                getTenthMilliSecond());
+    }
+
+    public int getNumberOfSamples() {
+        return u16(30);
+    }
+
+    public int getSampleRateFactor() {
+        return s16(32);
+    }
+
+    public int getSampleRateMultiplier() {
+        return s16(34);
+    }
+
+    /**
+     * @see SeedDataHeader#getSampleRate()
+     */
+    public double getSampleRate() {
+        double factor = getSampleRateFactor();
+        double multiplier = getSampleRateMultiplier();
+        if (factor == 0 || multiplier == 0) {
+            return 0;
+        }
+        if (factor > 0) {
+            return multiplier > 0 ? factor * multiplier : -factor / multiplier;
+        }
+        return multiplier > 0 ? -multiplier / factor : 1 / (factor * multiplier);
+    }
+
+    /**
+     * @return the B100 actual sample rate if the record has a B100 within reach of the view, otherwise the rate of the
+     * fixed header, as {@link DataRecord#getSampleRate()}
+     */
+    public double getActualSampleRate() {
+        int b100 = findBlockette(100);
+        if (b100 >= 0 && offset + b100 + 8 <= limit) {
+            return Float.intBitsToFloat(i32(b100 + 4));
+        }
+        return getSampleRate();
+    }
+
+    public int getActivityFlags() {
+        return u8(36);
+    }
+
+    public int getIoClockFlag() {
+        return u8(37);
+    }
+
+    public int getQualityIndicator() {
+        return u8(38);
+    }
+
+    public int getNumberOfFollowingBlockettes() {
+        return u8(39);
+    }
+
+    public int getTimeCorrection() {
+        return i32(40);
+    }
+
+    public int getBeginningOfData() {
+        return u16(44);
+    }
+
+    public int getFirstDataBlockette() {
+        return u16(46);
+    }
+
+    /**
+     * Follows the blockette chain looking for a blockette of the given type. Only the bytes available to the view are
+     * searched, wrap the whole record to reach every blockette.
+     *
+     * @return the offset of the blockette relative to the start of the record, or -1 if not found
+     */
+    public int findBlockette(int type) {
+        int next = getFirstDataBlockette();
+        int remaining = getNumberOfFollowingBlockettes();
+        while (next >= LENGTH && remaining-- > 0 && offset + next + 4 <= limit) {
+            if (u16(next) == type) {
+                return next;
+            }
+            int following = u16(next + 2);
+            if (following <= next) {
+                break;
+            }
+            next = following;
+        }
+        return -1;
+    }
+
+    /**
+     * @return the record length declared by B1000, or -1 if the record has no B1000 within reach of the view
+     */
+    public int getRecordLength() {
+        int b1000 = findBlockette(1000);
+        if (b1000 < 0 || offset + b1000 + 8 > limit) {
+            return -1;
+        }
+        int exponent = u8(b1000 + 6);
+        return exponent < 31 ? 1 << exponent : -1;
+    }
+
+    public SeedDataHeader toHeader() throws SeedException {
+        if (array != null) {
+            return DataBlocketteFactory.createHeader(array, offset);
+        }
+        return DataBlocketteFactory.createHeader(buffer, offset);
+    }
+
+    private String code(int index, int length) {
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = (byte) u8(index + i);
+        }
+        return new String(bytes, StandardCharsets.US_ASCII);
+    }
+
+    private int u8(int index) {
+        return (array != null ? array[offset + index] : buffer.get(offset + index)) & 0xff;
+    }
+
+    private int u16(int index) {
+        return bigEndian ? u8(index) << 8 | u8(index + 1) : u8(index + 1) << 8 | u8(index);
+    }
+
+    private int s16(int index) {
+        return (short) u16(index);
+    }
+
+    private int i32(int index) {
+        return bigEndian ? u16(index) << 16 | u16(index + 2) : u16(index + 2) << 16 | u16(index);
+    }
+}
@@ -0,0 +1,255 @@
+package org.earthscope.seed.io;
+
+import org.earthscope.seed.SeedException;
+import org.earthscope.seed.data.DataRecord;
+import org.earthscope.seed.data.SeedDataHeaderView;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * Reads records from a channel into one large direct buffer and hands them out as slices of it, headers and
+ * blockettes are parsed straight from the buffer. Record lengths come from B1000, so records of different lengths
+ * may be mixed.
+ * <p>
+ * {@link #of(ReadableByteChannel)} issues large reads on the calling thread, {@link #of(AsynchronousFileChannel)}
+ * keeps one read in flight while the previous block is being parsed.
+ * </p>
+ * <pre>
+ * try (ChannelRecordSource source = ChannelRecordSource.open(path)) {
+ *     DataRecord record;
+ *     while ((record = source.read()) != null) {
+ *         ...
+ *     }
+ * }
+ * </pre>
+ */
+public abstract class ChannelRecordSource implements Closeable {
+
+    public static final int DEFAULT_BUFFER_SIZE = 1 << 20;
+    private static final int ALIGNMENT = 4096;
+
+    private ByteBuffer buffer;
+    private boolean endOfStream;
+    private final SeedDataHeaderView view = new SeedDataHeaderView();
+    private final RecordParser parser = new RecordParser();
+
+    ChannelRecordSource(int bufferSize) {
+        this.buffer = ByteBuffer.allocateDirect(align(bufferSize));
+        this.buffer.flip();
+    }
+
+    public static ChannelRecordSource open(Path path) throws IOException {
+        return of(FileChannel.open(path, StandardOpenOption.READ));
+    }
+
+    public static ChannelRecordSource of(ReadableByteChannel channel) {
+        return of(channel, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * @param bufferSize size of the direct read buffer, rounded up to a multiple of 4096
+     */
+    public static ChannelRecordSource of(ReadableByteChannel channel, int bufferSize) {
+        return new Sequential(Objects.requireNonNull(channel, "channel cannot be null"), bufferSize);
+    }
+
+    public static ChannelRecordSource of(AsynchronousFileChannel channel) {
+        return of(channel, 0, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * @param position   file position of the first record
+     * @param bufferSize size of each of the two direct read buffers, rounded up to a multiple of 4096
+     */
+    public static ChannelRecordSource of(AsynchronousFileChannel channel, long position, int bufferSize) {
+        return new ReadAhead(Objects.requireNonNull(channel, "channel cannot be null"), position, bufferSize);
+    }
+
+    private static int align(int size) {
+        if (size < SeedInputStream.MIN_RECORD_LENGTH) {
+            throw new IllegalArgumentException("Invalid buffer size " + size);
+        }
+        long aligned = ((long) size + ALIGNMENT - 1) / ALIGNMENT * ALIGNMENT;
+        return (int) Math.min(Integer.MAX_VALUE - ALIGNMENT + 1, aligned);
+    }
+
+    /**
+     * @return a read only slice holding exactly the next record, null at the end of the stream. The slice is only
+     * valid until the next call.
+     */
+    public ByteBuffer next() throws IOException {
+        if (!ensure(SeedDataHeaderView.LENGTH)) {
+            return endOfStream();
+        }
+        int start = buffer.position();
+        int length;
+        try {
+            ensure(SeedInputStream.MIN_RECORD_LENGTH);
+            start = buffer.position();
+            length = view.wrap(buffer, start).getRecordLength();
+        } catch (SeedException e) {
+            throw new IOException("Invalid record header at buffer offset " + start, e);
+        }
+        if (length < 0) {
+            throw new IOException("Record without B1000, its length cannot be determined");
+        }
+        if (!ensure(length)) {
+            throw new EOFException("Expected " + length + " bytes but received " + buffer.remaining());
+        }
+        start = buffer.position();
+        ByteBuffer record = buffer.duplicate();
+        record.limit(start + length).position(start);
+        buffer.position(start + length);
+        return record.slice().asReadOnlyBuffer();
+    }
+
+    /**
+     * @return the next record parsed, null at the end of the stream
+     */
+    public DataRecord read() throws IOException {
+        ByteBuffer record = next();
+        if (record == null) {
+            return null;
+        }
+        try {
+            return parser.parse(record);
+        } catch (SeedException e) {
+            throw new IOException(e);
+        }
+    }
+
+    private ByteBuffer endOfStream() throws IOException {
+        for (int i = buffer.position(); i < buffer.limit(); i++) {
+            if (Character.isLetterOrDigit(buffer.get(i))) {
+                throw new EOFException("Expected a record but received " + buffer.remaining() + " bytes");
+            }
+        }
+        buffer.position(buffer.limit());
+        return null;
+    }
+
+    /**
+     * Makes at least n bytes available from the buffer position, moving the remaining bytes to the front and reading
+     * more when needed.
+     *
+     * @return false if the stream ended first
+     */
+    private boolean ensure(int n) throws IOException {
+        while (buffer.remaining() < n) {
+            if (endOfStream) {
+                return false;
+            }
+            if (n > buffer.capacity()) {
+                ByteBuffer larger = ByteBuffer.allocateDirect(align(n));
+                larger.put(buffer);
+                buffer = larger;
+            } else {
+                buffer.compact();
+            }
+            if (fill(buffer) < 0) {
+                endOfStream = true;
+            }
+            buffer.flip();
+        }
+        return true;
+    }
+
+    /**
+     * Reads more bytes into buffer, which is in write mode.
+     *
+     * @return the number of bytes read, -1 at the end of the stream
+     */
+    abstract int fill(ByteBuffer buffer) throws IOException;
+
+    private static class Sequential extends ChannelRecordSource {
+        private final ReadableByteChannel channel;
+
+        Sequential(ReadableByteChannel channel, int bufferSize) {
+            super(bufferSize);
+            this.channel = channel;
+        }
+
+        @Override
+        int fill(ByteBuffer buffer) throws IOException {
+            int total = 0;
+            while (buffer.hasRemaining()) {
+                int n = channel.read(buffer);
+                if (n < 0) {
+                    return total == 0 ? -1 : total;
+                }
+                if (n == 0 && total > 0) {
+                    break;
+                }
+                total += n;
+            }
+            return total;
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+
+    private static class ReadAhead extends ChannelRecordSource {
+        private final AsynchronousFileChannel channel;
+        private final ByteBuffer ahead;
+        private long position;
+        private Future<Integer> pending;
+
+        ReadAhead(AsynchronousFileChannel channel, long position, int bufferSize) {
+            super(bufferSize);
+            this.channel = channel;
+            this.ahead = ByteBuffer.allocateDirect(align(bufferSize));
+            this.position = position;
+            this.pending = channel.read(ahead, position);
+        }
+
+        @Override
+        int fill(ByteBuffer buffer) throws IOException {
+            if (await() < 0) {
+                return -1;
+            }
+            ahead.flip();
+            int count = Math.min(ahead.remaining(), buffer.remaining());
+            ahead.limit(count);
+            buffer.put(ahead);
+            // bytes that did not fit are read again with the next block
+            position += count;
+            ahead.clear();
+            pending = channel.read(ahead, position);
+            return count;
+        }
+
+        private int await() throws IOException {
+            try {
+                return pending.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while reading ahead");
+            } catch (ExecutionException e) {
+                throw new IOException(e.getCause());
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (pending != null) {
+                pending.cancel(false);
+            }
+            channel.close();
+        }
+    }
+}
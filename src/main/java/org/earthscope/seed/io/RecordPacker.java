@@ -0,0 +1,238 @@
+package org.earthscope.seed.io;
+
+import org.earthscope.seed.SeedException;
+import org.earthscope.seed.codec.Codec;
+import org.earthscope.seed.codec.EncodingFormat;
+import org.earthscope.seed.codec.Encoder;
+import org.earthscope.seed.data.B1000;
+import org.earthscope.seed.data.B1001;
+import org.earthscope.seed.data.DataBlockette;
+import org.earthscope.seed.data.DataRecord;
+import org.earthscope.seed.data.SeedDataHeader;
+
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Packs samples into fixed length data records laid out as
+ * <pre>
+ *  0  fixed section of data header
+ * 48  B1000
+ * 56  B1001
+ * 64  data frames up to the end of the record
+ * </pre>
+ * Further blockettes such as B100 or B500 may be carried along, they follow B1001 and the data frames start at the
+ * next multiple of 64 bytes after them. Integer samples are packed in SHORT, INT24, INTEGER, Steim1 or Steim2, FLOAT
+ * and DOUBLE packers take float and double samples and ASCII packers text, see {@link DataRecord#getAsciiSamples()}.
+ * The packer remembers the last sample it packed so consecutive calls produce a continuous stream, call
+ * {@link #resetLastSample()} when switching to a different channel.
+ */
+public class RecordPacker {
+
+    static final int B1000_OFFSET = 48;
+    static final int B1001_OFFSET = 56;
+    static final int DATA_OFFSET = 64;
+    static final int FRAME_LENGTH = 64;
+
+    private final int recordLength;
+    private final ByteOrder byteOrder;
+    private final EncodingFormat encodingFormat;
+    private final Encoder encoder;
+    private final byte[] b1000Bytes;
+
+    private RecordPacker(int recordLength, ByteOrder byteOrder, EncodingFormat encodingFormat) throws SeedException {
+        this.recordLength = recordLength;
+        this.byteOrder = byteOrder;
+        this.encodingFormat = encodingFormat;
+        this.encoder = Codec.encoder(encodingFormat).byteOrder(byteOrder);
+        this.b1000Bytes = B1000.builder().encodingFormat(encodingFormat).byteOrder(byteOrder)
+                .recordLengthExponent(Integer.numberOfTrailingZeros(recordLength))
+                .nextBlocketteByteNumber(B1001_OFFSET).build().toSeedBytes(byteOrder);
+    }
+
+    public int getRecordLength() {
+        return recordLength;
+    }
+
+    public ByteOrder getByteOrder() {
+        return byteOrder;
+    }
+
+    public EncodingFormat getEncodingFormat() {
+        return encodingFormat;
+    }
+
+    public RecordPacker lastSampleFromPreviousRecord(int lastSample) {
+        encoder.lastSampleFromPreviousRecord(lastSample);
+        return this;
+    }
+
+    public RecordPacker resetLastSample() {
+        encoder.resetLastSample();
+        return this;
+    }
+
+    /**
+     * Packs as many of {@code samples[offset, offset+count)} as fit into one record written to
+     * {@code dst[dstOffset, dstOffset+recordLength)}. The header supplies the sequence, channel and start time, its
+     * number of samples, blockette count and offsets are overwritten to describe the packed record.
+     *
+     * @param b1001 timing quality and microseconds to carry over, may be null
+     * @return the number of samples packed
+     */
+    public int pack(SeedDataHeader header, B1001 b1001, int[] samples, int offset, int count, byte[] dst,
+                    int dstOffset) throws SeedException {
+        return pack(header, b1001, Collections.emptyList(), samples, offset, count, dst, dstOffset);
+    }
+
+    /**
+     * Same as {@link #pack(SeedDataHeader, B1001, int[], int, int, byte[], int)} with blockettes written after B1001
+     * in the given order, their next blockette offsets are set in the written bytes.
+     */
+    public int pack(SeedDataHeader header, B1001 b1001, List<? extends DataBlockette> blockettes, int[] samples,
+                    int offset, int count, byte[] dst, int dstOffset) throws SeedException {
+        return pack(header, b1001, blockettes, (Object) samples, offset, count, dst, dstOffset);
+    }
+
+    /**
+     * Packs float samples, the packer must have been built for {@link EncodingFormat#FLOAT}.
+     */
+    public int pack(SeedDataHeader header, B1001 b1001, List<? extends DataBlockette> blockettes, float[] samples,
+                    int offset, int count, byte[] dst, int dstOffset) throws SeedException {
+        return pack(header, b1001, blockettes, (Object) samples, offset, count, dst, dstOffset);
+    }
+
+    /**
+     * Packs double samples, the packer must have been built for {@link EncodingFormat#DOUBLE}.
+     */
+    public int pack(SeedDataHeader header, B1001 b1001, List<? extends DataBlockette> blockettes, double[] samples,
+                    int offset, int count, byte[] dst, int dstOffset) throws SeedException {
+        return pack(header, b1001, blockettes, (Object) samples, offset, count, dst, dstOffset);
+    }
+
+    /**
+     * Packs text, the packer must have been built for {@link EncodingFormat#ASCII}.
+     */
+    public int pack(SeedDataHeader header, B1001 b1001, List<? extends DataBlockette> blockettes, byte[] text,
+                    int offset, int count, byte[] dst, int dstOffset) throws SeedException {
+        return pack(header, b1001, blockettes, (Object) text, offset, count, dst, dstOffset);
+    }
+
+    /**
+     * @param samples an int[], float[], double[] or byte[] of text
+     */
+    int pack(SeedDataHeader header, B1001 b1001, List<? extends DataBlockette> blockettes, Object samples,
+             int offset, int count, byte[] dst, int dstOffset) throws SeedException {
+        Objects.requireNonNull(header, "header cannot be null");
+        Objects.requireNonNull(blockettes, "blockettes cannot be null");
+        Objects.requireNonNull(dst, "dst cannot be null");
+        if (dstOffset < 0 || dst.length - dstOffset < recordLength) {
+            throw new SeedException("Expected room for a {} byte record at {} but buffer is {} bytes", recordLength,
+                    dstOffset, dst.length);
+        }
+        int next = DATA_OFFSET;
+        int previous = -1;
+        for (DataBlockette blockette : blockettes) {
+            byte[] bytes = blockette.toSeedBytes(byteOrder);
+            if (next + bytes.length > recordLength) {
+                throw new SeedException("Blockettes do not fit into a {} byte record", recordLength);
+            }
+            System.arraycopy(bytes, 0, dst, dstOffset + next, bytes.length);
+            putShort(dst, dstOffset + next + 2, 0);
+            if (previous >= 0) {
+                putShort(dst, dstOffset + previous + 2, next);
+            }
+            previous = next;
+            next += bytes.length;
+        }
+        int dataOffset = (next + FRAME_LENGTH - 1) / FRAME_LENGTH * FRAME_LENGTH;
+        if (dataOffset >= recordLength) {
+            throw new SeedException("No room for data in a {} byte record after the blockettes", recordLength);
+        }
+        Arrays.fill(dst, dstOffset + next, dstOffset + dataOffset, (byte) 0);
+        int n;
+        if (samples instanceof float[]) {
+            n = encoder.encode((float[]) samples, offset, count, dst, dstOffset + dataOffset,
+                    recordLength - dataOffset);
+        } else if (samples instanceof double[]) {
+            n = encoder.encode((double[]) samples, offset, count, dst, dstOffset + dataOffset,
+                    recordLength - dataOffset);
+        } else if (samples instanceof byte[]) {
+            n = encoder.encode((byte[]) samples, offset, count, dst, dstOffset + dataOffset,
+                    recordLength - dataOffset);
+        } else {
+            int[] values = (int[]) samples;
+            n = encoder.encode(values, offset, count, dst, dstOffset + dataOffset, recordLength - dataOffset);
+            if (n > 0) {
+                encoder.lastSampleFromPreviousRecord(values[offset + n - 1]);
+            }
+        }
+
+        header.setNumberOfSamples(n);
+        header.setNumberOfFollowingBlockettes(2 + blockettes.size());
+        header.setFirstDataBlockette(B1000_OFFSET);
+        header.setBeginningOfData(dataOffset);
+        header.setByteOrder(byteOrder);
+        System.arraycopy(header.toSeedBytes(byteOrder), 0, dst, dstOffset, B1000_OFFSET);
+        System.arraycopy(b1000Bytes, 0, dst, dstOffset + B1000_OFFSET, b1000Bytes.length);
+
+        B1001 extension = B1001.builder().timingQuality(b1001 == null ? 0 : b1001.getTimingQuality())
+                .microSeconds(b1001 == null ? 0 : b1001.getMicroSeconds())
+                .nextBlocketteByteNumber(blockettes.isEmpty() ? 0 : DATA_OFFSET)
+                .frameCount(isSteim() ? encoder.getEncodedLength() / FRAME_LENGTH : 0).build();
+        byte[] b1001Bytes = extension.toSeedBytes(byteOrder);
+        System.arraycopy(b1001Bytes, 0, dst, dstOffset + B1001_OFFSET, b1001Bytes.length);
+        return n;
+    }
+
+    private boolean isSteim() {
+        return encodingFormat == EncodingFormat.STEIM1 || encodingFormat == EncodingFormat.STEIM2;
+    }
+
+    private void putShort(byte[] dst, int offset, int value) {
+        if (byteOrder == ByteOrder.BIG_ENDIAN) {
+            dst[offset] = (byte) (value >> 8);
+            dst[offset + 1] = (byte) value;
+        } else {
+            dst[offset] = (byte) value;
+            dst[offset + 1] = (byte) (value >> 8);
+        }
+    }
+
+    public static RecordPackerBuilder builder() {
+        return new RecordPackerBuilder();
+    }
+
+    public static class RecordPackerBuilder {
+        private int recordLength = 4096;
+        private ByteOrder byteOrder = ByteOrder.BIG_ENDIAN;
+        private EncodingFormat encodingFormat = EncodingFormat.STEIM2;
+
+        public RecordPackerBuilder recordLength(int recordLength) {
+            this.recordLength = recordLength;
+            return this;
+        }
+
+        public RecordPackerBuilder byteOrder(ByteOrder byteOrder) {
+            this.byteOrder = byteOrder;
+            return this;
+        }
+
+        public RecordPackerBuilder encodingFormat(EncodingFormat encodingFormat) {
+            this.encodingFormat = encodingFormat;
+            return this;
+        }
+
+        public RecordPacker build() throws SeedException {
+            if (recordLength < 256 || Integer.bitCount(recordLength) != 1) {
+                throw new SeedException("Invalid record length {}, expected a power of two of at least 256",
+                        recordLength);
+            }
+            Objects.requireNonNull(byteOrder, "byteOrder cannot be null");
+            return new RecordPacker(recordLength, byteOrder, encodingFormat);
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package org.earthscope.seed.io;
+
+import lombok.extern.slf4j.Slf4j;
+import org.earthscope.seed.SeedException;
+import org.earthscope.seed.codec.Codec;
+import org.earthscope.seed.codec.Decoder;
+import org.earthscope.seed.codec.EncodingFormat;
+import org.earthscope.seed.data.*;
+import org.earthscope.seed.util.SeedByteBuffer;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Objects;
+
+/**
+ * Turns the raw bytes of one record into a DataRecord: fixed header, data blockettes and decoded samples. A parser
+ * remembers the last sample of the previous record so consecutive records of a channel can be checked for continuity,
+ * use one parser per sequential stream of records.
+ */
+@Slf4j
+public class RecordParser {
+    private int sampleFromPreviousRecord;
+    private SeedDataHeader previousHeader;
+    private byte[] scratch;
+    private boolean skipUnknownBlockettes = true;
+    private BitSet blocketteFilter;
+
+    /**
+     * @param skip true, the default, to step over blockettes without a registered parser, false to fail on them
+     */
+    public RecordParser skipUnknownBlockettes(boolean skip) {
+        this.skipUnknownBlockettes = skip;
+        return this;
+    }
+
+    public DataRecord parse(byte[] bytes) throws SeedException {
+        Objects.requireNonNull(bytes, "bytes cannot be null");
+        return parse(bytes, bytes.length);
+    }
+
+    /**
+     * Parses a record of length bytes at the start of bytes, which may be a larger reused buffer. The returned record
+     * holds no reference to bytes.
+     */
+    public DataRecord parse(byte[] bytes, int length) throws SeedException {
+        Objects.requireNonNull(bytes, "bytes cannot be null");
+        if (length < 0 || length > bytes.length) {
+            throw new SeedException("Invalid record length {} for {} bytes", length, bytes.length);
+        }
+        SeedDataHeader header = DataBlocketteFactory.createHeader(bytes);
+        log.debug("Header:{}",header.toString());
+        DataRecord.DataRecordBuilder builder = DataRecord.builder(header);
+        B1000 b1000 = parseBlockettes(builder, header, SeedByteBuffer.wrap(bytes, 0, length, header.getByteOrder()));
+        decodeSamples(builder, header, b1000, bytes, header.getBeginningOfData(),
+                length - header.getBeginningOfData());
+        return builder.build();
+    }
+
+    /**
+     * Parses the record between the position and limit of record without copying the header or blockettes into an
+     * array. Samples are decoded straight from heap buffers, for direct buffers the data section is copied into an
+     * array reused by this parser. The position of record is not changed.
+     */
+    public DataRecord parse(ByteBuffer record) throws SeedException {
+        Objects.requireNonNull(record, "record cannot be null");
+        int start = record.position();
+        int length = record.remaining();
+        SeedDataHeader header = DataBlocketteFactory.createHeader(record, start);
+        DataRecord.DataRecordBuilder builder = DataRecord.builder(header);
+        B1000 b1000 = parseBlockettes(builder, header,
+                SeedByteBuffer.wrap(record, start, length, header.getByteOrder()));
+        int dataLength = length - header.getBeginningOfData();
+        if (dataLength < 0) {
+            throw new SeedException("Beginning of data {} is beyond the record length {}",
+                    header.getBeginningOfData(), length);
+        }
+        if (record.hasArray()) {
+            decodeSamples(builder, header, b1000, record.array(),
+                    record.arrayOffset() + start + header.getBeginningOfData(), dataLength);
+        } else {
+            if (scratch == null || scratch.length < dataLength) {
+                scratch = new byte[dataLength];
+            }
+            ByteBuffer data = record.duplicate();
+            data.position(start + header.getBeginningOfData());
+            data.get(scratch, 0, dataLength);
+            decodeSamples(builder, header, b1000, scratch, 0, dataLength);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Restricts the blockettes parsed to types, the others are stepped over without being built. B1000 is always
+     * parsed as it is needed to decode the samples. Without arguments all blockettes are parsed again.
+     */
+    public RecordParser blockettes(int... types) {
+        Objects.requireNonNull(types, "types cannot be null");
+        if (types.length == 0) {
+            this.blocketteFilter = null;
+            return this;
+        }
+        BitSet filter = new BitSet();
+        for (int type : types) {
+            if (type < 0 || type > 0xFFFF) {
+                throw new IllegalArgumentException("Invalid blockette type " + type);
+            }
+            filter.set(type);
+        }
+        filter.set(1000);
+        this.blocketteFilter = filter;
+        return this;
+    }
+
+    /**
+     * Parses the blockettes of a record through one cursor wrapping the record. Types not selected by
+     * {@link #blockettes(int...)} are stepped over, as are types without a registered parser unless skipping unknown
+     * blockettes was turned off.
+     *
+     * @return the B1000 of the record, null if there is none
+     */
+    private B1000 parseBlockettes(DataRecord.DataRecordBuilder builder, SeedDataHeader header, SeedByteBuffer cursor)
+            throws SeedException {
+        if (header.getNumberOfFollowingBlockettes() == 0) {
+            return null;
+        }
+        log.debug("Try to read {} data blockettes.", header.getNumberOfFollowingBlockettes());
+        B1000 b1000 = null;
+        int offset = header.getFirstDataBlockette();
+        while (offset > 0) {
+            log.debug("Try to read data blockette at offset:{}.", offset);
+            int type = DataBlocketteFactory.blocketteType(cursor, offset);
+            int next;
+            if (blocketteFilter != null && !blocketteFilter.get(type)) {
+                next = DataBlocketteFactory.nextBlocketteOffset(cursor, offset);
+            } else if (skipUnknownBlockettes && !DataBlocketteFactory.isRegistered(type)) {
+                log.debug("Skipping blockette of unknown type {} at offset {}", type, offset);
+                next = DataBlocketteFactory.nextBlocketteOffset(cursor, offset);
+            } else {
+                DataBlockette db = DataBlocketteFactory.create(cursor, offset);
+                builder.add(db);
+                if (db.getType() == 1000) {
+                    b1000 = (B1000) db;
+                }
+                next = db.getNextBlocketteByteNumber();
+            }
+            if (next != 0 && next <= offset) {
+                throw new SeedException("Blockette at offset {} points back to offset {}", offset, next);
+            }
+            offset = next;
+        }
+        return b1000;
+    }
+
+    private void decodeSamples(DataRecord.DataRecordBuilder builder, SeedDataHeader header, B1000 b1000,
+                               byte[] bytes, int offset, int length) throws SeedException {
+        if(b1000==null){
+            throw new SeedException("Expected b1000 but received none.");
+        }
+        int numberOfSamples = header.getNumberOfSamples();
+        EncodingFormat encodingFormat = b1000.getEncodingFormat();
+        if (numberOfSamples > 0 && encodingFormat == EncodingFormat.ASCII) {
+            // the text is kept as is, e.g. for log records
+            builder.add(Arrays.copyOfRange(bytes, offset, offset + Math.max(0, Math.min(numberOfSamples, length))));
+        } else if (numberOfSamples > 0 && Codec.canDecode(encodingFormat)) {
+            Decoder decoder = Codec.decoder(encodingFormat).byteOrder(b1000.getByteOrder())
+                    .expectedNumberOfSamples(numberOfSamples);
+            if (encodingFormat == EncodingFormat.FLOAT) {
+                builder.add(decoder.decodeFloats(bytes, offset, length));
+            } else if (encodingFormat == EncodingFormat.DOUBLE) {
+                builder.add(decoder.decodeDoubles(bytes, offset, length));
+            } else {
+                if (isSameChannel(previousHeader, header)) {
+                    decoder.lastSampleFromPreviousRecord(sampleFromPreviousRecord);
+                }
+                int[] samples = decoder.decode(bytes, offset, length);
+                sampleFromPreviousRecord = samples[samples.length - 1];
+                previousHeader = header;
+                builder.add(samples);
+            }
+        }
+    }
+
+    private static boolean isSameChannel(SeedDataHeader previous, SeedDataHeader current) {
+        return previous != null && Objects.equals(previous.getNetwork(), current.getNetwork())
+                && Objects.equals(previous.getStation(), current.getStation())
+                && Objects.equals(previous.getLocation(), current.getLocation())
+                && Objects.equals(previous.getChannel(), current.getChannel());
+    }
+}
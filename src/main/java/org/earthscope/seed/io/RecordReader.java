@@ -2,79 +2,96 @@ package org.earthscope.seed.io;
 
 import lombok.extern.slf4j.Slf4j;
 import org.earthscope.seed.SeedException;
-import org.earthscope.seed.data.*;
+import org.earthscope.seed.data.DataRecord;
 
 import java.io.ByteArrayInputStream;
 import java.io.Closeable;
 import java.io.IOException;
 import java.io.InputStream;
-import java.nio.ByteBuffer;
-import java.nio.ByteOrder;
 import java.util.Objects;
 
 @Slf4j
 public class RecordReader implements Closeable {
     private SeedInputStream inputStream;
     private int recordLength;
-    private int offset;
-    private int sampleFromPreviousRecord;
+    private final RecordParser parser = new RecordParser();
+    private long unparsableRecords;
     public RecordReader(byte[]bytes) throws IOException {
         this(new ByteArrayInputStream(bytes));
     }
     public RecordReader(InputStream inputStream) throws IOException {
+        this(inputStream, false);
+    }
+
+    /**
+     * @param tolerant skip corrupt bytes and records that fail to parse instead of throwing, see
+     *                 {@link SeedInputStream#tolerant(boolean)}
+     */
+    public RecordReader(InputStream inputStream, boolean tolerant) throws IOException {
         Objects.requireNonNull(inputStream);
-        this.inputStream=new SeedInputStream(inputStream);
+        // the parser keeps no reference to the record bytes, one reused array is enough
+        this.inputStream=new SeedInputStream(inputStream).ring(1).tolerant(tolerant);
         this.recordLength=this.inputStream.getRecordLength();
         //this.recordLength=recordLength;
     }
 
 
+    /**
+     * Reads only records selected by selector, the others are skipped after their fixed header without parsing
+     * blockettes or decoding samples, see {@link SeedInputStream#select(RecordSelector)}.
+     */
+    public RecordReader select(RecordSelector selector) {
+        inputStream.select(selector);
+        return this;
+    }
+
+    public long getUnselectedRecords() {
+        return inputStream.getUnselectedRecords();
+    }
+
+    /**
+     * Parses only blockettes of the given types, B1000 is always parsed. Other blockettes are stepped over without
+     * being built, which saves most of the blockette work when e.g. only B1001 and B500 are of interest.
+     */
+    public RecordReader blockettes(int... types) {
+        parser.blockettes(types);
+        return this;
+    }
+
+    /**
+     * @return the number of records skipped in tolerant mode, corrupt bytes and records that failed to parse
+     */
+    public long getSkippedRecords() {
+        return inputStream.getSkippedRecords() + unparsableRecords;
+    }
+
+    public long getSkippedBytes() {
+        return inputStream.getSkippedBytes();
+    }
+
     public DataRecord read() throws IOException {
-        try {
-            byte[] bytes = this.inputStream.read();
+        while (true) {
+            byte[] bytes;
+            try {
+                bytes = this.inputStream.read();
+            } catch (SeedException e) {
+                throw new IOException(e);
+            }
             if(bytes==null){
                 return null;
             }
-            SeedDataHeader header = DataBlocketteFactory.createHeader(bytes);
-            log.debug("Header:{}",header.toString());
-            DataRecord.DataRecordBuilder builder = DataRecord.builder(header);
-            int numberOfFollowingBlockettes = header.getNumberOfFollowingBlockettes();
-            B1000 b1000 = null;
-
-            if(numberOfFollowingBlockettes>0) {
-                log.debug("Try to read {} data blockettes.",numberOfFollowingBlockettes);
-                int offset = header.getFirstDataBlockette();
-                while(offset>0) {
-                    log.debug("Try to read data blockette at offset:{}.",offset);
-                    DataBlockette db = DataBlocketteFactory.create(bytes, offset, header.getByteOrder());
-                    builder.add(db);
-                    offset = db.getNextBlocketteByteNumber();
-                    if(db.getType()==1000){
-                        b1000 = (B1000) db;
+            try {
+                return parser.parse(bytes);
+            } catch (SeedException | RuntimeException e) {
+                if (!inputStream.isTolerant()) {
+                    if (e instanceof SeedException) {
+                        throw new IOException(e);
                     }
+                    throw (RuntimeException) e;
                 }
+                unparsableRecords++;
+                log.warn("Skipping record that failed to parse: {}", e.getMessage());
             }
-            if(b1000==null){
-                throw new SeedException("Expected b1000 but received none.");
-            }
-            ByteBuffer bb = ByteBuffer.wrap(bytes, header.getBeginningOfData(),
-                    bytes.length-header.getBeginningOfData()).order(ByteOrder.BIG_ENDIAN);
-            int i=0;
-            while(bb.remaining()>=4){
-                //System.out.println("bb: "+i+"  "+bb.getInt());
-                bb.getInt();
-                i+=4;
-            }
-            /*int[] samples = Codec.decoder(b1000.getEncodingFormat()).byteOrder(b1000.getByteOrder())
-                    .lastSampleFromPreviousRecord(sampleFromPreviousRecord).
-                            expectedNumberOfSamples(header.getNumberOfSamples()).
-                    decode(bytes, header.getBeginningOfData());
-            sampleFromPreviousRecord = samples[samples.length-1];
-            return builder.add(samples).build();
-            */
-            return builder.build();
-        } catch (SeedException e) {
-            throw new IOException(e);
         }
     }
 
@@ -0,0 +1,354 @@
+package org.earthscope.seed.io;
+
+import org.earthscope.seed.BTime;
+import org.earthscope.seed.SeedException;
+import org.earthscope.seed.SeedFlags;
+import org.earthscope.seed.codec.Codec;
+import org.earthscope.seed.codec.EncodingFormat;
+import org.earthscope.seed.data.B100;
+import org.earthscope.seed.data.B1001;
+import org.earthscope.seed.data.DataBlockette;
+import org.earthscope.seed.data.DataRecord;
+import org.earthscope.seed.data.Nslc;
+import org.earthscope.seed.data.SeedDataHeader;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Array;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Re-encodes data records into records of another length and byte order. Samples of contiguous records of a channel
+ * are collected and packed into full records, so short records are merged and long ones split. Only about one record
+ * worth of samples per channel is held, records are written as soon as they are full.
+ * <p>
+ * Records continue each other if they have the same header flags, quality code, encoding, sample rate, B100 rate and
+ * timing quality and the next record starts within half a sample of where the previous one ended. B100 is repeated in
+ * every record, a B500 is kept with the first sample of its source record. Other blockettes are dropped, sequence
+ * numbers are assigned anew.
+ * </p>
+ * <p>
+ * Samples keep the encoding of their source record, integers fall back to Steim2 if it is unknown. Records without
+ * samples, such as one carrying only a B500, are written on their own. ASCII records, e.g. of LOG channels, are not
+ * merged, their text is split over as many records as needed, each with the start time of the source record. Records
+ * in other encodings that cannot be decoded, such as CDSN or SRO, are not supported and fail the write.
+ * </p>
+ */
+public class RecordRepacker implements Closeable {
+
+    private final OutputStream outputStream;
+    private final int recordLength;
+    private final ByteOrder byteOrder;
+    // at least as many samples as fit into one record in any encoding, a record packed from more is full
+    private final int capacity;
+    private final Map<EncodingFormat, RecordPacker> packers = new EnumMap<>(EncodingFormat.class);
+    private final Map<Nslc, Segment> segments = new LinkedHashMap<>();
+    private final byte[] buffer;
+
+    private int sequence = 1;
+    private long recordsRead;
+    private long recordsWritten;
+
+    private RecordRepacker(RecordRepackerBuilder builder) {
+        this.outputStream = builder.outputStream;
+        this.recordLength = builder.recordLength;
+        this.byteOrder = builder.byteOrder;
+        this.capacity = 2 * recordLength;
+        this.buffer = new byte[recordLength];
+    }
+
+    public void write(DataRecord record) throws IOException {
+        Objects.requireNonNull(record);
+        EncodingFormat format = encodingFormat(record);
+        Object samples = samples(record, format);
+        if (samples == null) {
+            throw new IOException(new SeedException("Record {} has {} samples but none were decoded",
+                    record.getSequence(), record.getNumberOfSamples()));
+        }
+        recordsRead++;
+        try {
+            SeedDataHeader header = record.getHeader();
+            Nslc nslc = header.getNslc();
+            long start = header.getStart().toEpochNanos()
+                    + (record.getB1001() == null ? 0 : record.getB1001().getMicroSeconds() * 1000L);
+            Segment segment = segments.get(nslc);
+            if (segment != null && !segment.continues(record, format, start)) {
+                drain(segment);
+                segments.remove(nslc);
+                segment = null;
+            }
+            if (segment == null) {
+                segment = new Segment(record, format, start);
+                if (Array.getLength(samples) == 0) {
+                    // nothing to merge with, e.g. a record carrying only a B500
+                    drain(segment);
+                    return;
+                }
+                segments.put(nslc, segment);
+            }
+            segment.append(samples);
+            while (segment.size() >= capacity) {
+                pack(segment);
+            }
+        } catch (SeedException e) {
+            throw new IOException(e);
+        }
+    }
+
+    private static EncodingFormat encodingFormat(DataRecord record) {
+        if (record.getFloatSamples() != null) {
+            return EncodingFormat.FLOAT;
+        }
+        if (record.getDoubleSamples() != null) {
+            return EncodingFormat.DOUBLE;
+        }
+        if (record.getAsciiSamples() != null) {
+            return EncodingFormat.ASCII;
+        }
+        EncodingFormat format = record.getEncodingFormat();
+        return format != null && Codec.canEncode(format) ? format : EncodingFormat.STEIM2;
+    }
+
+    /**
+     * @return the samples as an array of the type format encodes, an empty one if the record has no samples, or null
+     * if they were not decoded
+     */
+    private static Object samples(DataRecord record, EncodingFormat format) {
+        switch (format) {
+            case FLOAT:
+                return record.getFloatSamples();
+            case DOUBLE:
+                return record.getDoubleSamples();
+            case ASCII:
+                return record.getAsciiSamples();
+            default:
+                if (record.getSamples() == null && record.getNumberOfSamples() == 0) {
+                    return new int[0];
+                }
+                return record.getSamples();
+        }
+    }
+
+    /**
+     * Writes the samples still collected as records, which may not be full, and flushes the output stream.
+     */
+    public void flush() throws IOException {
+        try {
+            for (Iterator<Segment> iterator = segments.values().iterator(); iterator.hasNext(); ) {
+                drain(iterator.next());
+                iterator.remove();
+            }
+        } catch (SeedException e) {
+            throw new IOException(e);
+        }
+        outputStream.flush();
+    }
+
+    private void drain(Segment segment) throws SeedException, IOException {
+        do {
+            pack(segment);
+        } while (segment.size() > 0);
+    }
+
+    /**
+     * Packs one record from the head of the segment.
+     */
+    private void pack(Segment segment) throws SeedException, IOException {
+        RecordPacker packer = packers.get(segment.format);
+        if (packer == null) {
+            packer = RecordPacker.builder().recordLength(recordLength).byteOrder(byteOrder)
+                    .encodingFormat(segment.format).build();
+            packers.put(segment.format, packer);
+        }
+        if (segment.packed > 0 && segment.sampleRate <= 0 && segment.format != EncodingFormat.ASCII) {
+            throw new SeedException("Cannot split samples over several records with sample rate {}",
+                    segment.sampleRate);
+        }
+        if (segment.packed > 0) {
+            packer.lastSampleFromPreviousRecord(segment.lastSample);
+        } else {
+            packer.resetLastSample();
+        }
+        BTime recordStart = BTime.ofEpochNanos(segment.timeOf(segment.packed));
+        int remainder = recordStart.getNano() % 100_000;
+        segment.template.setStart(recordStart.plusNanoSeconds(-remainder));
+        segment.template.setSequence(sequence);
+        segment.extension.setMicroSeconds(remainder / 1000);
+        int n = packer.pack(segment.template, segment.extension, segment.blockettes, segment.samples, segment.head,
+                segment.size(), buffer, 0);
+        if (n == 0 && segment.size() > 0) {
+            throw new SeedException("No samples fit into a {} byte record", recordLength);
+        }
+        outputStream.write(buffer, 0, recordLength);
+        recordsWritten++;
+        sequence = sequence == 999999 ? 1 : sequence + 1;
+        if (n > 0 && segment.samples instanceof int[]) {
+            segment.lastSample = ((int[]) segment.samples)[segment.head + n - 1];
+        }
+        segment.head += n;
+        segment.packed += n;
+        // a B500 belongs to the first record only
+        segment.blockettes.removeIf(blockette -> blockette.getType() == 500);
+    }
+
+    public long getRecordsRead() {
+        return recordsRead;
+    }
+
+    public long getRecordsWritten() {
+        return recordsWritten;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            outputStream.close();
+        }
+    }
+
+    public static RecordRepackerBuilder builder(OutputStream outputStream) {
+        return new RecordRepackerBuilder(outputStream);
+    }
+
+    public static class RecordRepackerBuilder {
+        private final OutputStream outputStream;
+        private int recordLength = 4096;
+        private ByteOrder byteOrder = ByteOrder.BIG_ENDIAN;
+
+        private RecordRepackerBuilder(OutputStream outputStream) {
+            this.outputStream = Objects.requireNonNull(outputStream, "outputStream cannot be null");
+        }
+
+        public RecordRepackerBuilder recordLength(int recordLength) {
+            if (recordLength < 256 || Integer.bitCount(recordLength) != 1) {
+                throw new IllegalArgumentException("Invalid record length " + recordLength
+                        + ", expected a power of two of at least 256");
+            }
+            this.recordLength = recordLength;
+            return this;
+        }
+
+        public RecordRepackerBuilder byteOrder(ByteOrder byteOrder) {
+            this.byteOrder = Objects.requireNonNull(byteOrder, "byteOrder cannot be null");
+            return this;
+        }
+
+        public RecordRepacker build() {
+            return new RecordRepacker(this);
+        }
+    }
+
+    /**
+     * Contiguous samples of one channel not yet packed, samples[head, tail) start packed samples after origin.
+     */
+    private static final class Segment {
+        private final SeedDataHeader template;
+        private final EncodingFormat format;
+        private final long originNanos;
+        private final double sampleRate;
+        private final B100 b100;
+        private final B1001 extension;
+        private final List<DataBlockette> blockettes = new ArrayList<>();
+        // int[], float[], double[] or byte[] of text as format encodes
+        private Object samples;
+        private int length;
+        private int head;
+        private int tail;
+        private long packed;
+        private int lastSample;
+
+        private Segment(DataRecord record, EncodingFormat format, long originNanos) throws SeedException {
+            this.template = record.getHeader().toBuilder().build();
+            this.format = format;
+            this.samples = allocate(format, 0);
+            this.originNanos = originNanos;
+            this.sampleRate = record.getSampleRate();
+            this.b100 = record.getB100();
+            this.extension = B1001.builder()
+                    .timingQuality(record.getB1001() == null ? 0 : record.getB1001().getTimingQuality()).build();
+            if (b100 != null) {
+                blockettes.add(b100);
+            }
+            blockettes.addAll(record.getAll(500));
+        }
+
+        private boolean continues(DataRecord record, EncodingFormat format, long start) {
+            SeedDataHeader header = record.getHeader();
+            if (this.format != format || format == EncodingFormat.ASCII || sampleRate <= 0
+                    || record.get(500) != null || header.getRecordType() != template.getRecordType()
+                    || header.getSampleRateFactor() != template.getSampleRateFactor()
+                    || header.getSampleRateMultiplier() != template.getSampleRateMultiplier()
+                    || header.getTimeCorrection() != template.getTimeCorrection()
+                    || header.getIoClockFlag() != template.getIoClockFlag()
+                    || !sameFlags(header.getActivityFlags(), template.getActivityFlags())
+                    || !sameFlags(header.getQualityIndicator(), template.getQualityIndicator())
+                    || (record.getB1001() == null ? 0 : record.getB1001().getTimingQuality())
+                    != extension.getTimingQuality()) {
+                return false;
+            }
+            B100 other = record.getB100();
+            if (b100 == null ? other != null
+                    : other == null || other.getActualSampleRate() != b100.getActualSampleRate()) {
+                return false;
+            }
+            return Math.abs(start - timeOf(packed + size())) <= 500_000_000d / sampleRate;
+        }
+
+        private static boolean sameFlags(SeedFlags a, SeedFlags b) {
+            return a == null ? b == null : b != null && a.toByte() == b.toByte();
+        }
+
+        private long timeOf(long index) {
+            if (index == 0 || sampleRate <= 0 || format == EncodingFormat.ASCII) {
+                return originNanos;
+            }
+            return originNanos + Math.round(index * 1_000_000_000d / sampleRate);
+        }
+
+        private int size() {
+            return tail - head;
+        }
+
+        private void append(Object values) {
+            int count = Array.getLength(values);
+            if (tail + count > length) {
+                int size = size();
+                if (size + count > length) {
+                    length = Math.max(2 * length, size + count);
+                    Object larger = allocate(format, length);
+                    System.arraycopy(samples, head, larger, 0, size);
+                    samples = larger;
+                } else {
+                    System.arraycopy(samples, head, samples, 0, size);
+                }
+                head = 0;
+                tail = size;
+            }
+            System.arraycopy(values, 0, samples, tail, count);
+            tail += count;
+        }
+
+        private static Object allocate(EncodingFormat format, int length) {
+            switch (format) {
+                case FLOAT:
+                    return new float[length];
+                case DOUBLE:
+                    return new double[length];
+                case ASCII:
+                    return new byte[length];
+                default:
+                    return new int[length];
+            }
+        }
+    }
+}
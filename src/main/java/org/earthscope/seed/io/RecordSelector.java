@@ -0,0 +1,217 @@
+package org.earthscope.seed.io;
+
+import org.earthscope.seed.SeedRecordType;
+import org.earthscope.seed.data.Nslc;
+import org.earthscope.seed.data.SeedDataHeaderView;
+import org.earthscope.seed.util.DateTimeUtil;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Selects records by channel, time window and quality code from their fixed header alone, so records that are not
+ * wanted can be skipped before their blockettes are parsed or their samples decoded.
+ * <p>
+ * Codes are glob patterns with {@code *} and {@code ?}, several patterns may be separated by commas and {@code --}
+ * stands for an empty location code. A record is selected if its time span intersects the time window, times are
+ * taken from the fixed header as is, without the B1001 microseconds or time correction.
+ * </p>
+ * <pre>
+ * RecordSelector selector = RecordSelector.builder().network("IU").station("ANMO").channel("BH?")
+ *         .start(start).end(end).build();
+ * try (RecordReader reader = new RecordReader(inputStream).select(selector)) {
+ *     ...
+ * }
+ * </pre>
+ */
+public class RecordSelector {
+
+    private final Pattern network;
+    private final Pattern station;
+    private final Pattern location;
+    private final Pattern channel;
+    private final long startNanos;
+    private final long endNanos;
+    // selected values of the record type and quality code byte, null selects all
+    private final boolean[] qualities;
+    private final Map<Nslc, Boolean> channels = new ConcurrentHashMap<>();
+
+    private RecordSelector(RecordSelectorBuilder builder) {
+        this.network = builder.network;
+        this.station = builder.station;
+        this.location = builder.location;
+        this.channel = builder.channel;
+        this.startNanos = builder.startNanos;
+        this.endNanos = builder.endNanos;
+        this.qualities = builder.qualities;
+    }
+
+    public boolean matches(SeedDataHeaderView header) {
+        Objects.requireNonNull(header, "header cannot be null");
+        if (qualities != null && !qualities[header.getRecordTypeCode() & 0x7F]) {
+            return false;
+        }
+        if (startNanos != Long.MIN_VALUE || endNanos != Long.MAX_VALUE) {
+            long start = header.getStartEpochNanos();
+            if (start > endNanos) {
+                return false;
+            }
+            long end = start + DateTimeUtil.toNanos(header.getNumberOfSamples() - 1, header.getSampleRate());
+            if (end < startNanos) {
+                return false;
+            }
+        }
+        return matches(header.getNslc());
+    }
+
+    /**
+     * @return true if the channel matches the code patterns, results are cached per channel
+     */
+    public boolean matches(Nslc nslc) {
+        Objects.requireNonNull(nslc, "nslc cannot be null");
+        if (network == null && station == null && location == null && channel == null) {
+            return true;
+        }
+        Boolean match = channels.get(nslc);
+        if (match == null) {
+            match = matches(network, nslc.getNetwork()) && matches(station, nslc.getStation())
+                    && matches(location, nslc.getLocation()) && matches(channel, nslc.getChannel());
+            channels.put(nslc, match);
+        }
+        return match;
+    }
+
+    private static boolean matches(Pattern pattern, String code) {
+        return pattern == null || pattern.matcher(code).matches();
+    }
+
+    /**
+     * @return the pattern of a comma separated list of code globs, null for null or * which match any code
+     */
+    public static Pattern glob(String glob) {
+        if (glob == null || glob.trim().equals("*")) {
+            return null;
+        }
+        StringBuilder regex = new StringBuilder();
+        for (String alternative : glob.split(",")) {
+            alternative = alternative.trim();
+            if (alternative.equals("--")) {
+                alternative = "";
+            }
+            if (regex.length() > 0) {
+                regex.append('|');
+            }
+            regex.append("(?:");
+            int literal = 0;
+            for (int i = 0; i < alternative.length(); i++) {
+                char c = alternative.charAt(i);
+                if (c == '*' || c == '?') {
+                    if (literal < i) {
+                        regex.append(Pattern.quote(alternative.substring(literal, i)));
+                    }
+                    regex.append(c == '*' ? ".*" : ".");
+                    literal = i + 1;
+                }
+            }
+            if (literal < alternative.length()) {
+                regex.append(Pattern.quote(alternative.substring(literal)));
+            }
+            regex.append(')');
+        }
+        return Pattern.compile(regex.toString());
+    }
+
+    public static RecordSelectorBuilder builder() {
+        return new RecordSelectorBuilder();
+    }
+
+    public static class RecordSelectorBuilder {
+        private Pattern network;
+        private Pattern station;
+        private Pattern location;
+        private Pattern channel;
+        private long startNanos = Long.MIN_VALUE;
+        private long endNanos = Long.MAX_VALUE;
+        private boolean[] qualities;
+
+        private RecordSelectorBuilder() {
+        }
+
+        public RecordSelectorBuilder network(String network) {
+            this.network = glob(network);
+            return this;
+        }
+
+        public RecordSelectorBuilder station(String station) {
+            this.station = glob(station);
+            return this;
+        }
+
+        public RecordSelectorBuilder location(String location) {
+            this.location = glob(location);
+            return this;
+        }
+
+        public RecordSelectorBuilder channel(String channel) {
+            this.channel = glob(channel);
+            return this;
+        }
+
+        public RecordSelectorBuilder start(Instant start) {
+            Objects.requireNonNull(start, "start cannot be null");
+            return startNanos(DateTimeUtil.toEpochNanos(start));
+        }
+
+        public RecordSelectorBuilder end(Instant end) {
+            Objects.requireNonNull(end, "end cannot be null");
+            return endNanos(DateTimeUtil.toEpochNanos(end));
+        }
+
+        public RecordSelectorBuilder startNanos(long startNanos) {
+            this.startNanos = startNanos;
+            return this;
+        }
+
+        public RecordSelectorBuilder endNanos(long endNanos) {
+            this.endNanos = endNanos;
+            return this;
+        }
+
+        /**
+         * Selects records with one of the quality codes, e.g. D, R, Q or M. Can be combined with
+         * {@link #recordType(SeedRecordType...)}, in miniSEED 2 both are the same header byte.
+         */
+        public RecordSelectorBuilder quality(char... codes) {
+            Objects.requireNonNull(codes, "codes cannot be null");
+            for (char code : codes) {
+                if (code > 0x7F) {
+                    throw new IllegalArgumentException("Invalid quality code " + code);
+                }
+                if (qualities == null) {
+                    qualities = new boolean[128];
+                }
+                qualities[code] = true;
+            }
+            return this;
+        }
+
+        public RecordSelectorBuilder recordType(SeedRecordType... types) {
+            Objects.requireNonNull(types, "types cannot be null");
+            for (SeedRecordType type : types) {
+                quality(type.valueAsChar());
+            }
+            return this;
+        }
+
+        public RecordSelector build() {
+            if (startNanos > endNanos) {
+                throw new IllegalArgumentException("Start " + DateTimeUtil.toInstant(startNanos) + " is after end "
+                        + DateTimeUtil.toInstant(endNanos));
+            }
+            return new RecordSelector(this);
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package org.earthscope.seed.io;
+
+import lombok.extern.slf4j.Slf4j;
+import org.earthscope.seed.BTime;
+import org.earthscope.seed.SeedException;
+import org.earthscope.seed.codec.Codec;
+import org.earthscope.seed.codec.EncodingFormat;
+import org.earthscope.seed.data.B1000;
+import org.earthscope.seed.data.B1001;
+import org.earthscope.seed.data.DataRecord;
+import org.earthscope.seed.data.SeedDataHeader;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteOrder;
+import java.util.Objects;
+
+/**
+ * Writes DataRecords as fixed length miniSEED records, splitting the samples of a DataRecord over as many records
+ * as needed. Unless configured otherwise the record length and encoding of the source record's B1000 are kept,
+ * falling back to 4096 byte STEIM2 records.
+ */
+@Slf4j
+public class RecordWriter implements Closeable {
+
+    private static final int DEFAULT_RECORD_LENGTH = 4096;
+
+    private final OutputStream outputStream;
+    private final ByteOrder byteOrder;
+    private final int recordLength;
+    private final EncodingFormat encodingFormat;
+
+    private RecordPacker packer;
+    private byte[] buffer;
+    private int sequence = 1;
+    private SeedDataHeader previousHeader;
+
+    public RecordWriter(OutputStream outputStream) {
+        this(outputStream, ByteOrder.BIG_ENDIAN);
+    }
+
+    public RecordWriter(OutputStream outputStream, ByteOrder byteOrder) {
+        this(outputStream, byteOrder, 0, null);
+    }
+
+    /**
+     * @param recordLength   length of the written records, 0 to keep the length of each source record
+     * @param encodingFormat encoding of the written records, null to keep the encoding of each source record
+     */
+    public RecordWriter(OutputStream outputStream, ByteOrder byteOrder, int recordLength,
+                        EncodingFormat encodingFormat) {
+        this.outputStream = Objects.requireNonNull(outputStream);
+        this.byteOrder = Objects.requireNonNull(byteOrder);
+        this.recordLength = recordLength;
+        this.encodingFormat = encodingFormat;
+    }
+
+    public void write(DataRecord dataRecord) throws IOException {
+        Objects.requireNonNull(dataRecord);
+        int[] samples = dataRecord.getSamples();
+        if (samples == null) {
+            throw new IOException(new SeedException("Record {} has no integer samples to encode",
+                    dataRecord.getSequence()));
+        }
+        write(dataRecord.getHeader(), dataRecord.getB1000(), dataRecord.getB1001(), samples, 0, samples.length);
+    }
+
+    /**
+     * Writes {@code samples[offset, offset+count)} starting at the header's start time, at least one record is
+     * written even if count is 0.
+     */
+    public void write(SeedDataHeader header, B1000 b1000, B1001 b1001, int[] samples, int offset, int count)
+            throws IOException {
+        Objects.requireNonNull(header);
+        try {
+            RecordPacker packer = packer(b1000);
+            if (!isSameChannel(previousHeader, header)) {
+                packer.resetLastSample();
+            }
+            SeedDataHeader template = header.toBuilder().build();
+            B1001 extension = B1001.builder().timingQuality(b1001 == null ? 0 : b1001.getTimingQuality()).build();
+            BTime start = header.getStart().plusMicroSecond(b1001 == null ? 0 : b1001.getMicroSeconds());
+            double sampleRate = header.getSampleRate();
+            int packed = 0;
+            do {
+                if (packed > 0 && sampleRate <= 0) {
+                    throw new SeedException("Cannot split samples over several records with sample rate {}",
+                            sampleRate);
+                }
+                BTime recordStart = packed == 0 ? start
+                        : start.plusNanoSeconds(Math.round(packed * 1_000_000_000d / sampleRate));
+                int remainder = recordStart.getNano() % 100_000;
+                template.setStart(recordStart.plusNanoSeconds(-remainder));
+                extension.setMicroSeconds(remainder / 1000);
+                template.setSequence(sequence);
+                int n = packer.pack(template, extension, samples, offset + packed, count - packed, buffer, 0);
+                outputStream.write(buffer, 0, packer.getRecordLength());
+                packed += n;
+                sequence = sequence == 999999 ? 1 : sequence + 1;
+            } while (packed < count);
+            previousHeader = header;
+        } catch (SeedException e) {
+            throw new IOException(e);
+        }
+    }
+
+    private RecordPacker packer(B1000 b1000) throws SeedException {
+        int length = recordLength;
+        if (length <= 0) {
+            length = b1000 == null ? DEFAULT_RECORD_LENGTH : 1 << b1000.getRecordLengthExponent();
+        }
+        EncodingFormat format = encodingFormat;
+        if (format == null) {
+            format = b1000 != null && Codec.canEncode(b1000.getEncodingFormat()) ? b1000.getEncodingFormat()
+                    : EncodingFormat.STEIM2;
+        }
+        if (packer == null || packer.getRecordLength() != length || packer.getEncodingFormat() != format) {
+            log.debug("Packing {} byte {} records", length, format);
+            packer = RecordPacker.builder().recordLength(length).byteOrder(byteOrder).encodingFormat(format).build();
+            buffer = new byte[length];
+        }
+        return packer;
+    }
+
+    private static boolean isSameChannel(SeedDataHeader previous, SeedDataHeader current) {
+        return previous != null && Objects.equals(previous.getNetwork(), current.getNetwork())
+                && Objects.equals(previous.getStation(), current.getStation())
+                && Objects.equals(previous.getLocation(), current.getLocation())
+                && Objects.equals(previous.getChannel(), current.getChannel());
+    }
+
+    public void flush() throws IOException {
+        outputStream.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        outputStream.close();
+    }
+}
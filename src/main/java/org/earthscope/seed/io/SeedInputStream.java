@@ -1,15 +1,20 @@
 package org.earthscope.seed.io;
 
 
+import org.earthscope.seed.BTime;
 import org.earthscope.seed.SeedException;
+import org.earthscope.seed.data.SeedDataHeaderView;
 import lombok.extern.slf4j.Slf4j;
 
 import java.io.BufferedInputStream;
 import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
+import java.util.Objects;
 import java.util.regex.Pattern;
 
 /**
@@ -23,10 +28,32 @@ import java.util.regex.Pattern;
 @Slf4j
 public class SeedInputStream implements AutoCloseable {
 
+    /**
+     * @deprecated headers are recognized at the byte level, kept for existing callers
+     */
+    @Deprecated
     public static Pattern headerPattern = Pattern.compile("^\\d{6}[VASTDRQM][\\s\\*]");
 
-    private int recordLength = -1;
-    int seq = 0;
+    /** smallest record length allowed by B1000, every record holds at least this many bytes */
+    static final int MIN_RECORD_LENGTH = 256;
+    private static final int MAX_EXPONENT = 20;
+    private static final int MAX_PROBE_LENGTH = 1 << 16;
+    private static final int COMPLETE = 0;
+    private static final int END = 1;
+    private static final int RETRY = 2;
+
+    private int fixedRecordLength = -1;
+    private byte[] probe = new byte[MIN_RECORD_LENGTH];
+    private byte[] transfer;
+    private byte[][] ring;
+    private int ringIndex;
+    private boolean tolerant;
+    private boolean resyncing;
+    private long skippedBytes;
+    private long skippedRecords;
+    private RecordSelector selector;
+    private SeedDataHeaderView selectorView;
+    private long unselectedRecords;
 
     private BufferedInputStream bufferedInputStream;
 
@@ -42,101 +69,505 @@ public class SeedInputStream implements AutoCloseable {
         }
     }
 
+    /**
+     * Uses a ring of size reusable arrays for {@link #read()} instead of allocating one per record. An array returned
+     * by read() is overwritten size reads later, so at most size records may be held at once. Arrays are reallocated
+     * only when the record length changes.
+     */
+    public SeedInputStream ring(int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Invalid ring size " + size);
+        }
+        this.ring = new byte[size][];
+        this.ringIndex = 0;
+        return this;
+    }
+
+    /**
+     * @return the bytes of the next record, null at the end of the stream. In ring mode the array is reused, see
+     * {@link #ring(int)}.
+     */
     public byte[] read() throws IOException, SeedException {
-        int length = getRecordLength();
-        if (length == -1) {
-            throw new SeedException("Invalid record length {}", length);
+        while (true) {
+            int length = next();
+            if (length < 0) {
+                return null;
+            }
+            byte[] bytes;
+            if (ring == null) {
+                bytes = new byte[length];
+            } else {
+                bytes = ring[ringIndex];
+                if (bytes == null || bytes.length != length) {
+                    bytes = new byte[length];
+                    ring[ringIndex] = bytes;
+                }
+            }
+            int status = finish(bytes, 0, length);
+            if (status == END) {
+                return null;
+            }
+            if (status == COMPLETE) {
+                if (ring != null) {
+                    ringIndex = (ringIndex + 1) % ring.length;
+                }
+                return bytes;
+            }
         }
-        byte[] bytes = new byte[length];
-        int n = 0;
-        boolean endOfFileException = false;
-        try {
-            while (n < length) {
-                int count = bufferedInputStream.read(bytes, n, length - n);
-                if (count < 0)
-                    throw new EOFException();
-                n += count;
+    }
+
+    public int read(byte[] dst) throws IOException, SeedException {
+        return read(dst, 0);
+    }
+
+    /**
+     * Reads the next record into dst starting at offset.
+     *
+     * @return the length of the record, -1 at the end of the stream
+     * @throws SeedException if the record does not fit, the stream is left at the start of the record so the call
+     *                       can be repeated with a larger array
+     */
+    public int read(byte[] dst, int offset) throws IOException, SeedException {
+        Objects.requireNonNull(dst, "dst cannot be null");
+        if (offset < 0 || offset > dst.length) {
+            throw new IndexOutOfBoundsException("Offset " + offset + " for array of length " + dst.length);
+        }
+        return read(dst, offset, dst.length - offset);
+    }
+
+    private int read(byte[] dst, int offset, int capacity) throws IOException, SeedException {
+        while (true) {
+            int length = next();
+            if (length < 0) {
+                return -1;
+            }
+            if (capacity < length) {
+                bufferedInputStream.reset();
+                throw new SeedException("Record of {} bytes does not fit in {} bytes", length, capacity);
+            }
+            int status = finish(dst, offset, length);
+            if (status == END) {
+                return -1;
+            }
+            if (status == COMPLETE) {
+                return length;
             }
-        } catch (EOFException e) {
-            endOfFileException=true;
         }
-        if (n < length) {
-            if (n <= 0) {
-                return null;
+    }
+
+    /**
+     * Reads the next record into dst at its position and advances the position past the record.
+     *
+     * @return the length of the record, -1 at the end of the stream
+     * @throws SeedException if the record does not fit in the remaining bytes of dst, the stream is left at the start
+     *                       of the record
+     */
+    public int read(ByteBuffer dst) throws IOException, SeedException {
+        Objects.requireNonNull(dst, "dst cannot be null");
+        int length;
+        if (dst.hasArray() && !dst.isReadOnly()) {
+            length = read(dst.array(), dst.arrayOffset() + dst.position(), dst.remaining());
+            if (length > 0) {
+                dst.position(dst.position() + length);
+            }
+            return length;
+        }
+        if (transfer == null) {
+            transfer = new byte[MIN_RECORD_LENGTH];
+        }
+        while (true) {
+            length = next();
+            if (length < 0) {
+                return -1;
+            }
+            if (dst.remaining() < length) {
+                bufferedInputStream.reset();
+                throw new SeedException("Record of {} bytes does not fit in {} bytes", length, dst.remaining());
+            }
+            if (transfer.length < length) {
+                transfer = new byte[length];
+            }
+            int status = finish(transfer, 0, length);
+            if (status == END) {
+                return -1;
+            }
+            if (status == COMPLETE) {
+                dst.put(transfer, 0, length);
+                return length;
+            }
+        }
+    }
+
+    /**
+     * Reads the first bytes of the next record into probe and works out its length, the mark is left at the start of
+     * the record.
+     *
+     * @return the record length or -1 at the end of the stream
+     */
+    private int next() throws IOException, SeedException {
+        while (true) {
+            bufferedInputStream.mark(MIN_RECORD_LENGTH);
+            int n = readFully(probe, 0, MIN_RECORD_LENGTH);
+            if (n < MIN_RECORD_LENGTH) {
+                if (!tolerant) {
+                    endOfStream(n);
+                } else if (n > 0 && !isNL(probe, n)) {
+                    skipped(n);
+                }
+                return -1;
+            }
+            int length;
+            if (!tolerant) {
+                length = lengthFromB1000(probe);
+                if (length < 0) {
+                    length = recordLengthWithoutB1000();
+                }
             } else {
-                // are we at end of file?
-                boolean isNL = isNL(bytes);
-                if (isNL &&endOfFileException){
-                    //if (isNL && bufferedInputStream.read(bytes) == -1) {
-                    return null;
-                } else {
-                    throw new SeedException("Reading record: Expected {} but received {}:{}", bytes.length, n,
-                            new String(bytes));
+                length = validLength(probe);
+                if (length < 0) {
+                    resync(n);
+                    continue;
                 }
+                resyncing = false;
             }
+            if (selector == null || selector.matches(selectorView.wrap(probe))) {
+                return length;
+            }
+            // the rest of the record is never read, on files this is a seek
+            skipFully(length - MIN_RECORD_LENGTH);
+            unselectedRecords++;
         }
-        /*
-         * int bytesRead = bufferedInputStream.read(bytes); if (bytesRead <
-         * bytes.length) { if (bytesRead <= 0) { return null; } else { // are we at end
-         * of file? boolean isNL = isNL(bytes); if (isNL &&
-         * bufferedInputStream.read(bytes) == -1) { return null; } else { throw new
-         * SeedException("Reading record: Expected {} but received {}:{}", bytes.length,
-         * bytesRead, new String(bytes)); } } }
-         */
-        return bytes;
     }
 
-    private boolean isNL(byte[] byteArray) {
-        if (byteArray.length == 0) {
-            return true;
-        }
-        for (int index = 0; index < byteArray.length; index++) {
-            if (Character.isLetterOrDigit(byteArray[index])) {
-                return false;
+    /**
+     * Skips to the next position in probe that looks like a fixed header with a sane start time, or to the last bytes
+     * of probe that could still begin one. A header too close to the end of probe for its start time to be checked is
+     * skipped to as well, it is checked when probed from its own offset.
+     */
+    private void resync(int n) throws IOException {
+        int skip = n - 7;
+        for (int i = 1; i < n - 7; i++) {
+            if (isHeader(probe, i) && (n - i < SeedDataHeaderView.LENGTH || hasValidTime(probe, i, n))) {
+                skip = i;
+                break;
             }
         }
-        return true;
+        bufferedInputStream.reset();
+        skipFully(skip);
+        skipped(skip);
     }
 
-    public int getRecordLength() throws IOException {
-        if (recordLength > 0) {
-            return recordLength;
+    private void skipped(int n) {
+        if (!resyncing) {
+            skippedRecords++;
+            resyncing = true;
         }
+        skippedBytes += n;
+        log.debug("Skipped {} bytes, {} in total", n, skippedBytes);
+    }
 
-        bufferedInputStream.mark(8);
-        byte[] bytes = new byte[8];
-        int bytesRead = bufferedInputStream.read(bytes);
-        if (bytesRead == -1) {
+    /**
+     * @return the record length if probe starts with a header with a sane start time and a valid B1000, otherwise -1
+     */
+    private static int validLength(byte[] bytes) {
+        if (!isHeader(bytes, 0) || !hasValidTime(bytes, 0, bytes.length)) {
             return -1;
         }
-        if (bytesRead < bytes.length) {
-            throw new IOException("Couldn't read enough bytes to determine length");
+        try {
+            return lengthFromB1000(bytes);
+        } catch (SeedException e) {
+            return -1;
+        }
+    }
+
+    private static boolean hasValidTime(byte[] bytes, int offset, int length) {
+        if (length - offset < SeedDataHeaderView.LENGTH) {
+            return false;
+        }
+        boolean bigEndian;
+        try {
+            bigEndian = BTime.determineByteOrder(bytes, offset + 20) == ByteOrder.BIG_ENDIAN;
+        } catch (SeedException e) {
+            return false;
+        }
+        int dayOfYear = getUnsignedShort(bytes, offset + 22, bigEndian);
+        int hour = bytes[offset + 24] & 0xFF;
+        int minute = bytes[offset + 25] & 0xFF;
+        int second = bytes[offset + 26] & 0xFF;
+        int tenthMilliSecond = getUnsignedShort(bytes, offset + 28, bigEndian);
+        return dayOfYear >= 1 && dayOfYear <= 366 && hour < 24 && minute < 60 && second <= 60
+                && tenthMilliSecond < 10000;
+    }
+
+    /**
+     * Reads the rest of the record after the probed bytes. In tolerant mode the record is also checked for the start
+     * of another record inside it, which means it was truncated, in that case its bytes are skipped and the stream is
+     * positioned at the embedded record.
+     *
+     * @return {@link #COMPLETE}, {@link #END} if the stream ended inside the record or {@link #RETRY} if the record
+     * was skipped; the last two only in tolerant mode
+     */
+    private int finish(byte[] dst, int offset, int length) throws IOException, SeedException {
+        if (tolerant) {
+            // allow going back into the record if it turns out to be truncated
+            bufferedInputStream.reset();
+            bufferedInputStream.mark(length);
+            skipFully(MIN_RECORD_LENGTH);
+        }
+        System.arraycopy(probe, 0, dst, offset, MIN_RECORD_LENGTH);
+        int n = MIN_RECORD_LENGTH + readFully(dst, offset + MIN_RECORD_LENGTH, length - MIN_RECORD_LENGTH);
+        if (!tolerant) {
+            if (n < length) {
+                throw new SeedException("Reading record: Expected {} but received {}", length, n);
+            }
+            return COMPLETE;
+        }
+        for (int i = offset + SeedDataHeaderView.LENGTH; i < offset + n - SeedDataHeaderView.LENGTH; i++) {
+            if (isHeader(dst, i) && hasValidTime(dst, i, offset + n)) {
+                bufferedInputStream.reset();
+                skipFully(i - offset);
+                skipped(i - offset);
+                return RETRY;
+            }
+        }
+        if (n < length) {
+            skipped(n);
+            return END;
+        }
+        return COMPLETE;
+    }
+
+    /**
+     * Returns only records selected by selector, the others are recognized from their fixed header and skipped
+     * without being read. Pass null to return all records again. Unselected records are not checked for truncation
+     * in tolerant mode.
+     */
+    public SeedInputStream select(RecordSelector selector) {
+        this.selector = selector;
+        if (selector != null && selectorView == null) {
+            selectorView = new SeedDataHeaderView();
+        }
+        return this;
+    }
+
+    /**
+     * @return the number of records skipped because the selector did not select them
+     */
+    public long getUnselectedRecords() {
+        return unselectedRecords;
+    }
+
+    /**
+     * In tolerant mode bytes that do not start a valid record are skipped until the next fixed header with a sane
+     * start time and a valid B1000, and a truncated last record ends the stream instead of failing. Records without
+     * B1000 are treated as corrupt in this mode.
+     */
+    public SeedInputStream tolerant(boolean tolerant) {
+        this.tolerant = tolerant;
+        return this;
+    }
+
+    public boolean isTolerant() {
+        return tolerant;
+    }
+
+    /**
+     * @return the number of bytes skipped in tolerant mode
+     */
+    public long getSkippedBytes() {
+        return skippedBytes;
+    }
+
+    /**
+     * @return the number of corrupt or truncated records skipped in tolerant mode, a run of consecutive skipped bytes
+     * counts as one
+     */
+    public long getSkippedRecords() {
+        return skippedRecords;
+    }
+
+    /**
+     * Handles a short read at the start of a record, trailing padding at the end of a file is not an error.
+     */
+    private void endOfStream(int n) throws SeedException {
+        if (n <= 0 || isNL(probe, n)) {
+            return;
+        }
+        throw new SeedException("Reading record: Expected at least {} but received {}:{}", MIN_RECORD_LENGTH, n,
+                new String(probe, 0, n, StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Record length for records without B1000, probed once by looking for the next header at doubling offsets and
+     * then assumed fixed for the rest of the stream. Called with the first {@link #MIN_RECORD_LENGTH} bytes of the
+     * record read and the mark at its start.
+     */
+    private int recordLengthWithoutB1000() throws IOException, SeedException {
+        if (!isHeader(probe, 0)) {
+            throw new SeedException("Invalid record header: {}",
+                    new String(probe, 0, 8, StandardCharsets.US_ASCII));
+        }
+        if (fixedRecordLength > 0) {
+            return fixedRecordLength;
         }
         bufferedInputStream.reset();
-        if (isBeginningOfNewRecord(bytes)) {
-            recordLength = 256;
-
-            for (;;) {
-                bufferedInputStream.mark(recordLength + 8);
-                bytes = new byte[recordLength + 8];
-                bufferedInputStream.read(bytes);
-                if (isBeginningOfNewRecord(Arrays.copyOfRange(bytes, bytes.length - 8, bytes.length))) {
-                    bufferedInputStream.reset();
-                    return recordLength;
+        bufferedInputStream.mark(MAX_PROBE_LENGTH + 8);
+        try {
+            int available = 0;
+            for (int length = MIN_RECORD_LENGTH; length <= MAX_PROBE_LENGTH; length *= 2) {
+                if (probe.length < length + 8) {
+                    probe = Arrays.copyOf(probe, length + 8);
+                }
+                available += readFully(probe, available, length + 8 - available);
+                if (available == length || (available > length && isHeader(probe, length))) {
+                    fixedRecordLength = length;
+                    return length;
+                }
+                if (available < length + 8) {
+                    break;
                 }
-                recordLength = recordLength * 2;
-                bufferedInputStream.reset();
             }
-        } else {
-            throw new IOException("Invalid input file.  Error calculating record's length!");
+        } finally {
+            bufferedInputStream.reset();
+            // the caller expects the first bytes of the record consumed, as before probing
+            bufferedInputStream.mark(MIN_RECORD_LENGTH);
+            skipFully(MIN_RECORD_LENGTH);
+        }
+        throw new IOException("Invalid input file.  Error calculating record's length!");
+    }
+
+    /**
+     * @return the record length from the B1000 found in the first {@link #MIN_RECORD_LENGTH} bytes of the record,
+     * -1 if there is none
+     */
+    static int lengthFromB1000(byte[] bytes) throws SeedException {
+        if (!isHeader(bytes, 0)) {
+            throw new SeedException("Invalid record header: {}",
+                    new String(bytes, 0, 8, StandardCharsets.US_ASCII));
+        }
+        boolean bigEndian = BTime.determineByteOrder(bytes, 20) == ByteOrder.BIG_ENDIAN;
+        int numberOfBlockettes = bytes[39] & 0xFF;
+        int offset = getUnsignedShort(bytes, 46, bigEndian);
+        for (int i = 0; i < numberOfBlockettes && offset >= SeedDataHeaderView.LENGTH
+                && offset + 8 <= MIN_RECORD_LENGTH; i++) {
+            if (getUnsignedShort(bytes, offset, bigEndian) == 1000) {
+                int exponent = bytes[offset + 6] & 0xFF;
+                if (exponent < 8 || exponent > MAX_EXPONENT) {
+                    throw new SeedException("Invalid record length exponent {}", exponent);
+                }
+                return 1 << exponent;
+            }
+            int next = getUnsignedShort(bytes, offset + 2, bigEndian);
+            if (next <= offset) {
+                break;
+            }
+            offset = next;
+        }
+        return -1;
+    }
+
+    private static int getUnsignedShort(byte[] bytes, int offset, boolean bigEndian) {
+        int b0 = bytes[offset] & 0xFF;
+        int b1 = bytes[offset + 1] & 0xFF;
+        return bigEndian ? b0 << 8 | b1 : b1 << 8 | b0;
+    }
+
+    /**
+     * Byte level check for the start of a fixed header: six digit sequence number, record type and a space or
+     * asterisk.
+     */
+    static boolean isHeader(byte[] bytes, int offset) {
+        if (bytes.length - offset < 8) {
+            return false;
+        }
+        for (int i = offset; i < offset + 6; i++) {
+            if (bytes[i] < '0' || bytes[i] > '9') {
+                return false;
+            }
         }
+        switch (bytes[offset + 6]) {
+            case 'V': case 'A': case 'S': case 'T': case 'D': case 'R': case 'Q': case 'M':
+                break;
+            default:
+                return false;
+        }
+        byte reserved = bytes[offset + 7];
+        return reserved == ' ' || reserved == '*' || reserved == '\t' || reserved == '\n' || reserved == '\r';
     }
 
-    private boolean isBeginningOfNewRecord(byte[] bytes) {
-        if (headerPattern.matcher(new String(bytes, StandardCharsets.US_ASCII)).find()) {
-            return true;
+    private int readFully(byte[] bytes, int offset, int length) throws IOException {
+        int n = 0;
+        while (n < length) {
+            int count = bufferedInputStream.read(bytes, offset + n, length - n);
+            if (count < 0) {
+                break;
+            }
+            n += count;
+        }
+        return n;
+    }
+
+    private void skipFully(int length) throws IOException {
+        int n = 0;
+        while (n < length) {
+            long count = bufferedInputStream.skip(length - n);
+            if (count <= 0) {
+                throw new EOFException();
+            }
+            n += count;
+        }
+    }
+
+    private boolean isNL(byte[] byteArray, int length) {
+        for (int index = 0; index < length; index++) {
+            if (Character.isLetterOrDigit(byteArray[index])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the length of the next record without consuming it, -1 at the end of the stream. The length of every
+     * record is determined separately, from its B1000 when present, so files may mix record lengths.
+     */
+    public int getRecordLength() throws IOException {
+        if (tolerant) {
+            try {
+                int length = next();
+                if (length > 0) {
+                    bufferedInputStream.reset();
+                }
+                return length;
+            } catch (SeedException e) {
+                throw new IOException(e);
+            }
+        }
+        bufferedInputStream.mark(MIN_RECORD_LENGTH);
+        try {
+            int n = readFully(probe, 0, MIN_RECORD_LENGTH);
+            if (n == 0) {
+                return -1;
+            }
+            if (n < 8) {
+                throw new IOException("Couldn't read enough bytes to determine length");
+            }
+            if (n < MIN_RECORD_LENGTH) {
+                if (isNL(probe, n)) {
+                    return -1;
+                }
+                throw new IOException("Couldn't read enough bytes to determine length");
+            }
+            int length = lengthFromB1000(probe);
+            if (length < 0) {
+                length = recordLengthWithoutB1000();
+            }
+            return length;
+        } catch (SeedException e) {
+            throw new IOException("Invalid input file.  Error calculating record's length!", e);
+        } finally {
+            bufferedInputStream.reset();
         }
-        return false;
     }
 
     @Override
@@ -152,16 +583,12 @@ public class SeedInputStream implements AutoCloseable {
 
     public boolean detect() throws IOException {
         bufferedInputStream.mark(8);
-        byte[] bytes = new byte[8];
-        int bytesRead = bufferedInputStream.read(bytes);
-        if (bytesRead == -1) {
-            throw new IOException("Couldn't read enough bytes to determine length");
-        }
-        if (bytesRead < bytes.length) {
+        int bytesRead = readFully(probe, 0, 8);
+        bufferedInputStream.reset();
+        if (bytesRead < 8) {
             throw new IOException("Couldn't read enough bytes to determine length");
         }
-        bufferedInputStream.reset();
-        return isBeginningOfNewRecord(bytes);
+        return isHeader(probe, 0);
     }
 }
 
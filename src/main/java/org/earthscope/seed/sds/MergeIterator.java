@@ -0,0 +1,138 @@
+package org.earthscope.seed.sds;
+
+import lombok.extern.slf4j.Slf4j;
+import org.earthscope.seed.data.DataRecord;
+import org.earthscope.seed.io.RecordReader;
+import org.earthscope.seed.io.RecordSelector;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+
+/**
+ * K-way merge by start time of the records of day files sorted by day. A file is opened once the earliest record
+ * still to be returned does not start before its day, so only the files of about one day are open at a time.
+ */
+@Slf4j
+class MergeIterator implements Iterator<DataRecord>, Closeable {
+
+    private final Deque<SdsArchive.DayFile> pending;
+    private final RecordSelector selector;
+    private final PriorityQueue<Source> sources = new PriorityQueue<>((a, b) -> {
+        int c = Long.compare(a.startNanos, b.startNanos);
+        return c != 0 ? c : Integer.compare(a.order, b.order);
+    });
+    private int opened;
+
+    MergeIterator(List<SdsArchive.DayFile> files, RecordSelector selector) {
+        this.pending = new ArrayDeque<>(files);
+        this.selector = selector;
+    }
+
+    @Override
+    public boolean hasNext() {
+        try {
+            openDue();
+        } catch (IOException e) {
+            close();
+            throw new UncheckedIOException(e);
+        }
+        return !sources.isEmpty();
+    }
+
+    @Override
+    public DataRecord next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        Source source = sources.poll();
+        DataRecord record = source.record;
+        try {
+            if (source.advance()) {
+                sources.add(source);
+            }
+        } catch (IOException e) {
+            close();
+            throw new UncheckedIOException(e);
+        }
+        return record;
+    }
+
+    /**
+     * Opens the pending files whose day starts no later than the earliest record queued, records of later days cannot
+     * come before it.
+     */
+    private void openDue() throws IOException {
+        while (!pending.isEmpty()
+                && (sources.isEmpty() || pending.peekFirst().dayStartNanos <= sources.peek().startNanos)) {
+            SdsArchive.DayFile file = pending.pollFirst();
+            log.debug("Opening {}", file.path);
+            Source source = new Source(file, opened++);
+            if (source.advance()) {
+                sources.add(source);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        pending.clear();
+        for (Source source : sources) {
+            source.close();
+        }
+        sources.clear();
+    }
+
+    private class Source {
+        private final SdsArchive.DayFile file;
+        private final int order;
+        private RecordReader reader;
+        private DataRecord record;
+        private long startNanos;
+
+        Source(SdsArchive.DayFile file, int order) throws IOException {
+            this.file = file;
+            this.order = order;
+            this.reader = new RecordReader(new BufferedInputStream(Files.newInputStream(file.path), 1 << 16))
+                    .select(selector);
+        }
+
+        /**
+         * @return false and closes the file if it has no more records
+         */
+        boolean advance() throws IOException {
+            try {
+                record = reader.read();
+            } catch (IOException | RuntimeException e) {
+                close();
+                throw new IOException("Reading " + file.path + ": " + e.getMessage(), e);
+            }
+            if (record == null) {
+                close();
+                return false;
+            }
+            startNanos = record.getStartTimeNanos();
+            return true;
+        }
+
+        void close() {
+            if (reader == null) {
+                return;
+            }
+            try {
+                reader.close();
+            } catch (IOException e) {
+                log.warn("Closing {}: {}", file.path, e.getMessage());
+            }
+            reader = null;
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package org.earthscope.seed.sds;
+
+import org.earthscope.seed.data.DataRecord;
+import org.earthscope.seed.data.Nslc;
+import org.earthscope.seed.io.RecordSelector;
+import org.earthscope.seed.util.DateTimeUtil;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A SeisComP Data Structure (SDS) archive, one file of data records per channel and day laid out as
+ * {@code YEAR/NET/STA/CHAN.D/NET.STA.LOC.CHAN.D.YEAR.DAY}.
+ * <p>
+ * A query is resolved to the day files of the matching channels, codes may be glob patterns as in
+ * {@link RecordSelector}. The records of all files come back as one stream ordered by start time, merged from the
+ * files which are opened only when the merge reaches their day and closed once read. Every record of a day file is
+ * expected to start on or after that day, and records within a file in time order. Records ending in the time window
+ * that start on the previous day are found in the previous day file, which is included.
+ * </p>
+ * <pre>
+ * SdsArchive archive = new SdsArchive(root);
+ * try (Stream&lt;DataRecord&gt; records = archive.read("IU", "ANMO", "00", "BH?", start, end)) {
+ *     ...
+ * }
+ * </pre>
+ */
+public class SdsArchive {
+
+    static final char DATA_TYPE = 'D';
+
+    private final Path root;
+
+    public SdsArchive(Path root) {
+        this.root = Objects.requireNonNull(root, "root cannot be null");
+    }
+
+    public Path getRoot() {
+        return root;
+    }
+
+    /**
+     * @return the path of the day file of a channel, whether or not it exists
+     */
+    public Path path(Nslc nslc, int year, int dayOfYear) {
+        Objects.requireNonNull(nslc, "nslc cannot be null");
+        return root.resolve(Integer.toString(year)).resolve(nslc.getNetwork()).resolve(nslc.getStation())
+                .resolve(nslc.getChannel() + "." + DATA_TYPE)
+                .resolve(fileName(nslc.getNetwork(), nslc.getStation(), nslc.getLocation(), nslc.getChannel(), year,
+                        dayOfYear));
+    }
+
+    private static String fileName(String network, String station, String location, String channel, int year,
+                                   int dayOfYear) {
+        return network + "." + station + "." + location + "." + channel + "." + DATA_TYPE + "." + year + "."
+                + String.format("%03d", dayOfYear);
+    }
+
+    /**
+     * @return the existing day files of the matching channels that may hold records of [start, end], ordered by day
+     */
+    public List<Path> files(String network, String station, String location, String channel, Instant start,
+                            Instant end) throws IOException {
+        List<DayFile> files = dayFiles(network, station, location, channel, start, end);
+        List<Path> paths = new ArrayList<>(files.size());
+        for (DayFile file : files) {
+            paths.add(file.path);
+        }
+        return paths;
+    }
+
+    /**
+     * @return the records of the matching channels that intersect [start, end] ordered by start time, close the
+     * stream to close the files still open
+     */
+    public Stream<DataRecord> read(String network, String station, String location, String channel, Instant start,
+                                   Instant end) throws IOException {
+        RecordSelector selector = RecordSelector.builder().network(network).station(station).location(location)
+                .channel(channel).start(start).end(end).build();
+        MergeIterator iterator = new MergeIterator(dayFiles(network, station, location, channel, start, end),
+                selector);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator,
+                Spliterator.ORDERED | Spliterator.NONNULL), false).onClose(iterator::close);
+    }
+
+    private List<DayFile> dayFiles(String network, String station, String location, String channel, Instant start,
+                                   Instant end) throws IOException {
+        Objects.requireNonNull(start, "start cannot be null");
+        Objects.requireNonNull(end, "end cannot be null");
+        if (start.isAfter(end)) {
+            throw new IllegalArgumentException("Start " + start + " is after end " + end);
+        }
+        Pattern locations = RecordSelector.glob(location);
+        LocalDate first = LocalDate.ofInstant(start, ZoneOffset.UTC).minusDays(1);
+        LocalDate last = LocalDate.ofInstant(end, ZoneOffset.UTC);
+        List<DayFile> files = new ArrayList<>();
+        for (int year = first.getYear(); year <= last.getYear(); year++) {
+            int firstDay = year == first.getYear() ? first.getDayOfYear() : 1;
+            int lastDay = year == last.getYear() ? last.getDayOfYear() : LocalDate.of(year, 12, 31).getDayOfYear();
+            for (Path networkDirectory : children(root.resolve(Integer.toString(year)), network)) {
+                for (Path stationDirectory : children(networkDirectory, station)) {
+                    for (Path channelDirectory : children(stationDirectory, channel, "." + DATA_TYPE)) {
+                        collect(channelDirectory, locations, year, firstDay, lastDay, files);
+                    }
+                }
+            }
+        }
+        files.sort(Comparator.comparingLong((DayFile file) -> file.dayStartNanos).thenComparing(file -> file.path));
+        return files;
+    }
+
+    private static void collect(Path channelDirectory, Pattern locations, int year, int firstDay, int lastDay,
+                                List<DayFile> files) throws IOException {
+        String suffix = "." + DATA_TYPE + "." + year + ".";
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(channelDirectory)) {
+            for (Path path : stream) {
+                String[] parts = path.getFileName().toString().split("\\.", -1);
+                // NET.STA.LOC.CHAN.D.YEAR.DAY
+                if (parts.length != 7 || !path.getFileName().toString().contains(suffix)
+                        || parts[6].length() != 3 || !Files.isRegularFile(path)) {
+                    continue;
+                }
+                int day;
+                try {
+                    day = Integer.parseInt(parts[6]);
+                } catch (NumberFormatException e) {
+                    continue;
+                }
+                if (day < firstDay || day > lastDay || (locations != null && !locations.matcher(parts[2]).matches())) {
+                    continue;
+                }
+                long dayStart = DateTimeUtil.toEpochNanos(
+                        LocalDate.ofYearDay(year, day).atStartOfDay(ZoneOffset.UTC).toInstant());
+                files.add(new DayFile(path, dayStart));
+            }
+        }
+    }
+
+    private static List<Path> children(Path directory, String glob) throws IOException {
+        return children(directory, glob, "");
+    }
+
+    /**
+     * @return the sub directories of directory named after a code matching glob followed by suffix, a glob without
+     * wildcards is resolved without listing the directory
+     */
+    private static List<Path> children(Path directory, String glob, String suffix) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return Collections.emptyList();
+        }
+        if (glob != null && !glob.isEmpty() && glob.chars().noneMatch(c -> c == '*' || c == '?' || c == ',')) {
+            Path child = directory.resolve(glob + suffix);
+            return Files.isDirectory(child) ? Collections.singletonList(child) : Collections.emptyList();
+        }
+        Pattern pattern = RecordSelector.glob(glob);
+        List<Path> children = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, Files::isDirectory)) {
+            for (Path child : stream) {
+                String name = child.getFileName().toString();
+                if (name.endsWith(suffix) && (pattern == null
+                        || pattern.matcher(name.substring(0, name.length() - suffix.length())).matches())) {
+                    children.add(child);
+                }
+            }
+        }
+        return children;
+    }
+
+    static final class DayFile {
+        final Path path;
+        final long dayStartNanos;
+
+        DayFile(Path path, long dayStartNanos) {
+            this.path = path;
+            this.dayStartNanos = dayStartNanos;
+        }
+    }
+}
@@ -0,0 +1,395 @@
+package org.earthscope.seed.sds;
+
+import lombok.extern.slf4j.Slf4j;
+import org.earthscope.seed.BTime;
+import org.earthscope.seed.SeedException;
+import org.earthscope.seed.codec.Codec;
+import org.earthscope.seed.codec.EncodingFormat;
+import org.earthscope.seed.data.B1000;
+import org.earthscope.seed.data.B1001;
+import org.earthscope.seed.data.DataBlockette;
+import org.earthscope.seed.data.DataRecord;
+import org.earthscope.seed.data.Nslc;
+import org.earthscope.seed.data.SeedDataHeader;
+import org.earthscope.seed.data.SeedDataHeaderView;
+import org.earthscope.seed.io.RecordPacker;
+import org.earthscope.seed.io.RecordParser;
+import org.earthscope.seed.util.DateTimeUtil;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Appends records to the day files of an SDS archive, see {@link SdsArchive}. Records of many channels may arrive
+ * interleaved: the day files written to recently are kept open, up to maxOpenFiles, and the least recently used one is
+ * flushed and closed to make room. Bytes are collected per file and written batchSize at a time.
+ * <p>
+ * Raw records are appended as they are. A record whose samples cross midnight is decoded and split into one record
+ * per day, keeping its record length, encoding, sequence number and B100; a B500 stays with the first piece, other
+ * blockettes are dropped. DataRecords are always encoded, like {@link org.earthscope.seed.io.RecordWriter} does. A
+ * writer is not thread safe.
+ * </p>
+ * <pre>
+ * try (SdsWriter writer = SdsWriter.builder(root).maxOpenFiles(1024).build()) {
+ *     byte[] bytes;
+ *     while ((bytes = seedInputStream.read()) != null) {
+ *         writer.write(bytes);
+ *     }
+ * }
+ * </pre>
+ */
+@Slf4j
+public class SdsWriter implements Closeable {
+
+    private static final long NANOS_PER_DAY = 86_400_000_000_000L;
+    private static final int DEFAULT_RECORD_LENGTH = 4096;
+
+    private final SdsArchive archive;
+    private final int batchSize;
+    private final LinkedHashMap<DayKey, DayFile> files;
+    private final SeedDataHeaderView view = new SeedDataHeaderView();
+    private final RecordParser parser = new RecordParser();
+    private RecordPacker packer;
+    private byte[] buffer;
+    private IOException evictionFailure;
+    private long splitRecords;
+
+    private SdsWriter(SdsWriterBuilder builder) {
+        this.archive = new SdsArchive(builder.root);
+        this.batchSize = builder.batchSize;
+        int maxOpenFiles = builder.maxOpenFiles;
+        this.files = new LinkedHashMap<DayKey, DayFile>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<DayKey, DayFile> eldest) {
+                if (size() <= maxOpenFiles) {
+                    return false;
+                }
+                try {
+                    eldest.getValue().close();
+                } catch (IOException e) {
+                    evictionFailure = e;
+                }
+                return true;
+            }
+        };
+    }
+
+    public void write(byte[] bytes) throws IOException {
+        Objects.requireNonNull(bytes, "bytes cannot be null");
+        write(bytes, bytes.length);
+    }
+
+    /**
+     * Appends the record held in the first length bytes of bytes, which may be a reused buffer.
+     */
+    public void write(byte[] bytes, int length) throws IOException {
+        Objects.requireNonNull(bytes, "bytes cannot be null");
+        try {
+            view.wrap(bytes, 0);
+            long start = view.getStartEpochNanos();
+            int b1001 = view.findBlockette(1001);
+            if (b1001 > 0 && b1001 + 6 <= length) {
+                start += bytes[b1001 + 5] * 1000L;
+            }
+            long end = start + DateTimeUtil.toNanos(view.getNumberOfSamples() - 1,
+                    view.getActualSampleRate());
+            if (Math.floorDiv(start, NANOS_PER_DAY) == Math.floorDiv(end, NANOS_PER_DAY)) {
+                append(view.getNslc(), Math.floorDiv(start, NANOS_PER_DAY), bytes, length);
+                return;
+            }
+            DataRecord record = parser.parse(bytes, length);
+            if (record.getSamples() == null) {
+                log.warn("Cannot split record {} of {} at midnight, its samples are not integers",
+                        record.getSequence(), view.getNslc());
+                append(view.getNslc(), Math.floorDiv(start, NANOS_PER_DAY), bytes, length);
+                return;
+            }
+            write(record);
+        } catch (SeedException e) {
+            throw new IOException(e);
+        }
+    }
+
+    /**
+     * Encodes record into the day files it covers, split at midnight if needed.
+     */
+    public void write(DataRecord record) throws IOException {
+        Objects.requireNonNull(record, "record cannot be null");
+        int[] samples = record.getSamples();
+        if (samples == null) {
+            throw new IOException(new SeedException("Record {} has no integer samples to encode",
+                    record.getSequence()));
+        }
+        SeedDataHeader header = record.getHeader();
+        B1001 b1001 = record.getB1001();
+        long start = record.getStartTimeNanos() + (b1001 == null ? 0 : b1001.getMicroSeconds() * 1000L);
+        double sampleRate = record.getSampleRate();
+        List<DataBlockette> blockettes = new ArrayList<>();
+        if (record.getB100() != null) {
+            blockettes.add(record.getB100());
+        }
+        blockettes.addAll(record.getAll(500));
+        int from = 0;
+        do {
+            long day = Math.floorDiv(start + DateTimeUtil.toNanos(from, sampleRate), NANOS_PER_DAY);
+            int to = samples.length;
+            if (sampleRate > 0 && samples.length > 0) {
+                to = firstSampleAtOrAfter((day + 1) * NANOS_PER_DAY, start, sampleRate, from, samples.length);
+            }
+            if (from == 0 && to < samples.length) {
+                splitRecords++;
+            }
+            pack(header, record.getB1000(), b1001, blockettes, samples, from, to, start, sampleRate, day);
+            from = to;
+        } while (from < samples.length);
+    }
+
+    private static int firstSampleAtOrAfter(long time, long start, double sampleRate, int from, int count) {
+        long k = (long) Math.ceil((time - start) / 1e9 * sampleRate);
+        int index = (int) Math.max(from + 1, Math.min(count, k));
+        while (index > from + 1 && start + DateTimeUtil.toNanos(index - 1, sampleRate) >= time) {
+            index--;
+        }
+        while (index < count && start + DateTimeUtil.toNanos(index, sampleRate) < time) {
+            index++;
+        }
+        return index;
+    }
+
+    /**
+     * Packs {@code samples[from, to)} into records of the source record length and encoding carrying blockettes, a
+     * B500 is removed from blockettes once written so it stays with the first record.
+     */
+    private void pack(SeedDataHeader header, B1000 b1000, B1001 b1001, List<DataBlockette> blockettes, int[] samples,
+                      int from, int to, long start, double sampleRate, long day) throws IOException {
+        try {
+            RecordPacker packer = packer(b1000, header.getByteOrder());
+            packer.resetLastSample();
+            SeedDataHeader template = header.toBuilder().build();
+            B1001 extension = B1001.builder().timingQuality(b1001 == null ? 0 : b1001.getTimingQuality()).build();
+            Nslc nslc = header.getNslc();
+            int packed = from;
+            do {
+                long recordStart = start + DateTimeUtil.toNanos(packed, sampleRate);
+                int remainder = (int) Math.floorMod(recordStart, 100_000L);
+                template.setStart(BTime.ofEpochNanos(recordStart - remainder));
+                extension.setMicroSeconds(remainder / 1000);
+                template.setSequence(header.getSequence());
+                int n = packer.pack(template, extension, blockettes, samples, packed, to - packed, buffer, 0);
+                append(nslc, day, buffer, packer.getRecordLength());
+                blockettes.removeIf(blockette -> blockette.getType() == 500);
+                packed += n;
+                if (n == 0 && packed < to) {
+                    throw new SeedException("No samples fit into a {} byte record", packer.getRecordLength());
+                }
+            } while (packed < to);
+        } catch (SeedException e) {
+            throw new IOException(e);
+        }
+    }
+
+    private RecordPacker packer(B1000 b1000, ByteOrder byteOrder) throws SeedException {
+        int length = b1000 == null ? DEFAULT_RECORD_LENGTH : 1 << b1000.getRecordLengthExponent();
+        EncodingFormat format = b1000 != null && Codec.canEncode(b1000.getEncodingFormat())
+                ? b1000.getEncodingFormat() : EncodingFormat.STEIM2;
+        if (byteOrder == null) {
+            byteOrder = ByteOrder.BIG_ENDIAN;
+        }
+        if (packer == null || packer.getRecordLength() != length || packer.getEncodingFormat() != format
+                || packer.getByteOrder() != byteOrder) {
+            packer = RecordPacker.builder().recordLength(length).byteOrder(byteOrder).encodingFormat(format).build();
+            buffer = new byte[length];
+        }
+        return packer;
+    }
+
+    private void append(Nslc nslc, long epochDay, byte[] bytes, int length) throws IOException {
+        DayKey key = new DayKey(nslc, epochDay);
+        DayFile file = files.get(key);
+        if (file == null) {
+            LocalDate date = LocalDate.ofEpochDay(epochDay);
+            file = new DayFile(archive.path(nslc, date.getYear(), date.getDayOfYear()), batchSize);
+            files.put(key, file);
+            if (evictionFailure != null) {
+                IOException e = evictionFailure;
+                evictionFailure = null;
+                throw e;
+            }
+        }
+        file.append(bytes, length);
+    }
+
+    /**
+     * @return the number of records split at midnight
+     */
+    public long getSplitRecords() {
+        return splitRecords;
+    }
+
+    /**
+     * @return the number of day files currently open
+     */
+    public int getOpenFiles() {
+        return files.size();
+    }
+
+    /**
+     * Writes the collected bytes of every open file.
+     */
+    public void flush() throws IOException {
+        for (DayFile file : files.values()) {
+            file.flush();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        IOException failure = null;
+        for (Iterator<DayFile> iterator = files.values().iterator(); iterator.hasNext(); ) {
+            DayFile file = iterator.next();
+            iterator.remove();
+            try {
+                file.close();
+            } catch (IOException e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    public static SdsWriterBuilder builder(Path root) {
+        return new SdsWriterBuilder(root);
+    }
+
+    public static class SdsWriterBuilder {
+        private final Path root;
+        private int maxOpenFiles = 256;
+        private int batchSize = 1 << 16;
+
+        private SdsWriterBuilder(Path root) {
+            this.root = Objects.requireNonNull(root, "root cannot be null");
+        }
+
+        public SdsWriterBuilder maxOpenFiles(int maxOpenFiles) {
+            if (maxOpenFiles <= 0) {
+                throw new IllegalArgumentException("Invalid number of open files " + maxOpenFiles);
+            }
+            this.maxOpenFiles = maxOpenFiles;
+            return this;
+        }
+
+        /**
+         * @param batchSize bytes collected per open file before they are written
+         */
+        public SdsWriterBuilder batchSize(int batchSize) {
+            if (batchSize <= 0) {
+                throw new IllegalArgumentException("Invalid batch size " + batchSize);
+            }
+            this.batchSize = batchSize;
+            return this;
+        }
+
+        public SdsWriter build() {
+            return new SdsWriter(this);
+        }
+    }
+
+    private static final class DayKey {
+        private final Nslc nslc;
+        private final long epochDay;
+
+        DayKey(Nslc nslc, long epochDay) {
+            this.nslc = nslc;
+            this.epochDay = epochDay;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof DayKey)) {
+                return false;
+            }
+            DayKey other = (DayKey) o;
+            return epochDay == other.epochDay && nslc.equals(other.nslc);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * nslc.hashCode() + Long.hashCode(epochDay);
+        }
+    }
+
+    private static final class DayFile {
+        private final Path path;
+        private final ByteBuffer batch;
+        private FileChannel channel;
+
+        DayFile(Path path, int batchSize) {
+            this.path = path;
+            this.batch = ByteBuffer.allocate(batchSize);
+        }
+
+        void append(byte[] bytes, int length) throws IOException {
+            if (length > batch.remaining()) {
+                flush();
+                if (length > batch.capacity()) {
+                    write(ByteBuffer.wrap(bytes, 0, length));
+                    return;
+                }
+            }
+            batch.put(bytes, 0, length);
+        }
+
+        void flush() throws IOException {
+            if (batch.position() == 0) {
+                return;
+            }
+            batch.flip();
+            write(batch);
+            batch.clear();
+        }
+
+        private void write(ByteBuffer bytes) throws IOException {
+            if (channel == null) {
+                Files.createDirectories(path.getParent());
+                channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                        StandardOpenOption.APPEND);
+            }
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+        }
+
+        void close() throws IOException {
+            try {
+                flush();
+            } finally {
+                if (channel != null) {
+                    channel.close();
+                    channel = null;
+                }
+            }
+        }
+    }
+}
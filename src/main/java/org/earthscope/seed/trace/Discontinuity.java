@@ -0,0 +1,58 @@
+package org.earthscope.seed.trace;
+
+import lombok.Getter;
+import org.earthscope.seed.util.DateTimeUtil;
+
+import java.time.Instant;
+
+/**
+ * A gap or overlap between the end of a segment and the next record of the same channel.
+ */
+@Getter
+public class Discontinuity {
+
+    public enum Type {
+        GAP, OVERLAP
+    }
+
+    private final Type type;
+    private final String network;
+    private final String station;
+    private final String location;
+    private final String channel;
+    /** when the next sample was expected, nanoseconds since the epoch */
+    private final long expectedNanos;
+    /** when the next record actually starts, nanoseconds since the epoch */
+    private final long actualNanos;
+
+    Discontinuity(Type type, TraceSegment segment, long actualNanos) {
+        this.type = type;
+        this.network = segment.getNetwork();
+        this.station = segment.getStation();
+        this.location = segment.getLocation();
+        this.channel = segment.getChannel();
+        this.expectedNanos = segment.getExpectedNextSampleTimeNanos();
+        this.actualNanos = actualNanos;
+    }
+
+    /**
+     * @return the size of the gap or overlap in nanoseconds, always positive
+     */
+    public long getDurationNanos() {
+        return Math.abs(actualNanos - expectedNanos);
+    }
+
+    public Instant getExpectedTime() {
+        return DateTimeUtil.toInstant(expectedNanos);
+    }
+
+    public Instant getActualTime() {
+        return DateTimeUtil.toInstant(actualNanos);
+    }
+
+    @Override
+    public String toString() {
+        return type + " [" + network + "." + station + "." + location + "." + channel + ", expected="
+                + getExpectedTime() + ", actual=" + getActualTime() + "]";
+    }
+}
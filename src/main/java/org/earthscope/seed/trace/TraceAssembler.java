@@ -0,0 +1,168 @@
+package org.earthscope.seed.trace;
+
+import lombok.extern.slf4j.Slf4j;
+import org.earthscope.seed.data.DataRecord;
+import org.earthscope.seed.data.Nslc;
+import org.earthscope.seed.data.SeedDataHeader;
+
+import java.util.*;
+
+/**
+ * Groups records by network, station, location and channel and stitches contiguous records into
+ * {@link TraceSegment}s.
+ * <p>
+ * A record continues the last segment of its channel when its sample rate matches within the sample rate tolerance and
+ * it starts within the time tolerance of the expected next sample time of the segment. Otherwise a new segment is
+ * started and, if the rates match, the difference is recorded as a {@link Discontinuity}. Records of a channel are
+ * expected in time order.
+ * </p>
+ * <pre>
+ * TraceAssembler assembler = TraceAssembler.builder().build();
+ * assembler.addAll(SeedFile.read(file));
+ * for (TraceSegment segment : assembler.getSegments()) {
+ *     int[] samples = segment.getSamples();
+ * }
+ * </pre>
+ */
+@Slf4j
+public class TraceAssembler {
+
+    private final double timeTolerance;
+    private final double sampleRateTolerance;
+    private final Map<Nslc, List<TraceSegment>> segments = new LinkedHashMap<>();
+    private final List<Discontinuity> discontinuities = new ArrayList<>();
+
+    private TraceAssembler(double timeTolerance, double sampleRateTolerance) {
+        this.timeTolerance = timeTolerance;
+        this.sampleRateTolerance = sampleRateTolerance;
+    }
+
+    public TraceAssembler add(DataRecord dataRecord) {
+        Objects.requireNonNull(dataRecord);
+        SeedDataHeader header = dataRecord.getHeader();
+        if (header == null || header.getStart() == null) {
+            throw new IllegalArgumentException("Record has no header or start time");
+        }
+        int[] samples = dataRecord.getSamples();
+        if (samples == null) {
+            log.warn("Skipping record {} without integer samples", header.getSequence());
+            return this;
+        }
+        double sampleRate = dataRecord.getSampleRate();
+        long start = dataRecord.getCorrectedStartTimeNanos();
+        long expectedNext = dataRecord.computeExpectedNextSampleTimeNanos();
+
+        List<TraceSegment> list = segments.computeIfAbsent(header.getNslc(), k -> new ArrayList<>());
+        TraceSegment last = list.isEmpty() ? null : list.get(list.size() - 1);
+        if (last != null && isSameRate(last.getSampleRate(), sampleRate)) {
+            long difference = start - last.getExpectedNextSampleTimeNanos();
+            if (Math.abs(difference) <= toleranceNanos(sampleRate)) {
+                last.append(samples, expectedNext);
+                return this;
+            }
+            discontinuities.add(new Discontinuity(difference > 0 ? Discontinuity.Type.GAP
+                    : Discontinuity.Type.OVERLAP, last, start));
+        }
+        TraceSegment segment = new TraceSegment(header.getNslc(), sampleRate, start);
+        segment.append(samples, expectedNext);
+        list.add(segment);
+        return this;
+    }
+
+    public TraceAssembler addAll(Iterable<DataRecord> dataRecords) {
+        Objects.requireNonNull(dataRecords);
+        for (DataRecord dataRecord : dataRecords) {
+            add(dataRecord);
+        }
+        return this;
+    }
+
+    private boolean isSameRate(double a, double b) {
+        if (a == b) {
+            return true;
+        }
+        return Math.abs(a - b) <= sampleRateTolerance * Math.max(Math.abs(a), Math.abs(b));
+    }
+
+    private long toleranceNanos(double sampleRate) {
+        if (sampleRate <= 0) {
+            return 0;
+        }
+        return Math.round(timeTolerance / sampleRate * 1_000_000_000L);
+    }
+
+    /**
+     * @return all segments, grouped by channel in the order channels were first seen, each group ordered as built
+     */
+    public List<TraceSegment> getSegments() {
+        List<TraceSegment> all = new ArrayList<>();
+        for (List<TraceSegment> list : segments.values()) {
+            all.addAll(list);
+        }
+        return all;
+    }
+
+    public List<TraceSegment> getSegments(String network, String station, String location, String channel) {
+        List<TraceSegment> list = segments.get(Nslc.of(network, station, location, channel));
+        return list == null ? Collections.emptyList() : Collections.unmodifiableList(list);
+    }
+
+    public List<Discontinuity> getDiscontinuities() {
+        return Collections.unmodifiableList(discontinuities);
+    }
+
+    public List<Discontinuity> getGaps() {
+        return filter(Discontinuity.Type.GAP);
+    }
+
+    public List<Discontinuity> getOverlaps() {
+        return filter(Discontinuity.Type.OVERLAP);
+    }
+
+    private List<Discontinuity> filter(Discontinuity.Type type) {
+        List<Discontinuity> list = new ArrayList<>();
+        for (Discontinuity discontinuity : discontinuities) {
+            if (discontinuity.getType() == type) {
+                list.add(discontinuity);
+            }
+        }
+        return list;
+    }
+
+    public static TraceAssemblerBuilder builder() {
+        return new TraceAssemblerBuilder();
+    }
+
+    public static class TraceAssemblerBuilder {
+        private double timeTolerance = 0.5;
+        private double sampleRateTolerance = 0.0001;
+
+        /**
+         * @param timeTolerance allowed difference between expected and actual start, as a fraction of the sample
+         *                      period, default 0.5
+         */
+        public TraceAssemblerBuilder timeTolerance(double timeTolerance) {
+            if (timeTolerance < 0) {
+                throw new IllegalArgumentException("Time tolerance cannot be negative: " + timeTolerance);
+            }
+            this.timeTolerance = timeTolerance;
+            return this;
+        }
+
+        /**
+         * @param sampleRateTolerance allowed relative difference between sample rates, default 0.0001
+         */
+        public TraceAssemblerBuilder sampleRateTolerance(double sampleRateTolerance) {
+            if (sampleRateTolerance < 0) {
+                throw new IllegalArgumentException("Sample rate tolerance cannot be negative: "
+                        + sampleRateTolerance);
+            }
+            this.sampleRateTolerance = sampleRateTolerance;
+            return this;
+        }
+
+        public TraceAssembler build() {
+            return new TraceAssembler(timeTolerance, sampleRateTolerance);
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package org.earthscope.seed.trace;
+
+import org.earthscope.seed.data.Nslc;
+import org.earthscope.seed.util.DateTimeUtil;
+
+import java.time.Instant;
+import java.util.Arrays;
+
+/**
+ * Continuous run of samples of one channel at one sample rate.
+ * <p>
+ * Samples are appended to chunks that double in size, nothing already stored is copied when a segment grows.
+ * {@link #getSamples()} copies the chunks into one array.
+ * </p>
+ */
+public class TraceSegment {
+
+    private static final int FIRST_CHUNK_LENGTH = 1024;
+    private static final int MAX_CHUNK_LENGTH = 1 << 20;
+
+    private final Nslc nslc;
+    private final double sampleRate;
+    private final long startNanos;
+
+    private int[][] chunks = new int[4][];
+    private int numberOfChunks;
+    private int lastChunkUsed;
+    private int size;
+    private int numberOfRecords;
+    private long expectedNextSampleTimeNanos;
+
+    TraceSegment(Nslc nslc, double sampleRate, long startNanos) {
+        this.nslc = nslc;
+        this.sampleRate = sampleRate;
+        this.startNanos = startNanos;
+        this.expectedNextSampleTimeNanos = startNanos;
+    }
+
+    void append(int[] samples, long expectedNextSampleTimeNanos) {
+        int offset = 0;
+        while (offset < samples.length) {
+            if (numberOfChunks == 0 || lastChunkUsed == chunks[numberOfChunks - 1].length) {
+                addChunk();
+            }
+            int[] chunk = chunks[numberOfChunks - 1];
+            int count = Math.min(chunk.length - lastChunkUsed, samples.length - offset);
+            System.arraycopy(samples, offset, chunk, lastChunkUsed, count);
+            offset += count;
+            lastChunkUsed += count;
+            size += count;
+        }
+        this.numberOfRecords++;
+        this.expectedNextSampleTimeNanos = expectedNextSampleTimeNanos;
+    }
+
+    private void addChunk() {
+        if (numberOfChunks == chunks.length) {
+            chunks = Arrays.copyOf(chunks, numberOfChunks * 2);
+        }
+        int length = numberOfChunks == 0 ? FIRST_CHUNK_LENGTH
+                : Math.min(chunks[numberOfChunks - 1].length * 2, MAX_CHUNK_LENGTH);
+        chunks[numberOfChunks++] = new int[length];
+        lastChunkUsed = 0;
+    }
+
+    public Nslc getNslc() {
+        return nslc;
+    }
+
+    public String getNetwork() {
+        return nslc.getNetwork();
+    }
+
+    public String getStation() {
+        return nslc.getStation();
+    }
+
+    public String getLocation() {
+        return nslc.getLocation();
+    }
+
+    public String getChannel() {
+        return nslc.getChannel();
+    }
+
+    public double getSampleRate() {
+        return sampleRate;
+    }
+
+    public int getNumberOfSamples() {
+        return size;
+    }
+
+    public int getNumberOfRecords() {
+        return numberOfRecords;
+    }
+
+    public long getStartTimeNanos() {
+        return startNanos;
+    }
+
+    /**
+     * @return the time of the last sample in nanoseconds since the epoch
+     */
+    public long getEndTimeNanos() {
+        return startNanos + DateTimeUtil.toNanos(size - 1, sampleRate);
+    }
+
+    public long getExpectedNextSampleTimeNanos() {
+        return expectedNextSampleTimeNanos;
+    }
+
+    public Instant getStartTime() {
+        return DateTimeUtil.toInstant(startNanos);
+    }
+
+    public Instant getEndTime() {
+        return DateTimeUtil.toInstant(getEndTimeNanos());
+    }
+
+    public int getSample(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        for (int i = 0; i < numberOfChunks; i++) {
+            if (index < chunks[i].length) {
+                return chunks[i][index];
+            }
+            index -= chunks[i].length;
+        }
+        throw new IllegalStateException();
+    }
+
+    /**
+     * Copies the samples into dst starting at dstOffset.
+     */
+    public void getSamples(int[] dst, int dstOffset) {
+        if (dstOffset < 0 || dst.length - dstOffset < size) {
+            throw new IndexOutOfBoundsException("Not enough space for " + size + " samples at " + dstOffset);
+        }
+        int remaining = size;
+        for (int i = 0; i < numberOfChunks && remaining > 0; i++) {
+            int count = Math.min(chunks[i].length, remaining);
+            System.arraycopy(chunks[i], 0, dst, dstOffset, count);
+            dstOffset += count;
+            remaining -= count;
+        }
+    }
+
+    public int[] getSamples() {
+        int[] samples = new int[size];
+        getSamples(samples, 0);
+        return samples;
+    }
+
+    @Override
+    public String toString() {
+        return "TraceSegment [" + nslc + ", start=" + getStartTime()
+                + ", end=" + getEndTime() + ", sampleRate=" + sampleRate + ", samples=" + size + "]";
+    }
+}
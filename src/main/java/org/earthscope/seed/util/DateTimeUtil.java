@@ -8,14 +8,13 @@ import org.earthscope.seed.data.SeedDataHeader;
 import java.time.*;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
-import java.time.temporal.ChronoUnit;
 import java.time.temporal.TemporalAccessor;
 import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
-import java.util.concurrent.TimeUnit;
 
 public class DateTimeUtil {
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
     private static List<String> dateTimePatterns = Arrays.asList("M[M]['/']['-']['.']d[d]['/']['-']['.']yyyy[' ']['T'][' ']h[h]:mm:ss[' ']a[' ']['('][VV][X][x][Z][z][O][')']", "M[M]['/']['-']['.']d[d]['/']['-']['.']yyyy[' ']['T'][' ']H[H]:mm:ss[' ']['('][VV][X][x][Z][z][O][')']", "d[d]['/']['-']['.']M[M]['/']['-']['.']yyyy[' ']['T'][' ']h[h]:mm:ss[' ']a[' ']['('][VV][X][x][Z][z][O][')']", "d[d]['/']['-']['.']M[M]['/']['-']['.']yyyy[' ']['T'][' ']H[H]:mm:ss[' ']['('][VV][X][x][Z][z][O][')']", "yyyy['/']['-']['.']M[M]['/']['-']['.']d[d][' ']['T'][' ']H[H]:mm:ss[.SSS][' ']['('][VV][X][x][Z][z][O][')']", "yyyy['/']['-']['.']M[M]['/']['-']['.']d[d][' ']['T'][' ']H[H]:mm:ss[.SSSSSS][' ']['('][VV][X][x][Z][z][O][')']", "yyyy['/']['-']['.']M[M]['/']['-']['.']d[d][' ']['T'][' ']H[H]:mm:ss[.SS][' ']['('][VV][X][x][Z][z][O][')']", "yyyy['/']['-']['.']M[M]['/']['-']['.']d[d][' ']['T'][' ']H[H]:mm:ss[.S][' ']['('][VV][X][x][Z][z][O][')']", "yyyy['/']['-']['.']M[M]['/']['-']['.']d[d][' ']['T'][' ']h[h]:mm:ss[' ']a[' ']['('][VV][X][x][Z][z][O][')']", "M[M]['/']['-']['.']yyyy['/']['-']['.']d[d][' ']['T'][' ']H[H]:mm:ss[' ']['('][VV][X][x][Z][z][O][')']", "M[M]['/']['-']['.']yyyy['/']['-']['.']d[d][' ']['T'][' ']h[h]:mm:ss[' ']a[' ']['('][VV][X][x][Z][z][O][')']", "d[d]['/']['-']['.']MMM['/']['-']['.']yyyy[' ']['T'][' ']H[H]:mm:ss[' ']['('][VV][X][x][Z][z][O][')']", "d[d]['/']['-']['.']MMM['/']['-']['.']yy[' ']['T'][' ']H[H]:mm:ss[' ']['('][VV][X][x][Z][z][O][')']", "d[d]['/']['-']['.']MMM['/']['-']['.']yyyy[' ']['T'][' ']h[h]:mm:ss[' ']a[' ']['('][VV][X][x][Z][z][O][')']", "d[d]['/']['-']['.']MMM['/']['-']['.']yy[' ']['T'][' ']h[h]:mm:ss[' ']a[' ']['('][VV][X][x][Z][z][O][')']", "MMM['/']['-']['.']d[d]['/']['-']['.']yyyy[' ']['T'][' ']H[H]:mm:ss[' ']['('][VV][X][x][Z][z][O][')']", "MMM['/']['-']['.']d[d]['/']['-']['.']yy[' ']['T'][' ']H[H]:mm:ss[' ']['('][VV][X][x][Z][z][O][')']", "MMM['/']['-']['.']d[d]['/']['-']['.']yyyy[' ']['T'][' ']h[h]:mm:ss[' ']a[' ']['('][VV][X][x][Z][z][O][')']", "MMM['/']['-']['.']d[d]['/']['-']['.']yy[' ']['T'][' ']h[h]:mm:ss[' ']a[' ']['('][VV][X][x][Z][z][O][')']", "M[M]['/']['-']['.']d[d]['/']['-']['.']yyyy", "M[M]['/']['-']['.']d[d]['/']['-']['.']yyyy", "d[d]['/']['-']['.']M[M]['/']['-']['.']yyyy", "d[d]['/']['-']['.']M[M]['/']['-']['.']yyyy", "yyyy['/']['-']['.']M[M]['/']['-']['.']d[d]", "yyyy['/']['-']['.']M[M]['/']['-']['.']d[d]", "M[M]['/']['-']['.']yyyy['/']['-']['.']d[d]", "M[M]['/']['-']['.']yyyy['/']['-']['.']d[d]", "d[d]['/']['-']['.']MMM['/']['-']['.']yyyy", "d[d]['/']['-']['.']MMM['/']['-']['.']yyyy", "d[d]['/']['-']['.']MMM['/']['-']['.']yy", "d[d]['/']['-']['.']MMM['/']['-']['.']yyyy", "d[d]['/']['-']['.']MMM['/']['-']['.']yy", "MMM['/']['-']['.']d[d]['/']['-']['.']yyyy", "MMM['/']['-']['.']d[d]['/']['-']['.']yy", "MMM['/']['-']['.']d[d]['/']['-']['.']yyyy", "MMM['/']['-']['.']d[d]['/']['-']['.']yy", "yyyy,DDD,HH:mm:ss");
 
     public DateTimeUtil() {
@@ -80,41 +79,61 @@ public class DateTimeUtil {
     }
 
     public static Instant computeEndTime(SeedDataHeader dataHeader, B1001 b1001, B100 b100) {
-        if (dataHeader == null) {
-            return null;
-        }
-
-        Instant startTime = getCorrectedStartTime(dataHeader, b1001);
-        if (startTime == null) {
-            startTime = dataHeader.getStart().toInstant();
-        }
-        if (startTime == null) {
+        if (dataHeader == null || dataHeader.getStart() == null) {
             return null;
         }
+        return toInstant(computeEndTimeNanos(dataHeader, b1001, b100));
+    }
 
-        float sampleRate = dataHeader.getSampleRateFactor();
-        if (b100 != null) {
-            sampleRate = b100.getActualSampleRate();
-        }
-        Duration duration = Duration.ofNanos(Math
-                .round(((dataHeader.getNumberOfSamples() - 1) / (double) sampleRate) * TimeUnit.SECONDS.toNanos(1)));
-        return startTime.plus(duration);
+    /**
+     * Allocation free version of {@link #computeEndTime(SeedDataHeader, B1001, B100)}.
+     *
+     * @return the time of the last sample in nanoseconds since the epoch
+     */
+    public static long computeEndTimeNanos(SeedDataHeader dataHeader, B1001 b1001, B100 b100) {
+        double sampleRate = b100 != null ? b100.getActualSampleRate() : dataHeader.getSampleRate();
+        return getCorrectedStartTimeNanos(dataHeader, b1001) + toNanos(dataHeader.getNumberOfSamples() - 1,
+                sampleRate);
     }
 
     public static Instant getCorrectedStartTime(SeedDataHeader dataHeader, B1001 b1001) {
-        if (dataHeader == null) {
-            return null;
-        }
-        Instant instant = dataHeader.getStart().toInstant();
-        if (instant == null) {
+        if (dataHeader == null || dataHeader.getStart() == null) {
             return null;
         }
+        return toInstant(getCorrectedStartTimeNanos(dataHeader, b1001));
+    }
+
+    /**
+     * Allocation free version of {@link #getCorrectedStartTime(SeedDataHeader, B1001)}, the time correction is in
+     * units of 0.0001 seconds.
+     */
+    public static long getCorrectedStartTimeNanos(SeedDataHeader dataHeader, B1001 b1001) {
+        long nanos = dataHeader.getStart().toEpochNanos();
         if (b1001 != null) {
-            instant = instant.plus(b1001.getMicroSeconds(), ChronoUnit.MICROS);
+            nanos += b1001.getMicroSeconds() * 1000L;
+        }
+        if (dataHeader.getActivityFlags() == null || !dataHeader.getActivityFlags().isTimeCorrectionApplied()) {
+            nanos += dataHeader.getTimeCorrection() * 100_000L;
         }
-        if (!dataHeader.getActivityFlags().isTimeCorrectionApplied()) {
-            instant = instant.plusMillis(dataHeader.getTimeCorrection() * 10L);
+        return nanos;
+    }
+
+    /**
+     * @return the duration of numberOfSamples sample intervals in nanoseconds, 0 if the sample rate is not positive
+     */
+    public static long toNanos(int numberOfSamples, double sampleRate) {
+        if (sampleRate <= 0 || numberOfSamples <= 0) {
+            return 0;
         }
-        return instant;
+        return Math.round(numberOfSamples / sampleRate * NANOS_PER_SECOND);
+    }
+
+    public static Instant toInstant(long epochNanos) {
+        return Instant.ofEpochSecond(Math.floorDiv(epochNanos, NANOS_PER_SECOND),
+                Math.floorMod(epochNanos, NANOS_PER_SECOND));
+    }
+
+    public static long toEpochNanos(Instant instant) {
+        return Math.addExact(Math.multiplyExact(instant.getEpochSecond(), NANOS_PER_SECOND), instant.getNano());
     }
 }
@@ -0,0 +1,158 @@
+package org.earthscope.seed.util;
+
+import org.earthscope.seed.SeedException;
+import org.earthscope.seed.data.Nslc;
+import org.earthscope.seed.data.SeedDataHeaderView;
+import org.earthscope.seed.io.SeedInputStream;
+
+import java.io.*;
+import java.util.*;
+
+/**
+ * Columnar summary of the record headers of a file, one array per field and one element per record in file order.
+ * <p>
+ * Channels are stored as ids into a dictionary of interned {@link Nslc}s that is only extended when a new channel is
+ * seen, records are matched on the raw header bytes, so scanning creates no objects per record.
+ * Start times are taken from the fixed header as is, in nanoseconds since the epoch.
+ * </p>
+ * <pre>
+ * HeaderSummary summary = HeaderSummary.scan(file);
+ * for (int i = 0; i &lt; summary.size(); i++) {
+ *     Nslc channel = summary.getChannel(summary.getChannelIds()[i]);
+ * }
+ * </pre>
+ */
+public class HeaderSummary {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final List<Nslc> channels = new ArrayList<>();
+    private final Map<Nslc, Integer> ids = new HashMap<>();
+
+    private int size;
+    private int[] channelIds = new int[INITIAL_CAPACITY];
+    private long[] start = new long[INITIAL_CAPACITY];
+    private int[] numberOfSamples = new int[INITIAL_CAPACITY];
+    private double[] sampleRate = new double[INITIAL_CAPACITY];
+    private byte[] quality = new byte[INITIAL_CAPACITY];
+    private long[] offset = new long[INITIAL_CAPACITY];
+
+    private HeaderSummary() {
+    }
+
+    public static HeaderSummary scan(File file) throws IOException {
+        Objects.requireNonNull(file);
+        try (InputStream inputStream = new BufferedInputStream(new FileInputStream(file), 1 << 16)) {
+            return scan(inputStream);
+        }
+    }
+
+    public static HeaderSummary scan(InputStream inputStream) throws IOException {
+        Objects.requireNonNull(inputStream);
+        HeaderSummary summary = new HeaderSummary();
+        try (SeedInputStream sis = new SeedInputStream(inputStream).ring(1)) {
+            SeedDataHeaderView view = new SeedDataHeaderView();
+            long position = 0;
+            while (true) {
+                byte[] bytes = sis.read();
+                if (bytes == null) {
+                    break;
+                }
+                summary.add(SeedIO.validate(view.wrap(bytes), bytes.length), position);
+                position += bytes.length;
+            }
+        } catch (SeedException e) {
+            throw new IOException(e);
+        }
+        summary.trim();
+        return summary;
+    }
+
+    private void add(SeedDataHeaderView view, long position) {
+        if (size == start.length) {
+            grow(size * 2);
+        }
+        channelIds[size] = channelId(view);
+        start[size] = view.getStartEpochNanos();
+        numberOfSamples[size] = view.getNumberOfSamples();
+        sampleRate[size] = view.getSampleRate();
+        quality[size] = (byte) view.getRecordTypeCode();
+        offset[size] = position;
+        size++;
+    }
+
+    private int channelId(SeedDataHeaderView view) {
+        Nslc nslc = view.getNslc();
+        Integer id = ids.get(nslc);
+        if (id == null) {
+            id = channels.size();
+            channels.add(nslc);
+            ids.put(nslc, id);
+        }
+        return id;
+    }
+
+    private void grow(int capacity) {
+        channelIds = Arrays.copyOf(channelIds, capacity);
+        start = Arrays.copyOf(start, capacity);
+        numberOfSamples = Arrays.copyOf(numberOfSamples, capacity);
+        sampleRate = Arrays.copyOf(sampleRate, capacity);
+        quality = Arrays.copyOf(quality, capacity);
+        offset = Arrays.copyOf(offset, capacity);
+    }
+
+    private void trim() {
+        if (size != start.length) {
+            grow(size);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getNumberOfChannels() {
+        return channels.size();
+    }
+
+    public Nslc getChannel(int id) {
+        return channels.get(id);
+    }
+
+    /*
+     * The column arrays are returned as is, without copying, and must not be modified.
+     */
+
+    public int[] getChannelIds() {
+        return channelIds;
+    }
+
+    /**
+     * @return start times in nanoseconds since the epoch
+     */
+    public long[] getStartTimes() {
+        return start;
+    }
+
+    public int[] getNumberOfSamples() {
+        return numberOfSamples;
+    }
+
+    public double[] getSampleRates() {
+        return sampleRate;
+    }
+
+    /**
+     * @return the record type, the quality code D, R, Q or M for data records
+     */
+    public byte[] getQualities() {
+        return quality;
+    }
+
+    /**
+     * @return byte offsets of the records in the file
+     */
+    public long[] getOffsets() {
+        return offset;
+    }
+}
@@ -0,0 +1,262 @@
+package org.earthscope.seed.util;
+
+import lombok.extern.slf4j.Slf4j;
+import org.earthscope.seed.SeedException;
+import org.earthscope.seed.data.DataBlocketteFactory;
+import org.earthscope.seed.data.DataRecord;
+import org.earthscope.seed.data.SeedDataHeader;
+import org.earthscope.seed.data.SeedDataHeaderView;
+import org.earthscope.seed.io.RecordParser;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Read only, memory mapped view of a miniSEED file. Records are handed out as slices of the mapping and headers are
+ * parsed straight from it, nothing is copied unless samples are decoded.
+ * <p>
+ * The length of every record is taken from its B1000 when the file is opened, records without B1000 get the length
+ * detected for the first record, so files may mix record lengths. Offsets are only kept per record if the lengths
+ * actually differ, otherwise they are computed from the common length. A single MappedByteBuffer is limited to 2GB,
+ * larger files are mapped as several regions each holding whole records. Slices and headers may be requested from
+ * several threads at once.
+ * </p>
+ * <pre>
+ * try (MappedSeedFile mapped = MappedSeedFile.open(file)) {
+ *     for (int i = 0; i &lt; mapped.getNumberOfRecords(); i++) {
+ *         SeedDataHeader header = mapped.readHeader(i);
+ *     }
+ * }
+ * </pre>
+ */
+@Slf4j
+public class MappedSeedFile implements Closeable {
+
+    private final FileChannel channel;
+    private final long size;
+    // length shared by all records, -1 once lengths differ and offsets holds the start of every record
+    private int recordLength;
+    private long[] offsets;
+    private int numberOfRecords;
+    private MappedByteBuffer[] regions = new MappedByteBuffer[0];
+    private long[] regionPositions = new long[0];
+    private int[] regionFirstRecords = new int[0];
+
+    /**
+     * @param detect       whether to take record lengths from B1000, otherwise every record is recordLength long
+     * @param recordLength length of records without B1000, or of all records if not detecting
+     */
+    private MappedSeedFile(FileChannel channel, int recordLength, boolean detect) throws IOException {
+        this.channel = channel;
+        this.size = channel.size();
+        this.recordLength = recordLength;
+        SeedDataHeaderView view = new SeedDataHeaderView();
+        long position = 0;
+        while (size - position >= SeedDataHeaderView.LENGTH) {
+            long regionLength = Math.min(Integer.MAX_VALUE, size - position);
+            MappedByteBuffer region = channel.map(FileChannel.MapMode.READ_ONLY, position, regionLength);
+            int first = numberOfRecords;
+            int end = 0;
+            while (regionLength - end >= SeedDataHeaderView.LENGTH) {
+                int length = detect ? length(view, region, end, recordLength) : recordLength;
+                if (end + (long) length > regionLength) {
+                    break;
+                }
+                add(position + end, length);
+                end += length;
+            }
+            if (end == 0) {
+                break;
+            }
+            addRegion(region, position, first);
+            position += end;
+        }
+        if (position < size) {
+            log.warn("Ignoring {} trailing bytes of {}, they do not hold a whole record", size - position, size);
+        }
+    }
+
+    /**
+     * @return the length declared by the B1000 of the record at offset, otherwise fallback
+     */
+    private static int length(SeedDataHeaderView view, ByteBuffer region, int offset, int fallback) {
+        try {
+            int length = view.wrap(region, offset).getRecordLength();
+            return length >= SeedDataHeaderView.LENGTH ? length : fallback;
+        } catch (SeedException e) {
+            // not a valid header, left for readHeader and read to report
+            return fallback;
+        }
+    }
+
+    private void add(long offset, int length) throws IOException {
+        if (numberOfRecords == Integer.MAX_VALUE) {
+            throw new IOException("Too many records to map");
+        }
+        if (offsets == null && length != recordLength) {
+            // first record of a different length, from here on every offset is kept
+            offsets = new long[Math.max(16, numberOfRecords * 2 + 2)];
+            for (int i = 0; i <= numberOfRecords; i++) {
+                offsets[i] = (long) i * recordLength;
+            }
+            recordLength = -1;
+        }
+        if (offsets != null) {
+            if (numberOfRecords + 2 > offsets.length) {
+                offsets = Arrays.copyOf(offsets, (int) Math.min(Integer.MAX_VALUE, 2L * offsets.length));
+            }
+            offsets[numberOfRecords] = offset;
+            offsets[numberOfRecords + 1] = offset + length;
+        }
+        numberOfRecords++;
+    }
+
+    private void addRegion(MappedByteBuffer region, long position, int firstRecord) {
+        int n = regions.length;
+        regions = Arrays.copyOf(regions, n + 1);
+        regionPositions = Arrays.copyOf(regionPositions, n + 1);
+        regionFirstRecords = Arrays.copyOf(regionFirstRecords, n + 1);
+        regions[n] = region;
+        regionPositions[n] = position;
+        regionFirstRecords[n] = firstRecord;
+    }
+
+    /**
+     * Maps file taking the length of every record from its B1000.
+     */
+    public static MappedSeedFile open(File file) throws IOException {
+        Objects.requireNonNull(file);
+        return open(file, SeedFile.determineRecordSize(file), true);
+    }
+
+    /**
+     * Maps file as records of recordLength bytes each, B1000 is not consulted.
+     */
+    public static MappedSeedFile open(File file, int recordLength) throws IOException {
+        return open(file, recordLength, false);
+    }
+
+    private static MappedSeedFile open(File file, int recordLength, boolean detect) throws IOException {
+        Objects.requireNonNull(file);
+        if (recordLength <= 0) {
+            throw new IOException("Invalid record length " + recordLength + " for " + file);
+        }
+        FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        try {
+            return new MappedSeedFile(channel, recordLength, detect);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public long size() {
+        return size;
+    }
+
+    /**
+     * @return the length shared by all records, -1 if the file mixes record lengths
+     */
+    public int getRecordLength() {
+        return recordLength;
+    }
+
+    public int getRecordLength(int index) {
+        checkIndex(index);
+        return offsets == null ? recordLength : (int) (offsets[index + 1] - offsets[index]);
+    }
+
+    public int getNumberOfRecords() {
+        return numberOfRecords;
+    }
+
+    public long getOffset(int index) {
+        checkIndex(index);
+        return offsets == null ? (long) index * recordLength : offsets[index];
+    }
+
+    private int region(int index) {
+        checkIndex(index);
+        int r = Arrays.binarySearch(regionFirstRecords, index);
+        return r >= 0 ? r : -r - 2;
+    }
+
+    /**
+     * @return a read only buffer holding exactly the bytes of record index, position 0 and limit its record length
+     */
+    public ByteBuffer slice(int index) {
+        int r = region(index);
+        int position = (int) (getOffset(index) - regionPositions[r]);
+        ByteBuffer region = regions[r].duplicate();
+        region.limit(position + getRecordLength(index)).position(position);
+        return region.slice();
+    }
+
+    public SeedDataHeader readHeader(int index) throws IOException {
+        int r = region(index);
+        int position = (int) (getOffset(index) - regionPositions[r]);
+        try {
+            return DataBlocketteFactory.createHeader(regions[r], position);
+        } catch (SeedException e) {
+            throw new IOException("Invalid header for record " + index, e);
+        }
+    }
+
+    /**
+     * Points view at the header of record index, no bytes are copied and nothing is allocated.
+     */
+    public SeedDataHeaderView view(int index, SeedDataHeaderView view) throws IOException {
+        int r = region(index);
+        int position = (int) (getOffset(index) - regionPositions[r]);
+        try {
+            return view.wrap(regions[r], position);
+        } catch (SeedException e) {
+            throw new IOException("Invalid header for record " + index, e);
+        }
+    }
+
+    /**
+     * Copies record index into a byte array.
+     */
+    public byte[] readBytes(int index) {
+        ByteBuffer slice = slice(index);
+        byte[] bytes = new byte[slice.remaining()];
+        slice.get(bytes);
+        return bytes;
+    }
+
+    public DataRecord read(int index) throws IOException {
+        return read(index, new RecordParser());
+    }
+
+    /**
+     * Parses record index with the given parser, reuse one parser when reading consecutive records so the Steim
+     * continuity check has the previous sample.
+     */
+    public DataRecord read(int index, RecordParser parser) throws IOException {
+        Objects.requireNonNull(parser);
+        try {
+            return parser.parse(readBytes(index));
+        } catch (SeedException e) {
+            throw new IOException("Invalid record " + index, e);
+        }
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= numberOfRecords) {
+            throw new IndexOutOfBoundsException("Record " + index + " of " + numberOfRecords);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
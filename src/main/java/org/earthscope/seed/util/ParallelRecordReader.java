@@ -0,0 +1,155 @@
+package org.earthscope.seed.util;
+
+import org.earthscope.seed.data.DataRecord;
+import org.earthscope.seed.io.RecordParser;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
+
+/**
+ * Decodes the records of a {@link MappedSeedFile} on a ForkJoinPool. The file is split into record aligned chunks,
+ * each chunk is parsed by its own {@link RecordParser} and results are handed back in file order.
+ * <p>
+ * The Steim continuity check against the previous record only runs within a chunk, the first record of every chunk is
+ * decoded without it.
+ * </p>
+ * <pre>
+ * ParallelRecordReader reader = ParallelRecordReader.builder().build();
+ * try (MappedSeedFile mapped = MappedSeedFile.open(file)) {
+ *     reader.read(mapped, record -&gt; ...);
+ * }
+ * </pre>
+ */
+public class ParallelRecordReader {
+
+    private final ForkJoinPool pool;
+    private final int chunkSize;
+    private final int window;
+
+    private ParallelRecordReader(ForkJoinPool pool, int chunkSize) {
+        this.pool = pool;
+        this.chunkSize = chunkSize;
+        // enough work to keep every worker busy while bounding the number of decoded records held at once
+        this.window = chunkSize * pool.getParallelism() * 4;
+    }
+
+    public List<DataRecord> read(File file) throws IOException {
+        Objects.requireNonNull(file);
+        try (MappedSeedFile mapped = MappedSeedFile.open(file)) {
+            return read(mapped);
+        }
+    }
+
+    /**
+     * Decodes every record of mapped, the list is in file order.
+     */
+    public List<DataRecord> read(MappedSeedFile mapped) throws IOException {
+        Objects.requireNonNull(mapped);
+        DataRecord[] records = new DataRecord[mapped.getNumberOfRecords()];
+        decode(mapped, 0, records.length, records);
+        return new ArrayList<>(Arrays.asList(records));
+    }
+
+    /**
+     * Decodes the records of mapped a window at a time and hands them to consumer in file order on the calling
+     * thread, only one window of decoded records is held in memory.
+     */
+    public void read(MappedSeedFile mapped, Consumer<DataRecord> consumer) throws IOException {
+        Objects.requireNonNull(mapped);
+        Objects.requireNonNull(consumer);
+        int numberOfRecords = mapped.getNumberOfRecords();
+        DataRecord[] records = new DataRecord[Math.min(window, numberOfRecords)];
+        for (int from = 0; from < numberOfRecords; from += records.length) {
+            int to = Math.min(from + records.length, numberOfRecords);
+            decode(mapped, from, to, records);
+            for (int i = 0; i < to - from; i++) {
+                consumer.accept(records[i]);
+                records[i] = null;
+            }
+        }
+    }
+
+    private void decode(MappedSeedFile mapped, int from, int to, DataRecord[] records) throws IOException {
+        try {
+            pool.invoke(new DecodeAction(mapped, from, to, from, records));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private class DecodeAction extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final MappedSeedFile mapped;
+        private final int from;
+        private final int to;
+        private final int base;
+        private final DataRecord[] records;
+
+        DecodeAction(MappedSeedFile mapped, int from, int to, int base, DataRecord[] records) {
+            this.mapped = mapped;
+            this.from = from;
+            this.to = to;
+            this.base = base;
+            this.records = records;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= chunkSize) {
+                RecordParser parser = new RecordParser();
+                try {
+                    for (int i = from; i < to; i++) {
+                        records[i - base] = mapped.read(i, parser);
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return;
+            }
+            int middle = from + ((to - from) / 2 / chunkSize) * chunkSize;
+            if (middle == from) {
+                middle = from + chunkSize;
+            }
+            invokeAll(new DecodeAction(mapped, from, middle, base, records),
+                    new DecodeAction(mapped, middle, to, base, records));
+        }
+    }
+
+    public static ParallelRecordReaderBuilder builder() {
+        return new ParallelRecordReaderBuilder();
+    }
+
+    public static class ParallelRecordReaderBuilder {
+        private ForkJoinPool pool = ForkJoinPool.commonPool();
+        private int chunkSize = 256;
+
+        public ParallelRecordReaderBuilder pool(ForkJoinPool pool) {
+            this.pool = Objects.requireNonNull(pool, "pool cannot be null");
+            return this;
+        }
+
+        /**
+         * @param chunkSize number of consecutive records decoded by one task, default 256
+         */
+        public ParallelRecordReaderBuilder chunkSize(int chunkSize) {
+            if (chunkSize <= 0) {
+                throw new IllegalArgumentException("Invalid chunk size " + chunkSize);
+            }
+            this.chunkSize = chunkSize;
+            return this;
+        }
+
+        public ParallelRecordReader build() {
+            return new ParallelRecordReader(pool, chunkSize);
+        }
+    }
+}
@@ -34,7 +34,7 @@ public class RecordIterator implements Closeable, Iterator<DataRecord>, Iterable
 
     @Override
     public Iterator<DataRecord> iterator() {
-        return null;
+        return this;
     }
 
     @Override
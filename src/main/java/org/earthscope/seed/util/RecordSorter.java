@@ -0,0 +1,295 @@
+package org.earthscope.seed.util;
+
+import lombok.extern.slf4j.Slf4j;
+import org.earthscope.seed.SeedException;
+import org.earthscope.seed.data.Nslc;
+import org.earthscope.seed.data.SeedDataHeaderView;
+import org.earthscope.seed.io.SeedInputStream;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.PriorityQueue;
+
+/**
+ * Sorts the records of a stream by channel, start time and quality code and drops duplicates, working on the raw
+ * record bytes without decoding samples. Records are collected up to the memory budget, sorted and spilled to a
+ * temporary run file; the runs are then merged into the output.
+ * <p>
+ * Two records are duplicates if their bytes are identical apart from the sequence number, which telemetry often
+ * assigns anew when retransmitting. They are recognized by a hash of those bytes and compared byte by byte before one
+ * is dropped. Start times are taken from the fixed header and B1001.
+ * </p>
+ * <pre>
+ * RecordSorter sorter = RecordSorter.builder().memoryBudget(256L &lt;&lt; 20).build();
+ * sorter.sort(backfill, sorted);
+ * </pre>
+ */
+@Slf4j
+public class RecordSorter {
+
+    private static final Comparator<Entry> ORDER = Comparator.comparing((Entry e) -> e.nslc)
+            .thenComparingLong(e -> e.startNanos).thenComparingInt(e -> e.quality).thenComparingLong(e -> e.hash);
+    // rough per record cost of an entry and its array on top of the record bytes
+    private static final int ENTRY_OVERHEAD = 96;
+
+    private final long memoryBudget;
+    private final Path tempDirectory;
+    private final SeedDataHeaderView view = new SeedDataHeaderView();
+
+    private long recordsRead;
+    private long recordsWritten;
+    private long duplicates;
+    private int runs;
+    private byte[] previous = new byte[0];
+    private int previousLength;
+
+    private RecordSorter(RecordSorterBuilder builder) {
+        this.memoryBudget = builder.memoryBudget;
+        this.tempDirectory = builder.tempDirectory;
+    }
+
+    public void sort(File input, File output) throws IOException {
+        Objects.requireNonNull(input);
+        Objects.requireNonNull(output);
+        try (InputStream in = new FileInputStream(input);
+             OutputStream out = new BufferedOutputStream(new FileOutputStream(output), 1 << 16)) {
+            sort(in, out);
+        }
+    }
+
+    /**
+     * Writes the records of in to out sorted and without duplicates, out is not closed.
+     */
+    public void sort(InputStream in, OutputStream out) throws IOException {
+        Objects.requireNonNull(in);
+        Objects.requireNonNull(out);
+        recordsRead = 0;
+        recordsWritten = 0;
+        duplicates = 0;
+        runs = 0;
+        previousLength = -1;
+        List<Path> files = new ArrayList<>();
+        try (SeedInputStream sis = new SeedInputStream(in, 1 << 16)) {
+            List<Entry> run = new ArrayList<>();
+            long used = 0;
+            byte[] bytes;
+            while ((bytes = sis.read()) != null) {
+                recordsRead++;
+                run.add(entry(bytes, bytes.length));
+                used += bytes.length + ENTRY_OVERHEAD;
+                if (used >= memoryBudget) {
+                    files.add(spill(run));
+                    run.clear();
+                    used = 0;
+                }
+            }
+            if (files.isEmpty()) {
+                run.sort(ORDER);
+                runs = 1;
+                for (Entry entry : run) {
+                    write(entry, out);
+                }
+            } else {
+                if (!run.isEmpty()) {
+                    files.add(spill(run));
+                }
+                merge(files, out);
+            }
+        } catch (SeedException e) {
+            throw new IOException(e);
+        } finally {
+            for (Path file : files) {
+                Files.deleteIfExists(file);
+            }
+        }
+        log.debug("Sorted {} records in {} runs, dropped {} duplicates", recordsRead, runs, duplicates);
+    }
+
+    private Path spill(List<Entry> run) throws IOException {
+        run.sort(ORDER);
+        Path file = tempDirectory == null ? Files.createTempFile("seed-sort", ".run")
+                : Files.createTempFile(tempDirectory, "seed-sort", ".run");
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file), 1 << 16)) {
+            for (Entry entry : run) {
+                out.write(entry.bytes, 0, entry.length);
+            }
+        }
+        runs++;
+        log.debug("Spilled run {} of {} records to {}", runs, run.size(), file);
+        return file;
+    }
+
+    private void merge(List<Path> files, OutputStream out) throws IOException, SeedException {
+        PriorityQueue<Run> queue = new PriorityQueue<>((a, b) -> ORDER.compare(a.head, b.head));
+        try {
+            for (Path file : files) {
+                Run run = new Run(new SeedInputStream(Files.newInputStream(file), 1 << 16).ring(1));
+                if (run.advance()) {
+                    queue.add(run);
+                } else {
+                    run.close();
+                }
+            }
+            while (!queue.isEmpty()) {
+                Run run = queue.poll();
+                write(run.head, out);
+                if (run.advance()) {
+                    queue.add(run);
+                } else {
+                    run.close();
+                }
+            }
+        } finally {
+            for (Run run : queue) {
+                run.close();
+            }
+        }
+    }
+
+    /**
+     * Writes entry unless it duplicates the record written before, duplicates are adjacent in sort order.
+     */
+    private void write(Entry entry, OutputStream out) throws IOException {
+        if (previousLength == entry.length && Arrays.equals(previous, 6, previousLength, entry.bytes, 6,
+                entry.length)) {
+            duplicates++;
+            return;
+        }
+        out.write(entry.bytes, 0, entry.length);
+        recordsWritten++;
+        if (previous.length < entry.length) {
+            previous = new byte[entry.length];
+        }
+        System.arraycopy(entry.bytes, 0, previous, 0, entry.length);
+        previousLength = entry.length;
+    }
+
+    private Entry entry(byte[] bytes, int length) throws SeedException {
+        view.wrap(bytes, 0);
+        long start = view.getStartEpochNanos();
+        int b1001 = view.findBlockette(1001);
+        if (b1001 > 0 && b1001 + 6 <= length) {
+            start += bytes[b1001 + 5] * 1000L;
+        }
+        return new Entry(view.getNslc(), start, view.getRecordTypeCode(), hash(bytes, length), bytes, length);
+    }
+
+    /**
+     * FNV-1a over the record without its sequence number.
+     */
+    private static long hash(byte[] bytes, int length) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 6; i < length; i++) {
+            hash ^= bytes[i] & 0xFF;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    public long getRecordsRead() {
+        return recordsRead;
+    }
+
+    public long getRecordsWritten() {
+        return recordsWritten;
+    }
+
+    /**
+     * @return the number of records dropped as duplicates by the last sort
+     */
+    public long getDuplicates() {
+        return duplicates;
+    }
+
+    /**
+     * @return the number of sorted runs of the last sort, 1 if it fit into the memory budget
+     */
+    public int getRuns() {
+        return runs;
+    }
+
+    public static RecordSorterBuilder builder() {
+        return new RecordSorterBuilder();
+    }
+
+    public static class RecordSorterBuilder {
+        private long memoryBudget = 64L << 20;
+        private Path tempDirectory;
+
+        private RecordSorterBuilder() {
+        }
+
+        /**
+         * @param memoryBudget approximate number of bytes of records held in memory before a run is spilled
+         */
+        public RecordSorterBuilder memoryBudget(long memoryBudget) {
+            if (memoryBudget <= 0) {
+                throw new IllegalArgumentException("Invalid memory budget " + memoryBudget);
+            }
+            this.memoryBudget = memoryBudget;
+            return this;
+        }
+
+        /**
+         * @param tempDirectory directory of the run files, the default temporary directory if null
+         */
+        public RecordSorterBuilder tempDirectory(Path tempDirectory) {
+            this.tempDirectory = tempDirectory;
+            return this;
+        }
+
+        public RecordSorter build() {
+            return new RecordSorter(this);
+        }
+    }
+
+    private static final class Entry {
+        private final Nslc nslc;
+        private final long startNanos;
+        private final char quality;
+        private final long hash;
+        private final byte[] bytes;
+        private final int length;
+
+        private Entry(Nslc nslc, long startNanos, char quality, long hash, byte[] bytes, int length) {
+            this.nslc = nslc;
+            this.startNanos = startNanos;
+            this.quality = quality;
+            this.hash = hash;
+            this.bytes = bytes;
+            this.length = length;
+        }
+    }
+
+    private final class Run implements Closeable {
+        private final SeedInputStream sis;
+        private Entry head;
+
+        private Run(SeedInputStream sis) {
+            this.sis = sis;
+        }
+
+        /**
+         * Reads the next record of the run into head, the previous head is overwritten.
+         */
+        private boolean advance() throws IOException, SeedException {
+            byte[] bytes = sis.read();
+            if (bytes == null) {
+                return false;
+            }
+            head = entry(bytes, bytes.length);
+            return true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            sis.close();
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package org.earthscope.seed.util;
+
+import org.earthscope.seed.data.DataRecord;
+import org.earthscope.seed.io.RecordParser;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * Spliterator over a range of records of a {@link MappedSeedFile}. The number of records is known up front so it is
+ * SIZED and SUBSIZED, and it splits in half at record boundaries, which lets parallel streams decode records on every
+ * worker. Each split has its own {@link RecordParser}.
+ */
+public class RecordSpliterator implements Spliterator<DataRecord> {
+
+    private static final int MIN_SPLIT = 16;
+
+    private final MappedSeedFile mapped;
+    private final RecordParser parser = new RecordParser();
+    private int index;
+    private final int end;
+
+    public RecordSpliterator(MappedSeedFile mapped) {
+        this(mapped, 0, mapped.getNumberOfRecords());
+    }
+
+    public RecordSpliterator(MappedSeedFile mapped, int from, int to) {
+        Objects.requireNonNull(mapped);
+        if (from < 0 || to > mapped.getNumberOfRecords() || from > to) {
+            throw new IndexOutOfBoundsException("Range [" + from + ", " + to + ") of " + mapped.getNumberOfRecords());
+        }
+        this.mapped = mapped;
+        this.index = from;
+        this.end = to;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super DataRecord> action) {
+        Objects.requireNonNull(action);
+        if (index >= end) {
+            return false;
+        }
+        action.accept(read(index++));
+        return true;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super DataRecord> action) {
+        Objects.requireNonNull(action);
+        while (index < end) {
+            action.accept(read(index++));
+        }
+    }
+
+    private DataRecord read(int i) {
+        try {
+            return mapped.read(i, parser);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public Spliterator<DataRecord> trySplit() {
+        int remaining = end - index;
+        if (remaining < MIN_SPLIT * 2) {
+            return null;
+        }
+        int middle = index + remaining / 2;
+        RecordSpliterator prefix = new RecordSpliterator(mapped, index, middle);
+        index = middle;
+        return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+        return end - index;
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | SIZED | SUBSIZED | NONNULL | IMMUTABLE;
+    }
+}
@@ -13,6 +13,9 @@ import java.util.Objects;
 public class SeedByteBuffer {
 
     private final ByteBuffer bb;
+    // positions in bb of the first and past the last wrapped byte
+    private final int base;
+    private final int end;
 
     SeedByteBuffer(int capacity) {
         this(capacity, ByteOrder.BIG_ENDIAN);
@@ -20,6 +23,8 @@ public class SeedByteBuffer {
 
     SeedByteBuffer(int capacity, ByteOrder byteOrder) {
         bb = ByteBuffer.allocate(capacity).order(byteOrder);
+        base = 0;
+        end = capacity;
     }
 
     SeedByteBuffer(byte[] bytes, ByteOrder byteOrder) {
@@ -28,6 +33,35 @@ public class SeedByteBuffer {
 
     SeedByteBuffer(byte[] bytes, ByteOrder byteOrder, int offset, int length) {
         bb = ByteBuffer.wrap(bytes, offset, length).order(byteOrder);
+        base = offset;
+        end = offset + length;
+    }
+
+    SeedByteBuffer(ByteBuffer buffer, ByteOrder byteOrder, int offset, int length) {
+        ByteBuffer duplicate = buffer.duplicate();
+        duplicate.limit(offset + length).position(offset);
+        bb = duplicate.slice().order(byteOrder);
+        base = 0;
+        end = length;
+    }
+
+    /**
+     * Moves this buffer to {@code [offset, offset+length)} of the originally wrapped bytes, so one instance can be
+     * reused as a cursor over all blockettes of a record.
+     */
+    public SeedByteBuffer window(int offset, int length) {
+        if (offset < 0 || length < 0 || base + offset + length > end) {
+            throw new IndexOutOfBoundsException("Invalid window " + offset + ", length " + length);
+        }
+        bb.limit(base + offset + length).position(base + offset);
+        return this;
+    }
+
+    /**
+     * @return the number of bytes from offset to the end of the originally wrapped bytes
+     */
+    public int available(int offset) {
+        return end - base - offset;
     }
 
     public SeedByteBuffer order(ByteOrder byteOrder){
@@ -139,11 +173,11 @@ public class SeedByteBuffer {
         Objects.requireNonNull(value, "value cannot be null");
         byte[] src = value.getBytes(charset);
         byte[] dest = src;
-        int l = length;
         if(src.length!=length) {
-            l = length < src.length ? length : src.length;
+            //fixed length fields are space padded
             dest = new byte[length];
-            System.arraycopy(src, 0, dest, 0, src.length);
+            Arrays.fill(dest, (byte) ' ');
+            System.arraycopy(src, 0, dest, 0, Math.min(length, src.length));
         }
         bb.put(dest);
         return this;
@@ -377,4 +411,12 @@ public class SeedByteBuffer {
     public static SeedByteBuffer wrap(byte[] bytes, int offset, int length, ByteOrder byteOrder) {
         return new SeedByteBuffer(bytes, byteOrder, offset, length);
     }
+
+    /**
+     * Wraps {@code buffer[offset, offset+length)} without copying, the position and limit of buffer are left as is.
+     */
+    public static SeedByteBuffer wrap(ByteBuffer buffer, int offset, int length, ByteOrder byteOrder) {
+        Objects.requireNonNull(buffer, "buffer cannot be null");
+        return new SeedByteBuffer(buffer, byteOrder, offset, length);
+    }
 }
@@ -1,13 +1,31 @@
 package org.earthscope.seed.util;
 
 
+import org.earthscope.seed.SeedException;
 import org.earthscope.seed.data.DataRecord;
 import org.earthscope.seed.data.SeedDataHeader;
+import org.earthscope.seed.data.SeedDataHeaderView;
+import org.earthscope.seed.io.RecordParser;
+import org.earthscope.seed.io.RecordReader;
+import org.earthscope.seed.io.RecordRepacker;
+import org.earthscope.seed.io.RecordWriter;
 
 import java.io.*;
+import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 public class SeedFile {
     private SeedFile() {
@@ -29,23 +47,118 @@ public class SeedFile {
 
     public static int countRecords(final File file) throws IOException {
         Objects.requireNonNull(file);
-        try (InputStream inputStream = new FileInputStream(file)) {
-            return SeedIO.countRecords(inputStream);
+        try (MappedSeedFile mapped = MappedSeedFile.open(file)) {
+            SeedDataHeaderView view = new SeedDataHeaderView();
+            for (int i = 0; i < mapped.getNumberOfRecords(); i++) {
+                //make sure no exceptions
+                SeedIO.validate(mapped.view(i, view), mapped.getRecordLength(i));
+            }
+            return mapped.getNumberOfRecords();
         }
     }
 
     public static List<SeedDataHeader> readHeaders(final File file) throws IOException {
         Objects.requireNonNull(file);
-        try (InputStream inputStream = new FileInputStream(file)) {
-            return SeedIO.readHeaders(inputStream);
+        try (MappedSeedFile mapped = MappedSeedFile.open(file)) {
+            List<SeedDataHeader> headers = new ArrayList<>(mapped.getNumberOfRecords());
+            for (int i = 0; i < mapped.getNumberOfRecords(); i++) {
+                headers.add(mapped.readHeader(i));
+            }
+            return headers;
         }
     }
+
     public static List<DataRecord> read(final File file) throws IOException {
         Objects.requireNonNull(file);
-        try (InputStream inputStream = new FileInputStream(file)) {
-            return SeedIO.read(inputStream);
+        try (MappedSeedFile mapped = MappedSeedFile.open(file)) {
+            RecordParser parser = new RecordParser();
+            List<DataRecord> records = new ArrayList<>(mapped.getNumberOfRecords());
+            for (int i = 0; i < mapped.getNumberOfRecords(); i++) {
+                records.add(mapped.read(i, parser));
+            }
+            return records;
+        }
+    }
+
+    /**
+     * Same as {@link #read(File)} but records are decoded on the common ForkJoinPool.
+     */
+    public static List<DataRecord> readParallel(final File file) throws IOException {
+        return ParallelRecordReader.builder().build().read(file);
+    }
+
+    /**
+     * Returns a sequential, ordered and sized stream of the records in file, backed by a memory mapping. The stream
+     * splits at record boundaries so {@code .parallel()} decodes on every worker. Close the stream to release the
+     * mapping.
+     * <pre>
+     * try (Stream&lt;DataRecord&gt; records = SeedFile.stream(file)) {
+     *     records.parallel().filter(...).forEach(...);
+     * }
+     * </pre>
+     */
+    public static Stream<DataRecord> stream(final File file) throws IOException {
+        MappedSeedFile mapped = MappedSeedFile.open(file);
+        return StreamSupport.stream(new RecordSpliterator(mapped), false).onClose(() -> {
+            try {
+                mapped.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    public static MappedSeedFile map(final File file) throws IOException {
+        return MappedSeedFile.open(file);
+    }
+
+    public static SeedIndex index(final File file) throws IOException {
+        return SeedIndex.build(file);
+    }
+
+    /**
+     * Writes the records of input to output ordered by channel, start time and quality code, without duplicates. See
+     * {@link RecordSorter} for inputs larger than the default memory budget.
+     */
+    public static void sort(final File input, final File output) throws IOException {
+        RecordSorter.builder().build().sort(input, output);
+    }
+
+    /**
+     * Reads the records of one channel intersecting [start, end], seeking straight to them using an index built for
+     * file. Records are returned ordered by start time.
+     */
+    public static List<DataRecord> query(final File file, SeedIndex index, String network, String station,
+                                         String location, String channel, Instant start, Instant end)
+            throws IOException {
+        Objects.requireNonNull(file);
+        Objects.requireNonNull(index);
+        int[] entries = index.query(network, station, location, channel, start, end);
+        List<DataRecord> records = new ArrayList<>(entries.length);
+        if (entries.length == 0) {
+            return records;
+        }
+        try (FileChannel fileChannel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            RecordParser parser = new RecordParser();
+            for (int entry : entries) {
+                byte[] bytes = new byte[index.getLength(entry)];
+                ByteBuffer buffer = ByteBuffer.wrap(bytes);
+                long position = index.getOffset(entry);
+                while (buffer.hasRemaining()) {
+                    if (fileChannel.read(buffer, position + buffer.position()) < 0) {
+                        throw new EOFException("Index entry beyond end of " + file + " at offset " + position);
+                    }
+                }
+                try {
+                    records.add(parser.parse(bytes));
+                } catch (SeedException e) {
+                    throw new IOException("Invalid record at offset " + position, e);
+                }
+            }
         }
+        return records;
     }
+
     /**
      * Returns an Iterator for the records in a {@code File}.
      * <p>
@@ -99,7 +212,7 @@ public class SeedFile {
     }
 
     public static void write(File file, DataRecord dataRecord, ByteOrder byteOrder) throws IOException {
-
+        write(file, Collections.singletonList(dataRecord), byteOrder);
     }
 
     public static void write(File file, List<DataRecord> dataRecords) throws IOException {
@@ -107,18 +220,55 @@ public class SeedFile {
     }
 
     public static void write(File file, List<DataRecord> dataRecords, ByteOrder byteOrder) throws IOException {
-        for (DataRecord dr : dataRecords) {
-            write(file, dr, byteOrder);
+        Objects.requireNonNull(file);
+        Objects.requireNonNull(dataRecords);
+        try (RecordWriter writer = new RecordWriter(new BufferedOutputStream(new FileOutputStream(file)), byteOrder)) {
+            for (DataRecord dr : dataRecords) {
+                writer.write(dr);
+            }
         }
     }
 
+    /**
+     * Rewrites file in byteOrder keeping its record length, see {@link #resize(File, ByteOrder, int)}.
+     */
     public static void resize(File file, ByteOrder byteOrder) throws IOException {
-
+        resize(file, byteOrder, determineRecordSize(file));
     }
 
+    /**
+     * Rewrites file with records of recordLength keeping its byte order, see {@link #resize(File, ByteOrder, int)}.
+     */
     public static void resize(File file, int recordLength) throws IOException {
+        resize(file, determineByteOrder(file), recordLength);
     }
 
+    /**
+     * Rewrites file with records of recordLength in byteOrder, streaming the records through a
+     * {@link RecordRepacker} into a temporary file next to it which then replaces file.
+     */
     public static void resize(File file, ByteOrder byteOrder, int recordLength) throws IOException {
+        Objects.requireNonNull(file);
+        Objects.requireNonNull(byteOrder);
+        Path source = file.toPath().toAbsolutePath();
+        Path target = Files.createTempFile(source.getParent(), file.getName(), ".resize");
+        try {
+            try (RecordReader reader = new RecordReader(new BufferedInputStream(new FileInputStream(file), 1 << 16));
+                 OutputStream out = new BufferedOutputStream(Files.newOutputStream(target), 1 << 16);
+                 RecordRepacker repacker = RecordRepacker.builder(out).recordLength(recordLength)
+                         .byteOrder(byteOrder).build()) {
+                DataRecord record;
+                while ((record = reader.read()) != null) {
+                    repacker.write(record);
+                }
+            }
+            try {
+                Files.move(target, source, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(target, source, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(target);
+        }
     }
 }
@@ -6,6 +6,7 @@ import org.earthscope.seed.SeedException;
 import org.earthscope.seed.data.DataBlockette;
 import org.earthscope.seed.data.DataRecord;
 import org.earthscope.seed.data.SeedDataHeader;
+import org.earthscope.seed.data.SeedDataHeaderView;
 import org.earthscope.seed.io.RecordReader;
 import org.earthscope.seed.io.SeedInputStream;
 
@@ -15,9 +16,15 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.PrintWriter;
 import java.nio.ByteOrder;
+import java.time.DateTimeException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 public class SeedIO {
     private SeedIO() {
@@ -39,39 +46,71 @@ public class SeedIO {
     }
 
     public static int countRecords(InputStream inputStream) throws IOException {
+        int[] count = new int[1];
+        scanHeaders(inputStream, view -> count[0]++);
+        return count[0];
+    }
+
+    public static List<SeedDataHeader> readHeaders(InputStream inputStream) throws IOException {
         try (SeedInputStream sis = new SeedInputStream(inputStream)) {
-            int count = 0;
+            List<SeedDataHeader> headers = new ArrayList<>();
             while (true) {
                 byte[] bytes = sis.read();
                 if (bytes == null) {
                     break;
                 }
-                //make sure no exceptions
-                SeedDataHeader.from(bytes);
-                count++;
+                headers.add(SeedDataHeader.from(bytes));
             }
-            return count;
+            return headers;
         } catch (SeedException e) {
             throw new IOException(e);
         }
     }
 
-    public static List<SeedDataHeader> readHeaders(InputStream inputStream) throws IOException {
-        try (SeedInputStream sis = new SeedInputStream(inputStream)) {
-            List<SeedDataHeader> headers = new ArrayList<>();
+    /**
+     * Hands every record header to consumer through one reused {@link SeedDataHeaderView}, no header objects are
+     * created. The view is only valid for the duration of the call.
+     */
+    public static void scanHeaders(InputStream inputStream, Consumer<SeedDataHeaderView> consumer)
+            throws IOException {
+        Objects.requireNonNull(consumer);
+        try (SeedInputStream sis = new SeedInputStream(inputStream).ring(1)) {
+            SeedDataHeaderView view = new SeedDataHeaderView();
             while (true) {
                 byte[] bytes = sis.read();
                 if (bytes == null) {
                     break;
                 }
-                headers.add(SeedDataHeader.from(bytes));
+                consumer.accept(validate(view.wrap(bytes), bytes.length));
             }
-            return headers;
         } catch (SeedException e) {
             throw new IOException(e);
         }
     }
 
+    /**
+     * Checks what parsing the fixed header would: sequence number, record type and start time fields. A record with a
+     * B1000 must also declare the length it was read with, records without B1000 are accepted as before.
+     */
+    static SeedDataHeaderView validate(SeedDataHeaderView view, int recordLength) throws IOException {
+        if (view.getSequence() < 0) {
+            throw new IOException("Invalid sequence number in record header");
+        }
+        try {
+            view.getRecordType();
+            view.getStartEpochNanos();
+        } catch (SeedException e) {
+            throw new IOException(e);
+        } catch (DateTimeException | IllegalArgumentException e) {
+            throw new IOException("Invalid start time in record header: " + e.getMessage(), e);
+        }
+        if (view.findBlockette(1000) >= 0 && view.getRecordLength() != recordLength) {
+            throw new IOException("Invalid record length " + view.getRecordLength() + " in B1000 of a "
+                    + recordLength + " byte record");
+        }
+        return view;
+    }
+
     public static List<DataRecord> read(InputStream inputStream) throws IOException {
         try (RecordReader rr = new RecordReader(inputStream);) {
             List<DataRecord> records = new ArrayList<>();
@@ -119,6 +158,15 @@ public class SeedIO {
         return new RecordIterator(inputStream);
     }
 
+    /**
+     * Returns a sequential, ordered stream of the records in inputStream. The size is not known up front, parallel
+     * streams split it into batches read on the calling thread. Close the stream to close inputStream.
+     */
+    public static Stream<DataRecord> stream(InputStream inputStream) throws IOException {
+        RecordIterator iterator = iterate(inputStream);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator,
+                Spliterator.ORDERED | Spliterator.NONNULL), false).onClose(iterator::close);
+    }
 
     public static void print(InputStream inputStream, OutputStream outputStream) throws IOException {
         try (RecordReader rr = new RecordReader(inputStream); PrintWriter pw = new PrintWriter(outputStream);) {
@@ -0,0 +1,321 @@
+package org.earthscope.seed.util;
+
+import org.earthscope.seed.SeedException;
+import org.earthscope.seed.data.Nslc;
+import org.earthscope.seed.data.SeedDataHeaderView;
+import org.earthscope.seed.io.SeedInputStream;
+
+import java.io.*;
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * Channel and time index of a miniSEED file, one entry per record holding network/station/location/channel, start
+ * and end time in nanoseconds since the epoch, byte offset and record length.
+ * <p>
+ * Entries are kept in primitive columns sorted by channel and start time, so a query is a hash lookup of the channel
+ * followed by a binary search on start. Times are taken from the fixed header as is, without the B1001 microseconds or
+ * time correction. The index is built in a single pass over the file and can be persisted next to it with
+ * {@link #write(File)} and loaded again with {@link #read(File)}.
+ * </p>
+ * <pre>
+ * SeedIndex index = SeedIndex.build(file);
+ * List&lt;DataRecord&gt; records = SeedFile.query(file, index, "IU", "ANMO", "00", "BHZ", start, end);
+ * </pre>
+ */
+public class SeedIndex {
+
+    private static final int MAGIC = 0x53494458; // SIDX
+    private static final int VERSION = 1;
+
+    private final String[] channels;
+    private final int[] channelStart;
+    private final int[] channelEnd;
+    private final long[] start;
+    private final long[] end;
+    private final long[] offset;
+    private final int[] length;
+    private final long maxDuration;
+    private final Map<String, Integer> channelIds;
+
+    private SeedIndex(String[] channels, int[] channelStart, int[] channelEnd, long[] start, long[] end,
+                      long[] offset, int[] length) {
+        this.channels = channels;
+        this.channelStart = channelStart;
+        this.channelEnd = channelEnd;
+        this.start = start;
+        this.end = end;
+        this.offset = offset;
+        this.length = length;
+        long max = 0;
+        for (int i = 0; i < start.length; i++) {
+            max = Math.max(max, end[i] - start[i]);
+        }
+        this.maxDuration = max;
+        this.channelIds = new HashMap<>();
+        for (int i = 0; i < channels.length; i++) {
+            channelIds.put(channels[i], i);
+        }
+    }
+
+    public static SeedIndex build(File file) throws IOException {
+        Objects.requireNonNull(file);
+        try (InputStream inputStream = new FileInputStream(file)) {
+            return build(inputStream);
+        }
+    }
+
+    /**
+     * Indexes every record of inputStream, offsets are relative to the first byte read.
+     */
+    public static SeedIndex build(InputStream inputStream) throws IOException {
+        Objects.requireNonNull(inputStream);
+        Builder builder = new Builder();
+        try (SeedInputStream sis = new SeedInputStream(inputStream).ring(1)) {
+            SeedDataHeaderView view = new SeedDataHeaderView();
+            long position = 0;
+            while (true) {
+                byte[] bytes = sis.read();
+                if (bytes == null) {
+                    break;
+                }
+                SeedIO.validate(view.wrap(bytes), bytes.length);
+                builder.add(view, position, bytes.length);
+                position += bytes.length;
+            }
+        } catch (SeedException e) {
+            throw new IOException(e);
+        }
+        return builder.build();
+    }
+
+    public static SeedIndex read(File file) throws IOException {
+        Objects.requireNonNull(file);
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            return read(in);
+        }
+    }
+
+    public static SeedIndex read(DataInputStream in) throws IOException {
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a seed index");
+        }
+        int version = in.readInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported seed index version " + version);
+        }
+        int numberOfChannels = in.readInt();
+        String[] channels = new String[numberOfChannels];
+        int[] channelStart = new int[numberOfChannels];
+        int[] channelEnd = new int[numberOfChannels];
+        for (int i = 0; i < numberOfChannels; i++) {
+            channels[i] = in.readUTF();
+            channelStart[i] = in.readInt();
+            channelEnd[i] = in.readInt();
+        }
+        int size = in.readInt();
+        long[] start = new long[size];
+        long[] end = new long[size];
+        long[] offset = new long[size];
+        int[] length = new int[size];
+        for (int i = 0; i < size; i++) {
+            start[i] = in.readLong();
+            // end is stored as the record duration in microseconds, rounded up
+            end[i] = start[i] + in.readInt() * 1000L;
+            offset[i] = in.readLong();
+            length[i] = in.readInt();
+        }
+        return new SeedIndex(channels, channelStart, channelEnd, start, end, offset, length);
+    }
+
+    public void write(File file) throws IOException {
+        Objects.requireNonNull(file);
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+            write(out);
+        }
+    }
+
+    /**
+     * Layout: magic, version, channel count, per channel (name, first entry, end entry), entry count, per entry
+     * (start nanos, duration in microseconds, offset, length). All values big endian.
+     */
+    public void write(DataOutputStream out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(channels.length);
+        for (int i = 0; i < channels.length; i++) {
+            out.writeUTF(channels[i]);
+            out.writeInt(channelStart[i]);
+            out.writeInt(channelEnd[i]);
+        }
+        out.writeInt(start.length);
+        for (int i = 0; i < start.length; i++) {
+            out.writeLong(start[i]);
+            out.writeInt((int) Math.min(Integer.MAX_VALUE, (end[i] - start[i] + 999) / 1000));
+            out.writeLong(offset[i]);
+            out.writeInt(length[i]);
+        }
+    }
+
+    public int size() {
+        return start.length;
+    }
+
+    /**
+     * @return the indexed channels as NET.STA.LOC.CHAN
+     */
+    public List<String> getChannels() {
+        return Collections.unmodifiableList(Arrays.asList(channels));
+    }
+
+    public long getStartNanos(int index) {
+        return start[index];
+    }
+
+    public long getEndNanos(int index) {
+        return end[index];
+    }
+
+    public long getOffset(int index) {
+        return offset[index];
+    }
+
+    public int getLength(int index) {
+        return length[index];
+    }
+
+    public int[] query(String network, String station, String location, String channel, Instant start,
+                       Instant end) {
+        Objects.requireNonNull(start);
+        Objects.requireNonNull(end);
+        return query(network, station, location, channel, DateTimeUtil.toEpochNanos(start),
+                DateTimeUtil.toEpochNanos(end));
+    }
+
+    /**
+     * @return indices of the entries of the channel whose time span intersects [startNanos, endNanos], ordered by
+     * start time
+     */
+    public int[] query(String network, String station, String location, String channel, long startNanos,
+                       long endNanos) {
+        Integer id = channelIds.get(key(network, station, location, channel));
+        if (id == null || startNanos > endNanos) {
+            return new int[0];
+        }
+        int from = channelStart[id];
+        int to = channelEnd[id];
+        // no record of this channel that starts before this can reach startNanos
+        int low = lowerBound(from, to, startNanos - maxDuration);
+        int high = lowerBound(low, to, endNanos + 1);
+        int[] result = new int[high - low];
+        int count = 0;
+        for (int i = low; i < high; i++) {
+            if (end[i] >= startNanos) {
+                result[count++] = i;
+            }
+        }
+        return count == result.length ? result : Arrays.copyOf(result, count);
+    }
+
+    private int lowerBound(int from, int to, long value) {
+        int low = from;
+        int high = to;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (start[mid] < value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    static String key(String network, String station, String location, String channel) {
+        return trim(network) + "." + trim(station) + "." + trim(location) + "." + trim(channel);
+    }
+
+    private static String trim(String value) {
+        return value == null ? "" : value.trim();
+    }
+
+    private static class Builder {
+        private final Map<Nslc, Integer> ids = new HashMap<>();
+        private final List<String> channels = new ArrayList<>();
+        private int[] channel = new int[1024];
+        private long[] start = new long[1024];
+        private long[] end = new long[1024];
+        private long[] offset = new long[1024];
+        private int[] length = new int[1024];
+        private int size;
+
+        void add(SeedDataHeaderView view, long position, int recordLength) {
+            if (size == start.length) {
+                int capacity = size * 2;
+                channel = Arrays.copyOf(channel, capacity);
+                start = Arrays.copyOf(start, capacity);
+                end = Arrays.copyOf(end, capacity);
+                offset = Arrays.copyOf(offset, capacity);
+                length = Arrays.copyOf(length, capacity);
+            }
+            Nslc nslc = view.getNslc();
+            Integer id = ids.get(nslc);
+            if (id == null) {
+                id = channels.size();
+                ids.put(nslc, id);
+                channels.add(nslc.toString());
+            }
+            long startNanos = view.getStartEpochNanos();
+            channel[size] = id;
+            start[size] = startNanos;
+            end[size] = startNanos + DateTimeUtil.toNanos(view.getNumberOfSamples() - 1, view.getSampleRate());
+            offset[size] = position;
+            length[size] = recordLength;
+            size++;
+        }
+
+        SeedIndex build() {
+            Integer[] order = new Integer[size];
+            for (int i = 0; i < size; i++) {
+                order[i] = i;
+            }
+            String[] names = channels.toArray(new String[0]);
+            // channels sorted by name, entries by channel then start, ties keep file order
+            Integer[] byName = new Integer[names.length];
+            for (int i = 0; i < names.length; i++) {
+                byName[i] = i;
+            }
+            Arrays.sort(byName, Comparator.comparing(i -> names[i]));
+            int[] rank = new int[names.length];
+            for (int i = 0; i < byName.length; i++) {
+                rank[byName[i]] = i;
+            }
+            Arrays.sort(order, (a, b) -> {
+                int c = Integer.compare(rank[channel[a]], rank[channel[b]]);
+                return c != 0 ? c : Long.compare(start[a], start[b]);
+            });
+            String[] sortedNames = new String[names.length];
+            int[] channelStart = new int[names.length];
+            int[] channelEnd = new int[names.length];
+            long[] sortedStart = new long[size];
+            long[] sortedEnd = new long[size];
+            long[] sortedOffset = new long[size];
+            int[] sortedLength = new int[size];
+            for (int i = 0; i < size; i++) {
+                int e = order[i];
+                int r = rank[channel[e]];
+                if (sortedNames[r] == null) {
+                    sortedNames[r] = names[channel[e]];
+                    channelStart[r] = i;
+                }
+                channelEnd[r] = i + 1;
+                sortedStart[i] = start[e];
+                sortedEnd[i] = end[e];
+                sortedOffset[i] = offset[e];
+                sortedLength[i] = length[e];
+            }
+            return new SeedIndex(sortedNames, channelStart, channelEnd, sortedStart, sortedEnd, sortedOffset,
+                    sortedLength);
+        }
+    }
+}
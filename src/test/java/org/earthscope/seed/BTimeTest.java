@@ -0,0 +1,125 @@
+package org.earthscope.seed;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BTimeTest {
+
+    @Test
+    public void fieldsMatchJavaTime() {
+        for (int year : new int[]{1600, 1899, 1900, 1904, 1969, 1970, 1999, 2000, 2010, 2024, 2100, 2262}) {
+            int days = LocalDate.of(year, 1, 1).lengthOfYear();
+            for (int dayOfYear = 1; dayOfYear <= days; dayOfYear++) {
+                int hour = dayOfYear % 24;
+                int minute = dayOfYear % 60;
+                int second = (dayOfYear * 7) % 60;
+                int tenthMilliSecond = (dayOfYear * 37) % 10000;
+                ZonedDateTime expected = LocalDate.ofYearDay(year, dayOfYear)
+                        .atTime(hour, minute, second, tenthMilliSecond * 100_000).atZone(ZoneOffset.UTC);
+                BTime time = BTime.valueOf(year, dayOfYear, hour, minute, second, tenthMilliSecond);
+
+                assertEquals(expected.toInstant(), time.toInstant());
+                assertEquals(expected.toEpochSecond(), time.toEpochSecond());
+                assertEquals(expected.toEpochSecond(),
+                        BTime.toEpochSecond(year, dayOfYear, hour, minute, second));
+                assertEquals(year, time.getYear());
+                assertEquals(expected.getMonthValue(), time.getMonthOfYear());
+                assertEquals(expected.getDayOfMonth(), time.getDayOfMonth());
+                assertEquals(dayOfYear, time.getDayOfYear());
+                assertEquals(hour, time.getHour());
+                assertEquals(minute, time.getMinute());
+                assertEquals(second, time.getSecond());
+                assertEquals(tenthMilliSecond, time.getTenthMilliSecond());
+                assertEquals(expected.toLocalTime(), time.toLocalTime());
+                if (year > 1677 && year < 2262) {
+                    long nanos = expected.toEpochSecond() * 1_000_000_000L + expected.getNano();
+                    assertEquals(nanos, time.toEpochNanos());
+                    assertEquals(nanos, BTime.toEpochNanos(year, dayOfYear, hour, minute, second, tenthMilliSecond));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void dayOfYear366() {
+        assertEquals(LocalDate.of(2000, 12, 31), BTime.valueOf(2000, 366).toZonedDateTime().toLocalDate());
+        assertEquals(LocalDate.of(2024, 12, 31), BTime.valueOf(2024, 366).toZonedDateTime().toLocalDate());
+        assertThrows(DateTimeException.class, () -> BTime.valueOf(1900, 366));
+        assertThrows(DateTimeException.class, () -> BTime.valueOf(2100, 366));
+        assertThrows(DateTimeException.class, () -> BTime.valueOf(2023, 366));
+        assertThrows(DateTimeException.class, () -> BTime.valueOf(2023, 0));
+        assertThrows(DateTimeException.class, () -> BTime.valueOf(2023, 1, 24, 0, 0, 0));
+        assertThrows(IllegalArgumentException.class, () -> BTime.valueOf(2023, 1, 0, 0, 0, 10000));
+    }
+
+    @Test
+    public void plusNanoSeconds() {
+        Random random = new Random(7);
+        long[] deltas = {0, 1, -1, 999_999_999, -999_999_999, 1_000_000_000, -1_000_000_000, 86_400_000_000_000L,
+                -86_400_000_000_000L, 86_399_999_999_999L, -86_400_000_000_001L, 366L * 86_400_000_000_000L};
+        for (int i = 0; i < 2000; i++) {
+            Instant start = Instant.ofEpochSecond(random.nextInt() * 4L, random.nextInt(1_000_000_000));
+            long delta = i < deltas.length ? deltas[i] : random.nextLong() % (400L * 86_400_000_000_000L);
+            BTime time = BTime.valueOf(start).plusNanoSeconds(delta);
+            Instant expected = start.plusNanos(delta);
+            assertEquals(expected, time.toInstant());
+            assertTrue(time.getNano() >= 0 && time.getNano() < 1_000_000_000);
+            assertEquals(expected.atZone(ZoneOffset.UTC).getDayOfYear(), time.getDayOfYear());
+        }
+        // crossing midnight backwards into the previous year
+        BTime newYear = BTime.valueOf(2001, 1, 0, 0, 0, 5);
+        BTime before = newYear.plusNanoSeconds(-1_000_000);
+        assertEquals(2000, before.getYear());
+        assertEquals(366, before.getDayOfYear());
+        assertEquals(23, before.getHour());
+        assertEquals(59, before.getSecond());
+        assertEquals(999_500_000, before.getNano());
+        assertEquals(BTime.valueOf(2000, 366, 23, 59, 59, 9995).plusTenthMilliSeconds(10), newYear);
+        assertEquals(BTime.valueOf(1970, 1).plusMicroSecond(-1).toInstant(), Instant.EPOCH.minusNanos(1000));
+    }
+
+    @Test
+    public void epochNanosRoundTrip() {
+        Random random = new Random(11);
+        long[] values = {0, 1, -1, -999_999_999, -1_000_000_000, -1_000_000_001, Long.MAX_VALUE, Long.MIN_VALUE};
+        for (int i = 0; i < 2000; i++) {
+            long nanos = i < values.length ? values[i] : random.nextLong();
+            BTime time = BTime.ofEpochNanos(nanos);
+            assertEquals(nanos, time.toEpochNanos());
+            assertEquals(Instant.EPOCH.plusNanos(nanos), time.toInstant());
+            assertEquals(time, BTime.valueOf(time.toInstant()));
+        }
+    }
+
+    @Test
+    public void equalsCompareToHashCode() {
+        BTime a = BTime.valueOf(1969, 365, 23, 59, 59, 9999);
+        BTime b = BTime.ofEpochNanos(-100_000);
+        BTime c = BTime.valueOf(1970, 1);
+        assertEquals(a, b);
+        assertEquals(a.hashCode(), b.hashCode());
+        assertEquals(0, a.compareTo(b));
+        assertNotEquals(a, c);
+        assertTrue(a.compareTo(c) < 0);
+        assertTrue(c.compareTo(a) > 0);
+        assertTrue(a.isBefore(c));
+        assertTrue(c.isAfter(a));
+        assertTrue(c.compareTo(c.plusNanoSeconds(1)) < 0);
+        assertTrue(c.compareTo(c.plusNanoSeconds(-1)) > 0);
+        assertNotEquals(c, c.plusNanoSeconds(1));
+        assertEquals(c, c.plusNanoSeconds(1).plusNanoSeconds(-1));
+        assertEquals(BTime.valueOf(2010, 58, 6, 30, 0, 195),
+                BTime.valueOf(Instant.parse("2010-02-27T06:30:00.0195Z")));
+    }
+}
@@ -0,0 +1,55 @@
+package org.earthscope.seed.codec;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+public class DecoderTest {
+
+    private static final int[] VALUES = {0, 1, -1, 32767, -32768, 8388607, -8388608, 123456789};
+
+    @Test
+    public void uncompressed() throws Exception {
+        for (ByteOrder byteOrder : new ByteOrder[]{ByteOrder.BIG_ENDIAN, ByteOrder.LITTLE_ENDIAN}) {
+            ByteBuffer shorts = ByteBuffer.allocate(VALUES.length * 2).order(byteOrder);
+            ByteBuffer ints = ByteBuffer.allocate(VALUES.length * 4).order(byteOrder);
+            ByteBuffer int24s = ByteBuffer.allocate(VALUES.length * 3);
+            ByteBuffer floats = ByteBuffer.allocate(VALUES.length * 4).order(byteOrder);
+            ByteBuffer doubles = ByteBuffer.allocate(VALUES.length * 8).order(byteOrder);
+            int[] expectedShorts = new int[VALUES.length];
+            int[] expectedInt24s = new int[VALUES.length];
+            float[] expectedFloats = new float[VALUES.length];
+            double[] expectedDoubles = new double[VALUES.length];
+            for (int i = 0; i < VALUES.length; i++) {
+                int v = VALUES[i];
+                shorts.putShort((short) v);
+                expectedShorts[i] = (short) v;
+                ints.putInt(v);
+                int v24 = (v << 8) >> 8;
+                expectedInt24s[i] = v24;
+                if (byteOrder == ByteOrder.BIG_ENDIAN) {
+                    int24s.put((byte) (v24 >> 16)).put((byte) (v24 >> 8)).put((byte) v24);
+                } else {
+                    int24s.put((byte) v24).put((byte) (v24 >> 8)).put((byte) (v24 >> 16));
+                }
+                floats.putFloat(v / 3f);
+                expectedFloats[i] = v / 3f;
+                doubles.putDouble(v / 3d);
+                expectedDoubles[i] = v / 3d;
+            }
+            assertArrayEquals(expectedShorts, Codec.decoder(EncodingFormat.SHORT).byteOrder(byteOrder)
+                    .expectedNumberOfSamples(VALUES.length).decode(shorts.array(), 0));
+            assertArrayEquals(expectedInt24s, Codec.decoder(EncodingFormat.INT24).byteOrder(byteOrder)
+                    .expectedNumberOfSamples(VALUES.length).decode(int24s.array(), 0));
+            assertArrayEquals(VALUES, Codec.decoder(EncodingFormat.INTEGER).byteOrder(byteOrder)
+                    .expectedNumberOfSamples(VALUES.length).decode(ints.array(), 0));
+            assertArrayEquals(expectedFloats, Codec.decoder(EncodingFormat.FLOAT).byteOrder(byteOrder)
+                    .expectedNumberOfSamples(VALUES.length).decodeFloats(floats.array(), 0));
+            assertArrayEquals(expectedDoubles, Codec.decoder(EncodingFormat.DOUBLE).byteOrder(byteOrder)
+                    .expectedNumberOfSamples(VALUES.length).decodeDoubles(doubles.array(), 0));
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package org.earthscope.seed.data;
+
+import org.earthscope.seed.TestFile;
+import org.earthscope.seed.io.RecordReader;
+import org.junit.jupiter.api.Test;
+
+import java.io.FileInputStream;
+import java.io.InputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class DataRecordTest {
+
+    @Test
+    public void repeatedBlockettes() throws Exception {
+        try (InputStream inputStream = new FileInputStream(TestFile.getFile());
+             RecordReader rr = new RecordReader(inputStream)) {
+            DataRecord record = rr.read();
+            assertEquals(2, record.getNumberOfBlockettes());
+            assertSame(record.getB1000(), record.get(1000));
+            assertSame(record.getB1001(), record.getAll().get(1));
+            assertNull(record.get(2000));
+
+            B2000 first = new B2000();
+            B2000 second = new B2000();
+            record.add(first);
+            record.add(second);
+            assertEquals(4, record.getNumberOfBlockettes());
+            assertEquals(4, record.getHeader().getNumberOfFollowingBlockettes());
+            assertSame(first, record.get(2000));
+            assertEquals(2, record.getAll(2000).size());
+            assertSame(second, record.getAll(2000).get(1));
+            assertSame(record.getB1000(), record.getAll().get(0));
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package org.earthscope.seed.data;
+
+import org.earthscope.seed.TestFile;
+import org.earthscope.seed.util.SeedFile;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class NslcTest {
+
+    @Test
+    public void intern() throws Exception {
+        List<SeedDataHeader> headers = SeedFile.readHeaders(TestFile.getFile());
+        Nslc nslc = Nslc.of("IU", "ANMO", "00", "BHZ");
+        for (SeedDataHeader header : headers) {
+            assertSame(nslc, header.getNslc());
+        }
+        assertEquals("IU.ANMO.00.BHZ", nslc.toString());
+        assertEquals("00", headers.get(0).getLocation());
+
+        byte[] padded = "ANMO 00BHZIU".getBytes(StandardCharsets.US_ASCII);
+        assertSame(nslc, Nslc.of(padded, 0));
+        byte[] rightJustified = " ANMO00BHZIU".getBytes(StandardCharsets.US_ASCII);
+        assertSame(nslc, Nslc.of(rightJustified, 0));
+
+        Nslc empty = Nslc.of("IU", "ANMO", "", "BHZ");
+        assertNotSame(nslc, empty);
+        assertEquals("", empty.getLocation());
+        assertEquals("  ", empty.getLocationCode());
+    }
+}
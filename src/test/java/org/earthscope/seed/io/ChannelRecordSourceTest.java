@@ -0,0 +1,40 @@
+package org.earthscope.seed.io;
+
+import org.earthscope.seed.TestFile;
+import org.earthscope.seed.data.DataRecord;
+import org.earthscope.seed.util.SeedFile;
+import org.junit.jupiter.api.Test;
+
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class ChannelRecordSourceTest {
+
+    @Test
+    public void read() throws Exception {
+        List<DataRecord> expected = SeedFile.read(TestFile.getFile());
+        // buffers smaller than the file and not a multiple of the record length force refills mid record
+        try (ChannelRecordSource sequential = ChannelRecordSource.of(
+                FileChannel.open(TestFile.getFile().toPath(), StandardOpenOption.READ), 5000);
+             ChannelRecordSource readAhead = ChannelRecordSource.of(
+                     AsynchronousFileChannel.open(TestFile.getFile().toPath(), StandardOpenOption.READ), 0, 5000)) {
+            for (DataRecord record : expected) {
+                DataRecord a = sequential.read();
+                DataRecord b = readAhead.read();
+                assertEquals(record.getHeader().toString(), a.getHeader().toString());
+                assertEquals(record.getHeader().toString(), b.getHeader().toString());
+                assertEquals(record.getAll().size(), a.getAll().size());
+                assertArrayEquals(record.getSamples(), a.getSamples());
+                assertArrayEquals(record.getSamples(), b.getSamples());
+            }
+            assertNull(sequential.read());
+            assertNull(readAhead.read());
+        }
+    }
+}
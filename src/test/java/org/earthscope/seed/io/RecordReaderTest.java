@@ -1,16 +1,28 @@
 package org.earthscope.seed.io;
 
 import org.earthscope.seed.Blockette;
+import org.earthscope.seed.SeedException;
 import org.earthscope.seed.TestFile;
 import org.earthscope.seed.data.B1000;
+import org.earthscope.seed.data.DataBlockette;
+import org.earthscope.seed.data.DataBlocketteFactory;
 import org.earthscope.seed.data.DataRecord;
 import org.earthscope.seed.data.SeedDataHeader;
+import org.earthscope.seed.util.DateTimeUtil;
 import org.junit.jupiter.api.Test;
 
 import java.io.FileInputStream;
 import java.io.InputStream;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class RecordReaderTest {
 
@@ -27,7 +39,105 @@ public class RecordReaderTest {
                 SeedDataHeader header = dr.getHeader();
                 dr.computeEndTime();
                 assertEquals("BHZ", header.getChannel());
+                assertNotNull(dr.getSamples());
+                assertEquals(header.getNumberOfSamples(), dr.getSamples().length);
             }
         }
     }
+
+    @Test
+    public void selectedBlockettes() throws Exception {
+        try (InputStream inputStream = new FileInputStream(TestFile.getFile());
+             RecordReader rr = new RecordReader(inputStream).blockettes(500)) {
+            DataRecord record = rr.read();
+            assertNotNull(record.getB1000());
+            assertNull(record.getB1001());
+            assertEquals(1, record.getNumberOfBlockettes());
+            assertEquals(record.getNumberOfSamples(), record.getSamples().length);
+        }
+        try (InputStream inputStream = new FileInputStream(TestFile.getFile());
+             RecordReader rr = new RecordReader(inputStream).blockettes(1001)) {
+            assertNotNull(rr.read().getB1001());
+        }
+    }
+
+    @Test
+    public void select() throws Exception {
+        List<DataRecord> all = new ArrayList<>();
+        try (RecordReader rr = new RecordReader(new FileInputStream(TestFile.getFile()))) {
+            DataRecord record;
+            while ((record = rr.read()) != null) {
+                all.add(record);
+            }
+        }
+        long from = all.get(100).getStartTimeNanos();
+        long to = all.get(199).getStartTimeNanos();
+        long expected = all.stream().filter(r -> {
+            long start = r.getStartTimeNanos();
+            long end = start + DateTimeUtil.toNanos(r.getNumberOfSamples() - 1, r.getHeader().getSampleRate());
+            return start <= to && end >= from;
+        }).count();
+
+        RecordSelector selector = RecordSelector.builder().network("IU,II").station("AN*").location("00")
+                .channel("BH?").startNanos(from).endNanos(to).quality('M').build();
+        try (RecordReader rr = new RecordReader(new FileInputStream(TestFile.getFile())).select(selector)) {
+            DataRecord record;
+            int count = 0;
+            while ((record = rr.read()) != null) {
+                assertEquals(all.get(100 + count).getSequence(), record.getSequence());
+                count++;
+            }
+            assertEquals(expected, count);
+            assertEquals(all.size() - expected, rr.getUnselectedRecords());
+        }
+
+        for (RecordSelector none : new RecordSelector[]{RecordSelector.builder().channel("LHZ").build(),
+                RecordSelector.builder().location("--").build(), RecordSelector.builder().quality('D').build()}) {
+            try (RecordReader rr = new RecordReader(new FileInputStream(TestFile.getFile())).select(none)) {
+                assertNull(rr.read());
+                assertEquals(all.size(), rr.getUnselectedRecords());
+            }
+        }
+    }
+
+    @Test
+    public void unknownBlockettes() throws Exception {
+        byte[] bytes = new byte[512];
+        try (InputStream inputStream = new FileInputStream(TestFile.getFile())) {
+            assertEquals(512, inputStream.read(bytes));
+        }
+        // turn the B1001 at offset 56 into a vendor blockette of the same length
+        bytes[56] = (byte) 0xFA;
+        bytes[57] = (byte) 0x01;
+
+        DataRecord record = new RecordParser().parse(bytes);
+        assertNotNull(record.getB1000());
+        assertNull(record.getB1001());
+        assertEquals(1, record.getNumberOfBlockettes());
+        assertEquals(record.getNumberOfSamples(), record.getSamples().length);
+
+        assertThrows(SeedException.class, () -> new RecordParser().skipUnknownBlockettes(false).parse(bytes));
+
+        DataBlocketteFactory.register(0xFA01, 8, buffer -> {
+            buffer.checkType(0xFA01);
+            DataBlockette blockette = new DataBlockette(0xFA01, 8, "Vendor blockette") {
+                @Override
+                public byte[] toSeedBytes(ByteOrder byteOrder) {
+                    return new byte[0];
+                }
+            };
+            blockette.setNextBlocketteByteNumber(buffer.getUnsignedShort());
+            return blockette;
+        });
+        try {
+            record = new RecordParser().skipUnknownBlockettes(false).parse(bytes);
+            assertEquals(2, record.getNumberOfBlockettes());
+            assertEquals("Vendor blockette", record.get(0xFA01).getDescription());
+        } finally {
+            // the registry is shared by every test in the JVM
+            assertTrue(DataBlocketteFactory.unregister(0xFA01));
+        }
+        assertFalse(DataBlocketteFactory.isRegistered(0xFA01));
+        assertThrows(SeedException.class, () -> new RecordParser().skipUnknownBlockettes(false).parse(bytes));
+    }
 }
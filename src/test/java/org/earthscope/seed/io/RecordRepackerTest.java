@@ -0,0 +1,187 @@
+package org.earthscope.seed.io;
+
+import org.earthscope.seed.BTime;
+import org.earthscope.seed.TestFile;
+import org.earthscope.seed.codec.EncodingFormat;
+import org.earthscope.seed.data.B100;
+import org.earthscope.seed.data.B500;
+import org.earthscope.seed.data.DataRecord;
+import org.earthscope.seed.data.Nslc;
+import org.earthscope.seed.data.SeedDataHeader;
+import org.earthscope.seed.util.SeedFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RecordRepackerTest {
+
+    @TempDir
+    File directory;
+
+    @Test
+    public void resize() throws Exception {
+        List<DataRecord> records = SeedFile.read(TestFile.getFile());
+        File file = new File(directory, "resize.mseed");
+        Files.copy(TestFile.getFile().toPath(), file.toPath());
+
+        SeedFile.resize(file, ByteOrder.LITTLE_ENDIAN, 4096);
+        assertEquals(4096, SeedFile.determineRecordSize(file));
+        assertEquals(ByteOrder.LITTLE_ENDIAN, SeedFile.determineByteOrder(file));
+        List<DataRecord> merged = SeedFile.read(file);
+        assertTrue(merged.size() < records.size() / 4);
+        assertEquals(records.get(0).getCorrectedStartTime(), merged.get(0).getCorrectedStartTime());
+        assertArrayEquals(samples(records), samples(merged));
+
+        SeedFile.resize(file, ByteOrder.BIG_ENDIAN, 512);
+        SeedFile.resize(file, 256);
+        assertEquals(256, SeedFile.determineRecordSize(file));
+        assertEquals(ByteOrder.BIG_ENDIAN, SeedFile.determineByteOrder(file));
+        List<DataRecord> split = SeedFile.read(file);
+        assertTrue(split.size() > records.size());
+        assertArrayEquals(samples(records), samples(split));
+        DataRecord last = split.get(split.size() - 1);
+        assertEquals(records.get(records.size() - 1).computeEndTime(), last.computeEndTime());
+        assertEquals(1, directory.listFiles().length);
+    }
+
+    @Test
+    public void keepBlockettes() throws Exception {
+        List<DataRecord> records = SeedFile.read(TestFile.getFile()).subList(0, 20);
+        File file = new File(directory, "blockettes.mseed");
+        try (RecordRepacker repacker = RecordRepacker.builder(new FileOutputStream(file)).recordLength(1024)
+                .build()) {
+            for (int i = 0; i < records.size(); i++) {
+                DataRecord record = records.get(i);
+                record.add(B100.builder().actualSampleRate(20).build());
+                if (i == 5) {
+                    record.add(B500.builder().timeOfException(BTime.now()).exceptionType("SYNC").clockModel("GPS")
+                            .clockStatus("locked").build());
+                }
+                repacker.write(record);
+            }
+        }
+        List<DataRecord> repacked = SeedFile.read(file);
+        int b500 = 0;
+        for (DataRecord record : repacked) {
+            assertNotNull(record.getB100());
+            assertEquals(20, record.getB100().getActualSampleRate());
+            B500 timing = (B500) record.get(500);
+            if (timing != null) {
+                b500++;
+                assertEquals(records.get(5).getCorrectedStartTime(), record.getCorrectedStartTime());
+                assertEquals("GPS", timing.getClockModel().trim());
+            }
+        }
+        assertEquals(1, b500);
+        assertArrayEquals(samples(records), samples(repacked));
+        assertNull(repacked.get(0).get(500));
+    }
+
+    @Test
+    public void resizeWithoutIntegerSamples() throws Exception {
+        byte[] bytes = new byte[4 * 512];
+        try (SeedInputStream sis = new SeedInputStream(new FileInputStream(TestFile.getFile()))) {
+            assertEquals(512, sis.read(bytes, 0));
+            assertEquals(512, sis.read(bytes, 512));
+        }
+        // the second record keeps its blockettes but has no samples
+        bytes[512 + 30] = 0;
+        bytes[512 + 31] = 0;
+        float[] floats = {1.5f, -2.25f, 3e7f};
+        double[] doubles = {Math.PI, -1e-300};
+        SeedDataHeader header = SeedFile.readHeaders(TestFile.getFile()).get(0);
+        header.setNslc(Nslc.of("IU", "ANMO", "00", "BDF"));
+        assertEquals(floats.length, RecordPacker.builder().recordLength(512).encodingFormat(EncodingFormat.FLOAT)
+                .build().pack(header, null, Collections.emptyList(), floats, 0, floats.length, bytes, 1024));
+        header.setNslc(Nslc.of("IU", "ANMO", "00", "BDD"));
+        assertEquals(doubles.length, RecordPacker.builder().recordLength(512).encodingFormat(EncodingFormat.DOUBLE)
+                .build().pack(header, null, Collections.emptyList(), doubles, 0, doubles.length, bytes, 1536));
+        File file = new File(directory, "mixed.mseed");
+        Files.write(file.toPath(), bytes);
+        List<DataRecord> records = SeedFile.read(file);
+        DataRecord first = records.get(0);
+        assertNull(records.get(1).getSamples());
+
+        SeedFile.resize(file, 4096);
+        assertEquals(4096, SeedFile.determineRecordSize(file));
+        List<DataRecord> resized = SeedFile.read(file);
+        assertEquals(3, resized.size());
+        assertArrayEquals(first.getSamples(), resized.get(0).getSamples());
+        assertEquals(EncodingFormat.FLOAT, resized.get(1).getEncodingFormat());
+        assertArrayEquals(floats, resized.get(1).getFloatSamples());
+        assertEquals(EncodingFormat.DOUBLE, resized.get(2).getEncodingFormat());
+        assertArrayEquals(doubles, resized.get(2).getDoubleSamples());
+        assertEquals(records.get(3).getCorrectedStartTime(), resized.get(2).getCorrectedStartTime());
+    }
+
+    @Test
+    public void resizeKeepsEncodings() throws Exception {
+        int[] wide = {Integer.MIN_VALUE, Integer.MAX_VALUE, 0, -1};
+        int[] narrow = {Short.MIN_VALUE, Short.MAX_VALUE, 7};
+        StringBuilder log = new StringBuilder();
+        for (int i = 0; log.length() < 400; i++) {
+            log.append("line ").append(i).append(": GPS locked\n");
+        }
+        byte[] text = log.toString().getBytes(StandardCharsets.US_ASCII);
+        SeedDataHeader header = SeedFile.readHeaders(TestFile.getFile()).get(0);
+        byte[] bytes = new byte[3 * 512];
+        pack(header, "BHI", EncodingFormat.INTEGER, wide, wide.length, bytes, 0);
+        pack(header, "BHS", EncodingFormat.SHORT, narrow, narrow.length, bytes, 512);
+        header.setSampleRateFactor(0);
+        header.setSampleRateMultiplier(0);
+        pack(header, "LOG", EncodingFormat.ASCII, text, text.length, bytes, 1024);
+        File file = new File(directory, "encodings.mseed");
+        Files.write(file.toPath(), bytes);
+        List<DataRecord> records = SeedFile.read(file);
+        assertArrayEquals(text, records.get(2).getAsciiSamples());
+
+        SeedFile.resize(file, 4096);
+        List<DataRecord> resized = SeedFile.read(file);
+        assertEquals(3, resized.size());
+        assertEquals(EncodingFormat.INTEGER, resized.get(0).getEncodingFormat());
+        assertArrayEquals(wide, resized.get(0).getSamples());
+        assertEquals(EncodingFormat.SHORT, resized.get(1).getEncodingFormat());
+        assertArrayEquals(narrow, resized.get(1).getSamples());
+        assertEquals(EncodingFormat.ASCII, resized.get(2).getEncodingFormat());
+        assertArrayEquals(text, resized.get(2).getAsciiSamples());
+
+        // 192 bytes of text fit into a 256 byte record, the pieces keep the start of the log record
+        SeedFile.resize(file, 256);
+        List<DataRecord> split = SeedFile.read(file);
+        assertEquals(2 + (text.length + 191) / 192, split.size());
+        ByteArrayOutputStream joined = new ByteArrayOutputStream();
+        for (DataRecord record : split.subList(2, split.size())) {
+            assertEquals("LOG", record.getHeader().getChannel());
+            assertEquals(records.get(2).getCorrectedStartTime(), record.getCorrectedStartTime());
+            joined.write(record.getAsciiSamples());
+        }
+        assertArrayEquals(text, joined.toByteArray());
+    }
+
+    private static void pack(SeedDataHeader header, String channel, EncodingFormat format, Object samples, int count,
+                             byte[] dst, int offset) throws Exception {
+        header.setNslc(Nslc.of("IU", "ANMO", "00", channel));
+        assertEquals(count, RecordPacker.builder().recordLength(512).encodingFormat(format).build()
+                .pack(header, null, Collections.emptyList(), samples, 0, count, dst, offset));
+    }
+
+    private static int[] samples(List<DataRecord> records) {
+        return records.stream().flatMapToInt(r -> Arrays.stream(r.getSamples())).toArray();
+    }
+}
@@ -0,0 +1,55 @@
+package org.earthscope.seed.io;
+
+import org.earthscope.seed.TestFile;
+import org.earthscope.seed.codec.EncodingFormat;
+import org.earthscope.seed.data.DataRecord;
+import org.earthscope.seed.util.SeedFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.nio.ByteOrder;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class RecordWriterTest {
+
+    @TempDir
+    File directory;
+
+    @Test
+    public void writeSameLayout() throws Exception {
+        List<DataRecord> records = SeedFile.read(TestFile.getFile());
+        File file = new File(directory, "copy.mseed");
+        SeedFile.write(file, records);
+        assertEquals(TestFile.getFile().length(), file.length());
+
+        List<DataRecord> copies = SeedFile.read(file);
+        assertEquals(records.size(), copies.size());
+        for (int i = 0; i < records.size(); i++) {
+            assertArrayEquals(records.get(i).getSamples(), copies.get(i).getSamples());
+            assertEquals(records.get(i).getStartTime(), copies.get(i).getStartTime());
+        }
+    }
+
+    @Test
+    public void writeSteim1() throws Exception {
+        List<DataRecord> records = SeedFile.read(TestFile.getFile());
+        File file = new File(directory, "steim1.mseed");
+        try (RecordWriter writer = new RecordWriter(new BufferedOutputStream(new FileOutputStream(file)),
+                ByteOrder.LITTLE_ENDIAN, 4096, EncodingFormat.STEIM1)) {
+            for (DataRecord record : records) {
+                writer.write(record);
+            }
+        }
+        assertEquals(4096, SeedFile.determineRecordSize(file));
+        assertEquals(ByteOrder.LITTLE_ENDIAN, SeedFile.determineByteOrder(file));
+        int expected = records.stream().mapToInt(r -> r.getSamples().length).sum();
+        int actual = SeedFile.read(file).stream().mapToInt(r -> r.getSamples().length).sum();
+        assertEquals(expected, actual);
+    }
+}
@@ -3,6 +3,7 @@ package org.earthscope.seed.io;
 import org.earthscope.seed.TestFile;
 import org.earthscope.seed.data.DataBlocketteFactory;
 import org.earthscope.seed.data.SeedDataHeader;
+import org.earthscope.seed.data.SeedDataHeaderView;
 import org.earthscope.seed.util.DateTimeUtil;
 import org.junit.jupiter.api.Test;
 
@@ -10,6 +11,8 @@ import java.io.FileInputStream;
 import java.io.InputStream;
 import java.time.Instant;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
 public class SeedDataHeaderOnlyTest {
 
     @Test
@@ -29,4 +32,32 @@ public class SeedDataHeaderOnlyTest {
         }
 
     }
+
+    @Test
+    public void readHeaderView() throws Exception {
+        try (InputStream inputStream = new FileInputStream(TestFile.getFile());
+             SeedInputStream seedInputStream = new SeedInputStream(inputStream)) {
+            SeedDataHeaderView view = new SeedDataHeaderView();
+            while (true) {
+                byte[] recordBytes = seedInputStream.read();
+                if (recordBytes == null) {
+                    break;
+                }
+                SeedDataHeader header = DataBlocketteFactory.createHeader(recordBytes);
+                view.wrap(recordBytes);
+                assertEquals(header.getSequence(), view.getSequence());
+                assertEquals(header.getNetwork(), view.getNetwork());
+                assertEquals(header.getStation(), view.getStation());
+                assertEquals(header.getLocation(), view.getLocation());
+                assertEquals(header.getChannel(), view.getChannel());
+                assertEquals(header.getStart().toInstant(), view.getStart().toInstant());
+                assertEquals(DateTimeUtil.toEpochNanos(header.getStart().toInstant()), view.getStartEpochNanos());
+                assertEquals(header.getNumberOfSamples(), view.getNumberOfSamples());
+                assertEquals(header.getSampleRate(), view.getSampleRate());
+                assertEquals(header.getBeginningOfData(), view.getBeginningOfData());
+                assertEquals(header.getFirstDataBlockette(), view.getFirstDataBlockette());
+                assertEquals(512, view.getRecordLength());
+            }
+        }
+    }
 }
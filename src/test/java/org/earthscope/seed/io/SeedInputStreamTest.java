@@ -1,12 +1,28 @@
 package org.earthscope.seed.io;
 
+import org.earthscope.seed.SeedException;
 import org.earthscope.seed.TestFile;
 import org.junit.jupiter.api.Test;
 
+import org.earthscope.seed.data.DataRecord;
+import org.earthscope.seed.util.SeedFile;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.FileInputStream;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 public class SeedInputStreamTest {
 
@@ -27,4 +43,105 @@ public class SeedInputStreamTest {
             assertEquals(1243, cnt);
         }
     }
+
+    @Test
+    public void readMixedRecordLengths() throws Exception {
+        List<DataRecord> records = SeedFile.read(TestFile.getFile()).subList(0, 4);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (RecordWriter small = new RecordWriter(out, ByteOrder.BIG_ENDIAN, 512, null);
+             RecordWriter large = new RecordWriter(out, ByteOrder.BIG_ENDIAN, 4096, null)) {
+            small.write(records.get(0));
+            small.flush();
+            large.write(records.get(1));
+            large.flush();
+            small.write(records.get(2));
+            small.flush();
+        }
+        SeedInputStream seedInputStream = new SeedInputStream(new ByteArrayInputStream(out.toByteArray()));
+        assertEquals(512, seedInputStream.getRecordLength());
+        assertEquals(512, seedInputStream.read().length);
+        assertEquals(4096, seedInputStream.getRecordLength());
+        assertEquals(4096, seedInputStream.read().length);
+        assertEquals(512, seedInputStream.read().length);
+        assertNull(seedInputStream.read());
+        assertEquals(-1, seedInputStream.getRecordLength());
+    }
+
+    @Test
+    public void readWithoutB1000() throws Exception {
+        byte[] bytes = Arrays.copyOf(Files.readAllBytes(TestFile.getFile().toPath()), 3 * 512);
+        for (int offset = 0; offset < bytes.length; offset += 512) {
+            bytes[offset + 39] = 0;
+            bytes[offset + 46] = 0;
+            bytes[offset + 47] = 0;
+        }
+        SeedInputStream seedInputStream = new SeedInputStream(new ByteArrayInputStream(bytes));
+        assertEquals(512, seedInputStream.getRecordLength());
+        for (int i = 0; i < 3; i++) {
+            assertArrayEquals(Arrays.copyOfRange(bytes, i * 512, (i + 1) * 512), seedInputStream.read());
+        }
+        assertNull(seedInputStream.read());
+    }
+
+    @Test
+    public void readIntoBuffers() throws Exception {
+        byte[] file = Files.readAllBytes(TestFile.getFile().toPath());
+        SeedInputStream seedInputStream = new SeedInputStream(new ByteArrayInputStream(file));
+        byte[] small = new byte[100];
+        assertThrows(SeedException.class, () -> seedInputStream.read(small));
+        byte[] dst = new byte[4096];
+        assertEquals(512, seedInputStream.read(dst));
+        assertArrayEquals(Arrays.copyOf(file, 512), Arrays.copyOf(dst, 512));
+        ByteBuffer direct = ByteBuffer.allocateDirect(1024);
+        assertEquals(512, seedInputStream.read(direct));
+        assertEquals(512, seedInputStream.read(direct));
+        direct.flip();
+        byte[] copy = new byte[1024];
+        direct.get(copy);
+        assertArrayEquals(Arrays.copyOfRange(file, 512, 1536), copy);
+
+        seedInputStream.ring(2);
+        byte[] first = seedInputStream.read();
+        byte[] second = seedInputStream.read();
+        assertSame(first, seedInputStream.read());
+        assertSame(second, seedInputStream.read());
+        assertArrayEquals(Arrays.copyOfRange(file, 7 * 512, 8 * 512), seedInputStream.read());
+    }
+
+    @Test
+    public void readTolerant() throws Exception {
+        byte[] file = Files.readAllBytes(TestFile.getFile().toPath());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write("garbage".getBytes(StandardCharsets.US_ASCII));
+        out.write(file, 0, 512);
+        // a partial packet followed by a complete record
+        out.write(file, 512, 100);
+        out.write(file, 1024, 512);
+        out.write(file, 1536, 300);
+        SeedInputStream seedInputStream = new SeedInputStream(new ByteArrayInputStream(out.toByteArray()))
+                .tolerant(true);
+        assertEquals(512, seedInputStream.getRecordLength());
+        assertArrayEquals(Arrays.copyOfRange(file, 0, 512), seedInputStream.read());
+        assertArrayEquals(Arrays.copyOfRange(file, 1024, 1536), seedInputStream.read());
+        assertNull(seedInputStream.read());
+        assertEquals(3, seedInputStream.getSkippedRecords());
+        assertEquals(7 + 100 + 300, seedInputStream.getSkippedBytes());
+
+        // headers near the end of the first probe whose start time cannot be checked there
+        for (int garbage : new int[]{7, 100, 208, 209, 220, 240, 248, 249, 255, 256, 300}) {
+            out.reset();
+            byte[] junk = new byte[garbage];
+            Arrays.fill(junk, (byte) '7');
+            out.write(junk);
+            out.write(file, 0, 3 * 512);
+            seedInputStream = new SeedInputStream(new ByteArrayInputStream(out.toByteArray())).tolerant(true);
+            for (int i = 0; i < 3; i++) {
+                assertArrayEquals(Arrays.copyOfRange(file, i * 512, (i + 1) * 512), seedInputStream.read(),
+                        garbage + " bytes of garbage");
+            }
+            assertNull(seedInputStream.read());
+            assertEquals(garbage, seedInputStream.getSkippedBytes());
+            assertEquals(1, seedInputStream.getSkippedRecords());
+        }
+    }
 }
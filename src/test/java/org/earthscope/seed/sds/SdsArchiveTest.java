@@ -0,0 +1,73 @@
+package org.earthscope.seed.sds;
+
+import org.earthscope.seed.TestFile;
+import org.earthscope.seed.data.DataRecord;
+import org.earthscope.seed.data.Nslc;
+import org.earthscope.seed.io.SeedInputStream;
+import org.earthscope.seed.util.SeedFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.FileInputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SdsArchiveTest {
+
+    @TempDir
+    Path root;
+
+    @Test
+    public void read() throws Exception {
+        SdsArchive archive = new SdsArchive(root);
+        // the test file as location 00 and a copy relabelled as location 10, both on 2010-02-27
+        Path first = archive.path(Nslc.of("IU", "ANMO", "00", "BHZ"), 2010, 58);
+        Path second = archive.path(Nslc.of("IU", "ANMO", "10", "BHZ"), 2010, 58);
+        assertEquals("2010/IU/ANMO/BHZ.D/IU.ANMO.10.BHZ.D.2010.058", root.relativize(second).toString()
+                .replace(root.getFileSystem().getSeparator(), "/"));
+        Files.createDirectories(first.getParent());
+        try (SeedInputStream sis = new SeedInputStream(new FileInputStream(TestFile.getFile()));
+             OutputStream out1 = Files.newOutputStream(first); OutputStream out2 = Files.newOutputStream(second)) {
+            byte[] bytes;
+            while ((bytes = sis.read()) != null) {
+                out1.write(bytes);
+                System.arraycopy("10".getBytes(StandardCharsets.US_ASCII), 0, bytes, 13, 2);
+                out2.write(bytes);
+            }
+        }
+        List<DataRecord> all = SeedFile.read(TestFile.getFile());
+        Instant start = all.get(0).getStartTime();
+        Instant end = all.get(all.size() - 1).computeEndTime();
+
+        assertEquals(2, archive.files("IU", "ANMO", "*", "BHZ", start, end).size());
+        assertEquals(1, archive.files("IU", "AN*", "10", "BH?,HH?", start, end).size());
+        assertTrue(archive.files("IU", "ANMO", "*", "BHZ", start.plusSeconds(366 * 86400),
+                end.plusSeconds(366 * 86400)).isEmpty());
+
+        try (Stream<DataRecord> records = archive.read("IU", "ANMO", "*", "BHZ", start, end)) {
+            List<DataRecord> merged = records.collect(Collectors.toList());
+            assertEquals(2 * all.size(), merged.size());
+            for (int i = 1; i < merged.size(); i++) {
+                assertTrue(merged.get(i - 1).getStartTimeNanos() <= merged.get(i).getStartTimeNanos());
+            }
+            assertEquals(all.size(), merged.stream().filter(r -> r.getHeader().getLocation().equals("10")).count());
+        }
+
+        Instant from = all.get(100).getStartTime();
+        Instant to = all.get(199).getStartTime();
+        try (Stream<DataRecord> records = archive.read("IU", "ANMO", "10", "BHZ", from, to)) {
+            List<DataRecord> window = records.collect(Collectors.toList());
+            assertEquals(100, window.size());
+            assertEquals(all.get(100).getSequence(), window.get(0).getSequence());
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package org.earthscope.seed.sds;
+
+import org.earthscope.seed.BTime;
+import org.earthscope.seed.TestFile;
+import org.earthscope.seed.codec.EncodingFormat;
+import org.earthscope.seed.data.B100;
+import org.earthscope.seed.data.B1001;
+import org.earthscope.seed.data.B500;
+import org.earthscope.seed.data.DataRecord;
+import org.earthscope.seed.data.Nslc;
+import org.earthscope.seed.data.SeedDataHeader;
+import org.earthscope.seed.io.RecordPacker;
+import org.earthscope.seed.io.SeedInputStream;
+import org.earthscope.seed.util.SeedFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.FileInputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SdsWriterTest {
+
+    @TempDir
+    Path root;
+
+    @Test
+    public void writeRaw() throws Exception {
+        try (SdsWriter writer = SdsWriter.builder(root).maxOpenFiles(1).batchSize(4096).build();
+             SeedInputStream sis = new SeedInputStream(new FileInputStream(TestFile.getFile())).ring(1)) {
+            byte[] bytes;
+            while ((bytes = sis.read()) != null) {
+                writer.write(bytes);
+            }
+            assertEquals(1, writer.getOpenFiles());
+            assertEquals(0, writer.getSplitRecords());
+        }
+        Path file = new SdsArchive(root).path(Nslc.of("IU", "ANMO", "00", "BHZ"), 2010, 58);
+        assertArrayEquals(Files.readAllBytes(TestFile.getFile().toPath()), Files.readAllBytes(file));
+    }
+
+    @Test
+    public void splitAtMidnight() throws Exception {
+        byte[] bytes = new byte[512];
+        try (SeedInputStream sis = new SeedInputStream(new FileInputStream(TestFile.getFile()))) {
+            assertEquals(512, sis.read(bytes));
+        }
+        DataRecord original = SeedFile.read(TestFile.getFile()).get(0);
+        // move the record to 23:59:50 of its day, its 419 samples at 20 Hz end after midnight
+        bytes[24] = 23;
+        bytes[25] = 59;
+        bytes[26] = 50;
+        try (SdsWriter writer = SdsWriter.builder(root).build()) {
+            writer.write(bytes);
+            assertEquals(1, writer.getSplitRecords());
+            assertEquals(2, writer.getOpenFiles());
+        }
+        SdsArchive archive = new SdsArchive(root);
+        Nslc nslc = Nslc.of("IU", "ANMO", "00", "BHZ");
+        List<DataRecord> before = SeedFile.read(archive.path(nslc, 2010, 58).toFile());
+        List<DataRecord> after = SeedFile.read(archive.path(nslc, 2010, 59).toFile());
+        assertEquals(1, before.size());
+        assertEquals(1, after.size());
+        assertEquals(original.getSequence(), after.get(0).getSequence());
+        assertTrue(before.get(0).computeEndTime().isBefore(Instant.parse("2010-02-28T00:00:00Z")));
+        // 200 samples at 20 Hz after 23:59:50 plus the original fraction of a second
+        assertEquals(Instant.parse("2010-02-28T00:00:00Z").plusNanos(original.getCorrectedStartTime().getNano()),
+                after.get(0).getCorrectedStartTime());
+
+        int[] samples = new int[original.getSamples().length];
+        int n = before.get(0).getSamples().length;
+        System.arraycopy(before.get(0).getSamples(), 0, samples, 0, n);
+        System.arraycopy(after.get(0).getSamples(), 0, samples, n, samples.length - n);
+        assertEquals(200, n);
+        assertArrayEquals(original.getSamples(), samples);
+    }
+
+    @Test
+    public void splitAtMidnightWithB100Rate() throws Exception {
+        DataRecord original = SeedFile.read(TestFile.getFile()).get(0);
+        int[] samples = original.getSamples();
+        // 419 samples from 23:59:35 end before midnight at the header rate of 20 Hz but after it at 10 Hz
+        SeedDataHeader header = original.getHeader().toBuilder().build();
+        header.setStart(BTime.valueOf(2010, 58, 23, 59, 35, 0));
+        byte[] bytes = new byte[1024];
+        RecordPacker packer = RecordPacker.builder().recordLength(1024).encodingFormat(EncodingFormat.STEIM2).build();
+        B500 b500 = B500.builder().timeOfException(BTime.now()).exceptionType("SYNC").clockModel("GPS")
+                .clockStatus("locked").build();
+        assertEquals(samples.length, packer.pack(header, B1001.builder().build(),
+                Arrays.asList(B100.builder().actualSampleRate(10).build(), b500), samples, 0, samples.length,
+                bytes, 0));
+        try (SdsWriter writer = SdsWriter.builder(root).build()) {
+            writer.write(bytes);
+            assertEquals(1, writer.getSplitRecords());
+        }
+        SdsArchive archive = new SdsArchive(root);
+        Nslc nslc = Nslc.of("IU", "ANMO", "00", "BHZ");
+        List<DataRecord> before = SeedFile.read(archive.path(nslc, 2010, 58).toFile());
+        List<DataRecord> after = SeedFile.read(archive.path(nslc, 2010, 59).toFile());
+        assertEquals(1, before.size());
+        assertEquals(1, after.size());
+        DataRecord first = before.get(0);
+        DataRecord second = after.get(0);
+        assertEquals(250, first.getSamples().length);
+        assertEquals(Instant.parse("2010-02-28T00:00:00Z"), second.getCorrectedStartTime());
+        // both pieces keep the B100 rate and continue each other without a gap
+        for (DataRecord piece : Arrays.asList(first, second)) {
+            assertNotNull(piece.getB100());
+            assertEquals(10, piece.getB100().getActualSampleRate());
+            assertEquals(10, piece.getSampleRate());
+        }
+        assertEquals(Instant.parse("2010-02-27T23:59:59.900Z"), first.computeEndTime());
+        assertEquals(first.computeEndTime().plusMillis(100), second.getCorrectedStartTime());
+        assertNotNull(first.get(500));
+        assertNull(second.get(500));
+    }
+}
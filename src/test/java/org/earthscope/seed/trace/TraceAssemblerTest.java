@@ -0,0 +1,125 @@
+package org.earthscope.seed.trace;
+
+import org.earthscope.seed.TestFile;
+import org.earthscope.seed.data.B100;
+import org.earthscope.seed.data.DataRecord;
+import org.earthscope.seed.data.SeedDataHeader;
+import org.earthscope.seed.util.SeedFile;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TraceAssemblerTest {
+
+    private static final int RECORDS = 6;
+    private static final int SPLIT = 3;
+
+    @Test
+    public void assemble() throws Exception {
+        List<DataRecord> records = SeedFile.read(TestFile.getFile());
+        TraceAssembler assembler = TraceAssembler.builder().build().addAll(records);
+
+        List<TraceSegment> segments = assembler.getSegments("IU", "ANMO", "00", "BHZ");
+        assertEquals(assembler.getDiscontinuities().size() + 1, segments.size());
+
+        int total = 0;
+        int recordIndex = 0;
+        for (TraceSegment segment : segments) {
+            int[] samples = segment.getSamples();
+            assertEquals(segment.getNumberOfSamples(), samples.length);
+            assertEquals(records.get(recordIndex).getCorrectedStartTimeNanos(), segment.getStartTimeNanos());
+            int position = 0;
+            for (int i = 0; i < segment.getNumberOfRecords(); i++) {
+                int[] expected = records.get(recordIndex++).getSamples();
+                for (int sample : expected) {
+                    assertEquals(sample, samples[position++]);
+                }
+            }
+            total += samples.length;
+        }
+        assertEquals(records.size(), recordIndex);
+        assertEquals(records.stream().mapToInt(r -> r.getSamples().length).sum(), total);
+    }
+
+    @Test
+    public void gapsAndOverlaps() throws Exception {
+        // 20 sps, one sample is 50 ms, the default tolerance is half a sample
+        assertSplit(TraceAssembler.builder().build(), 20_000_000L, null);
+        assertSplit(TraceAssembler.builder().build(), -20_000_000L, null);
+        assertSplit(TraceAssembler.builder().build(), 30_000_000L, Discontinuity.Type.GAP);
+        assertSplit(TraceAssembler.builder().build(), -30_000_000L, Discontinuity.Type.OVERLAP);
+        assertSplit(TraceAssembler.builder().build(), 10_000_000_000L, Discontinuity.Type.GAP);
+        assertSplit(TraceAssembler.builder().timeTolerance(1).build(), 45_000_000L, null);
+        assertSplit(TraceAssembler.builder().timeTolerance(1).build(), -55_000_000L, Discontinuity.Type.OVERLAP);
+        assertSplit(TraceAssembler.builder().timeTolerance(0).build(), 100_000L, Discontinuity.Type.GAP);
+    }
+
+    @Test
+    public void sampleRateTolerance() throws Exception {
+        List<DataRecord> records = records();
+        for (DataRecord record : records.subList(SPLIT, RECORDS)) {
+            record.add(B100.builder().actualSampleRate(20.01f).build());
+        }
+        TraceAssembler assembler = TraceAssembler.builder().build().addAll(records);
+        // a different rate starts a new segment without a discontinuity
+        assertEquals(2, assembler.getSegments().size());
+        assertEquals(0, assembler.getDiscontinuities().size());
+        assertEquals(RECORDS - SPLIT, assembler.getSegments().get(1).getNumberOfRecords());
+
+        records = records();
+        for (DataRecord record : records.subList(SPLIT, RECORDS)) {
+            record.add(B100.builder().actualSampleRate(20.01f).build());
+        }
+        assembler = TraceAssembler.builder().sampleRateTolerance(0.001).build().addAll(records);
+        assertEquals(1, assembler.getSegments().size());
+    }
+
+    /**
+     * Shifts the records from SPLIT on by shift and checks the records split into two segments at SPLIT with a
+     * discontinuity of the given type, or stay in one segment if type is null.
+     */
+    private static void assertSplit(TraceAssembler assembler, long shift, Discontinuity.Type type) throws Exception {
+        List<DataRecord> records = records();
+        long expected = records.get(SPLIT).getCorrectedStartTimeNanos();
+        for (DataRecord record : records.subList(SPLIT, RECORDS)) {
+            SeedDataHeader header = record.getHeader();
+            header.setStart(header.getStart().plusNanoSeconds(shift));
+        }
+        assembler.addAll(records);
+        List<TraceSegment> segments = assembler.getSegments("IU", "ANMO", "00", "BHZ");
+        int total = records.stream().mapToInt(DataRecord::getNumberOfSamples).sum();
+        if (type == null) {
+            assertEquals(1, segments.size(), "shift " + shift);
+            assertEquals(0, assembler.getDiscontinuities().size());
+            assertEquals(total, segments.get(0).getNumberOfSamples());
+            return;
+        }
+        assertEquals(2, segments.size(), "shift " + shift);
+        assertEquals(1, assembler.getDiscontinuities().size());
+        Discontinuity discontinuity = assembler.getDiscontinuities().get(0);
+        assertEquals(type, discontinuity.getType());
+        assertEquals(type == Discontinuity.Type.GAP ? 1 : 0, assembler.getGaps().size());
+        assertEquals(type == Discontinuity.Type.OVERLAP ? 1 : 0, assembler.getOverlaps().size());
+        assertTrue(Math.abs(discontinuity.getDurationNanos() - Math.abs(shift)) < 1000);
+        assertEquals(expected + shift, discontinuity.getActualNanos());
+
+        assertEquals(SPLIT, segments.get(0).getNumberOfRecords());
+        assertEquals(RECORDS - SPLIT, segments.get(1).getNumberOfRecords());
+        assertEquals(expected + shift, segments.get(1).getStartTimeNanos());
+        assertEquals(discontinuity.getExpectedNanos(), segments.get(0).getExpectedNextSampleTimeNanos());
+        assertEquals(total, segments.get(0).getNumberOfSamples() + segments.get(1).getNumberOfSamples());
+        assertEquals(records.get(SPLIT).getSamples()[0], segments.get(1).getSample(0));
+    }
+
+    /**
+     * @return the first records of the test file, which are contiguous
+     */
+    private static List<DataRecord> records() throws Exception {
+        List<DataRecord> records = SeedFile.read(TestFile.getFile()).subList(0, RECORDS);
+        assertEquals(1, TraceAssembler.builder().build().addAll(records).getSegments().size());
+        return records;
+    }
+}
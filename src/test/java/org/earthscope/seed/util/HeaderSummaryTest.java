@@ -0,0 +1,32 @@
+package org.earthscope.seed.util;
+
+import org.earthscope.seed.TestFile;
+import org.earthscope.seed.data.SeedDataHeader;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class HeaderSummaryTest {
+
+    @Test
+    public void scan() throws Exception {
+        List<SeedDataHeader> headers = SeedFile.readHeaders(TestFile.getFile());
+        HeaderSummary summary = HeaderSummary.scan(TestFile.getFile());
+        assertEquals(headers.size(), summary.size());
+        assertEquals(1, summary.getNumberOfChannels());
+        assertEquals("IU.ANMO.00.BHZ", summary.getChannel(0).toString());
+        assertSame(headers.get(0).getNslc(), summary.getChannel(0));
+        for (int i = 0; i < headers.size(); i++) {
+            SeedDataHeader header = headers.get(i);
+            assertEquals(0, summary.getChannelIds()[i]);
+            assertEquals(DateTimeUtil.toEpochNanos(header.getStart().toInstant()), summary.getStartTimes()[i]);
+            assertEquals(header.getNumberOfSamples(), summary.getNumberOfSamples()[i]);
+            assertEquals(header.getSampleRate(), summary.getSampleRates()[i]);
+            assertEquals('M', summary.getQualities()[i]);
+            assertEquals(512L * i, summary.getOffsets()[i]);
+        }
+    }
+}
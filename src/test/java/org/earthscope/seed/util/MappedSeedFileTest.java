@@ -0,0 +1,83 @@
+package org.earthscope.seed.util;
+
+import org.earthscope.seed.TestFile;
+import org.earthscope.seed.data.DataRecord;
+import org.earthscope.seed.data.SeedDataHeader;
+import org.earthscope.seed.io.RecordWriter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.nio.ByteOrder;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class MappedSeedFileTest {
+
+    @TempDir
+    File directory;
+
+    @Test
+    public void read() throws Exception {
+        List<DataRecord> expected;
+        try (InputStream inputStream = new FileInputStream(TestFile.getFile())) {
+            expected = SeedIO.read(inputStream);
+        }
+        try (MappedSeedFile mapped = MappedSeedFile.open(TestFile.getFile())) {
+            assertEquals(512, mapped.getRecordLength());
+            assertEquals(1243, mapped.getNumberOfRecords());
+            for (int i = 0; i < mapped.getNumberOfRecords(); i++) {
+                SeedDataHeader header = mapped.readHeader(i);
+                assertEquals(expected.get(i).getHeader().toString(), header.toString());
+                assertArrayEquals(expected.get(i).getSamples(), mapped.read(i).getSamples());
+            }
+        }
+    }
+
+    @Test
+    public void mixedRecordLengths() throws Exception {
+        List<DataRecord> records = SeedFile.read(TestFile.getFile()).subList(0, 3);
+        File file = new File(directory, "mixed.mseed");
+        try (FileOutputStream out = new FileOutputStream(file);
+             RecordWriter small = new RecordWriter(out, ByteOrder.BIG_ENDIAN, 512, null);
+             RecordWriter large = new RecordWriter(out, ByteOrder.BIG_ENDIAN, 4096, null)) {
+            small.write(records.get(0));
+            small.flush();
+            large.write(records.get(1));
+            large.flush();
+            small.write(records.get(2));
+            small.flush();
+        }
+
+        try (MappedSeedFile mapped = MappedSeedFile.open(file)) {
+            assertEquals(-1, mapped.getRecordLength());
+            assertEquals(3, mapped.getNumberOfRecords());
+            assertEquals(4096, mapped.getRecordLength(1));
+            assertEquals(512 + 4096, mapped.getOffset(2));
+            assertEquals(512, mapped.slice(2).remaining());
+        }
+        assertEquals(3, SeedFile.countRecords(file));
+        assertEquals(3, SeedFile.readHeaders(file).size());
+        assertEquals(3, SeedFile.index(file).size());
+        assertSamples(records, SeedFile.read(file));
+        assertSamples(records, SeedFile.readParallel(file));
+        try (Stream<DataRecord> stream = SeedFile.stream(file)) {
+            assertSamples(records, stream.collect(Collectors.toList()));
+        }
+    }
+
+    private static void assertSamples(List<DataRecord> expected, List<DataRecord> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getStartTime(), actual.get(i).getStartTime());
+            assertArrayEquals(expected.get(i).getSamples(), actual.get(i).getSamples());
+        }
+    }
+}
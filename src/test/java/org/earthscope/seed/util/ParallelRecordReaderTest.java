@@ -0,0 +1,36 @@
+package org.earthscope.seed.util;
+
+import org.earthscope.seed.TestFile;
+import org.earthscope.seed.data.DataRecord;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class ParallelRecordReaderTest {
+
+    @Test
+    public void read() throws Exception {
+        List<DataRecord> expected = SeedFile.read(TestFile.getFile());
+        List<DataRecord> records = SeedFile.readParallel(TestFile.getFile());
+        assertEquals(expected.size(), records.size());
+
+        ForkJoinPool pool = new ForkJoinPool(3);
+        try (MappedSeedFile mapped = MappedSeedFile.open(TestFile.getFile())) {
+            List<DataRecord> streamed = new ArrayList<>();
+            ParallelRecordReader.builder().pool(pool).chunkSize(7).build().read(mapped, streamed::add);
+            assertEquals(expected.size(), streamed.size());
+            for (int i = 0; i < expected.size(); i++) {
+                assertEquals(expected.get(i).getHeader().getSequence(), records.get(i).getHeader().getSequence());
+                assertArrayEquals(expected.get(i).getSamples(), records.get(i).getSamples());
+                assertArrayEquals(expected.get(i).getSamples(), streamed.get(i).getSamples());
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
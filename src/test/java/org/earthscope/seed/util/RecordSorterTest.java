@@ -0,0 +1,70 @@
+package org.earthscope.seed.util;
+
+import org.earthscope.seed.TestFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RecordSorterTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void sortAndDeduplicate() throws Exception {
+        byte[] original = Files.readAllBytes(TestFile.getFile().toPath());
+        int length = 512;
+        int count = original.length / length;
+        List<byte[]> records = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            records.add(Arrays.copyOfRange(original, i * length, (i + 1) * length));
+        }
+        // exact copies and retransmissions under a new sequence number
+        for (int i = 0; i < 100; i++) {
+            byte[] copy = records.get(i * 7).clone();
+            if (i % 2 == 0) {
+                System.arraycopy("999999".getBytes(), 0, copy, 0, 6);
+            }
+            records.add(copy);
+        }
+        Collections.shuffle(records, new Random(42));
+        ByteArrayOutputStream shuffled = new ByteArrayOutputStream();
+        for (byte[] record : records) {
+            shuffled.write(record);
+        }
+
+        for (long budget : new long[]{64L << 20, 32 << 10}) {
+            RecordSorter sorter = RecordSorter.builder().memoryBudget(budget).tempDirectory(tempDir).build();
+            ByteArrayOutputStream sorted = new ByteArrayOutputStream();
+            sorter.sort(new ByteArrayInputStream(shuffled.toByteArray()), sorted);
+            assertEquals(count + 100, sorter.getRecordsRead());
+            assertEquals(count, sorter.getRecordsWritten());
+            assertEquals(100, sorter.getDuplicates());
+            assertTrue(budget > original.length ? sorter.getRuns() == 1 : sorter.getRuns() > 1);
+
+            byte[] bytes = sorted.toByteArray();
+            assertEquals(original.length, bytes.length);
+            for (int i = 0; i < count; i++) {
+                assertArrayEquals(Arrays.copyOfRange(original, i * length + 6, (i + 1) * length),
+                        Arrays.copyOfRange(bytes, i * length + 6, (i + 1) * length));
+            }
+        }
+        try (Stream<Path> files = Files.list(tempDir)) {
+            assertEquals(0, files.count());
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package org.earthscope.seed.util;
+
+import org.earthscope.seed.TestFile;
+import org.earthscope.seed.data.DataRecord;
+import org.junit.jupiter.api.Test;
+
+import java.io.FileInputStream;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class RecordStreamTest {
+
+    @Test
+    public void stream() throws Exception {
+        List<DataRecord> expected = SeedFile.read(TestFile.getFile());
+        List<DataRecord> parallel;
+        try (Stream<DataRecord> records = SeedFile.stream(TestFile.getFile())) {
+            parallel = records.parallel().collect(Collectors.toList());
+        }
+        List<DataRecord> sequential;
+        try (Stream<DataRecord> records = SeedIO.stream(new FileInputStream(TestFile.getFile()))) {
+            sequential = records.collect(Collectors.toList());
+        }
+        assertEquals(expected.size(), parallel.size());
+        assertEquals(expected.size(), sequential.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getHeader().getSequence(), parallel.get(i).getHeader().getSequence());
+            assertArrayEquals(expected.get(i).getSamples(), parallel.get(i).getSamples());
+            assertArrayEquals(expected.get(i).getSamples(), sequential.get(i).getSamples());
+        }
+    }
+
+    @Test
+    public void iterable() throws Exception {
+        int count = 0;
+        try (RecordIterator iterator = SeedFile.iterate(TestFile.getFile())) {
+            for (DataRecord ignored : iterator) {
+                count++;
+            }
+        }
+        assertEquals(1243, count);
+    }
+}
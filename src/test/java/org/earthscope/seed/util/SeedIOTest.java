@@ -0,0 +1,30 @@
+package org.earthscope.seed.util;
+
+import org.earthscope.seed.TestFile;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class SeedIOTest {
+
+    @Test
+    public void countRecordsRejectsCorruptHeader() throws Exception {
+        byte[] bytes = Arrays.copyOf(Files.readAllBytes(TestFile.getFile().toPath()), 3 * 512);
+        assertEquals(3, SeedIO.countRecords(new ByteArrayInputStream(bytes)));
+
+        byte[] badHour = bytes.clone();
+        badHour[512 + 24] = 30;
+        assertThrows(IOException.class, () -> SeedIO.countRecords(new ByteArrayInputStream(badHour)));
+
+        byte[] badDay = bytes.clone();
+        badDay[512 + 22] = 2;
+        badDay[512 + 23] = 0;
+        assertThrows(IOException.class, () -> SeedIO.countRecords(new ByteArrayInputStream(badDay)));
+    }
+}
@@ -0,0 +1,44 @@
+package org.earthscope.seed.util;
+
+import org.earthscope.seed.TestFile;
+import org.earthscope.seed.data.DataRecord;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class SeedIndexTest {
+
+    @TempDir
+    File tempDir;
+
+    @Test
+    public void query() throws Exception {
+        SeedIndex index = SeedFile.index(TestFile.getFile());
+        assertEquals(1243, index.size());
+        assertEquals("IU.ANMO.00.BHZ", index.getChannels().get(0));
+
+        File indexFile = new File(tempDir, "test.idx");
+        index.write(indexFile);
+        SeedIndex loaded = SeedIndex.read(indexFile);
+        assertEquals(index.size(), loaded.size());
+
+        List<DataRecord> all = SeedFile.read(TestFile.getFile());
+        DataRecord first = all.get(100);
+        DataRecord last = all.get(102);
+        Instant start = first.getStartTime().plusNanos(1);
+        Instant end = last.getStartTime();
+        List<DataRecord> records = SeedFile.query(TestFile.getFile(), loaded, "IU", "ANMO", "00", "BHZ", start, end);
+        assertEquals(3, records.size());
+        for (int i = 0; i < records.size(); i++) {
+            assertEquals(all.get(100 + i).getStartTime(), records.get(i).getStartTime());
+            assertArrayEquals(all.get(100 + i).getSamples(), records.get(i).getSamples());
+        }
+        assertEquals(0, SeedFile.query(TestFile.getFile(), loaded, "IU", "ANMO", "10", "BHZ", start, end).size());
+    }
+}